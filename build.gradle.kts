@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("org.jetbrains.kotlin.jvm") version "1.9.21"
     id("org.jetbrains.intellij") version "1.17.2"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "io.repogate"
@@ -16,6 +17,46 @@ dependencies {
     implementation("com.squareup.okhttp3:okhttp:4.12.0")
 }
 
+// Benchmarks run outside the IDE, so give them the platform jars the plugin compiles against
+sourceSets {
+    named("jmh") {
+        compileClasspath += sourceSets.main.get().compileClasspath
+        runtimeClasspath += sourceSets.main.get().compileClasspath
+    }
+    // Stub RepoGate server and load harness (src/loadtest), kept out of the plugin jar
+    create("loadtest") {
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+        runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+    // Platform tests drive the plugin against the stub server
+    named("test") {
+        compileClasspath += sourceSets["loadtest"].output
+        runtimeClasspath += sourceSets["loadtest"].output
+    }
+    // Retained heap measurements with JOL (src/footprint)
+    create("footprint") {
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+        runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    }
+}
+
+dependencies {
+    "footprintImplementation"("org.openjdk.jol:jol-core:0.17")
+    // Platform tests (src/test) run on the IntelliJ test framework, which is JUnit 4 based
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.opentest4j:opentest4j:1.3.0")
+}
+
+// Run with ./gradlew jmh, or ./gradlew jmh -PjmhIncludes=ParserBenchmark for a subset.
+// Results are JSON so runs from different commits can be diffed (e.g. with jmh.morethan.io)
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    (findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
+
 // Configure Gradle IntelliJ Plugin
 intellij {
     version.set("2024.3")
@@ -43,6 +84,44 @@ tasks {
         enabled = false
     }
 
+    // ./gradlew loadTest -PloadTestArgs="--packages=5000 --error-rate=0.02"
+    register<JavaExec>("loadTest") {
+        group = "verification"
+        description = "Runs the end-to-end latency harness against the stub RepoGate server"
+        classpath = sourceSets["loadtest"].runtimeClasspath
+        mainClass.set("io.repogate.plugin.loadtest.LatencyHarness")
+        args = (findProperty("loadTestArgs") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+    }
+
+    // ./gradlew replaySessions -PreplayArgs="--developers=2000 --sessions=recorded/ --speed=4"
+    register<JavaExec>("replaySessions") {
+        group = "verification"
+        description = "Replays recorded or generated developer sessions against the stub RepoGate server"
+        classpath = sourceSets["loadtest"].runtimeClasspath
+        mainClass.set("io.repogate.plugin.loadtest.SessionReplay")
+        args = (findProperty("replayArgs") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+    }
+
+    // ./gradlew footprint, or -PfootprintArgs="--packages=20000 --gate=false" to explore
+    register<JavaExec>("footprint") {
+        group = "verification"
+        description = "Measures retained heap per tracked package and cached manifest, failing above the thresholds"
+        classpath = sourceSets["footprint"].runtimeClasspath
+        mainClass.set("io.repogate.plugin.footprint.FootprintSuite")
+        // Lets JOL attach to its own VM for exact object layouts
+        jvmArgs("-Djdk.attach.allowAttachSelf=true")
+        args = (findProperty("footprintArgs") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+    }
+
+    // ./gradlew runStubServer -PstubArgs="8787 evil-=denied", then point the plugin's API URL at it
+    register<JavaExec>("runStubServer") {
+        group = "verification"
+        description = "Runs the stub RepoGate server standalone"
+        classpath = sourceSets["loadtest"].runtimeClasspath
+        mainClass.set("io.repogate.plugin.loadtest.StubRepoGateServer")
+        args = (findProperty("stubArgs") as String?)?.split(" ")?.filter { it.isNotBlank() } ?: emptyList()
+    }
+
     signPlugin {
         certificateChain.set(System.getenv("CERTIFICATE_CHAIN"))
         privateKey.set(System.getenv("PRIVATE_KEY"))
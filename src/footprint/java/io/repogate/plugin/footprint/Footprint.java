@@ -0,0 +1,32 @@
+package io.repogate.plugin.footprint;
+
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Retained-heap measurement on top of JOL. A structure's cost per item is the growth
+ * of everything reachable from its roots between an empty and a filled state, so
+ * shared objects (interned literals, executors, the JDK's own tables) cancel out.
+ */
+public final class Footprint {
+    private Footprint() {
+    }
+
+    /**
+     * Bytes reachable from the roots, each object counted once
+     */
+    public static long sizeOf(Object... roots) {
+        return GraphLayout.parseInstance(roots).totalSize();
+    }
+
+    /**
+     * Bytes retained per item by {@code fill}, which adds {@code items} items to the structure behind {@code roots}
+     */
+    public static double perItem(int items, Runnable fill, Object... roots) {
+        System.gc();
+        long before = sizeOf(roots);
+        fill.run();
+        System.gc();
+        long after = sizeOf(roots);
+        return (double) (after - before) / items;
+    }
+}
@@ -0,0 +1,247 @@
+package io.repogate.plugin.footprint;
+
+import io.repogate.plugin.api.RepoGateApiClient;
+import io.repogate.plugin.listeners.ManifestCacheFootprint;
+import io.repogate.plugin.metrics.Metrics;
+import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.service.DependencyStateStore;
+import io.repogate.plugin.service.VerdictPoller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Retained heap of the state the plugin keeps for a long IDE session, measured with JOL
+ * and gated against thresholds:
+ * <ul>
+ *   <li>{@code trackedPackage}: a package with a verdict, as held by the state store</li>
+ *   <li>{@code polledPackage}: a package still waiting for a verdict: the state store entry,
+ *   the validator's pending list and a scheduled /check poll</li>
+ *   <li>{@code cachedManifest}: the listener's known names for one manifest</li>
+ * </ul>
+ * The validator itself needs a project, so the tracked and polled cases rebuild its
+ * per-package state from the same classes (store, poller, pending map) the way
+ * {@code DependencyValidator} fills them.
+ * <p>
+ * Run with {@code ./gradlew footprint}; fails if a measurement exceeds its threshold in
+ * {@code footprint-thresholds.properties}. See {@link #usage()} for options.
+ */
+public class FootprintSuite {
+    private static final String THRESHOLDS = "footprint-thresholds.properties";
+    // Like DependencyValidator's own message literals: shared, so not part of the per-package cost
+    private static final String VERDICT = "Allowed by organization policy";
+    private static final String WAITING = "Waiting for approval";
+
+    private final Options options;
+    private final Random random;
+    private final Map<String, Double> measured = new LinkedHashMap<>();
+    private final Map<String, Double> reference = new LinkedHashMap<>();
+
+    FootprintSuite(Options options) {
+        this.options = options;
+        this.random = new Random(options.seed);
+    }
+
+    void run() {
+        // First pass loads and initializes every class involved, so the measured passes only see data
+        trackedPackage();
+        polledPackage();
+        cachedManifest();
+
+        measured.put("trackedPackage", trackedPackage());
+        measured.put("polledPackage", polledPackage());
+        measured.put("cachedManifest", cachedManifest());
+    }
+
+    private double trackedPackage() {
+        DependencyStateStore store = new DependencyStateStore();
+        ConcurrentHashMap<String, DependencyInfo> pending = new ConcurrentHashMap<>();
+        List<DependencyInfo> dependencies = dependencies(options.packages);
+        return Footprint.perItem(dependencies.size(), () -> {
+            for (DependencyInfo dependency : dependencies) {
+                pending.put(dependency.getKey(), dependency);
+                store.track(dependency);
+                store.transition(dependency, DependencyInfo.ApprovalStatus.APPROVED, VERDICT);
+                pending.remove(dependency.getKey(), dependency);
+            }
+        }, store, pending);
+    }
+
+    private double polledPackage() {
+        DependencyStateStore store = new DependencyStateStore();
+        ConcurrentHashMap<String, DependencyInfo> pending = new ConcurrentHashMap<>();
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        // Started up front so its thread is part of the baseline, not of the first poll
+        scheduler.prestartAllCoreThreads();
+        VerdictPoller poller = new VerdictPoller(scheduler, Metrics.counter("footprint.polls"));
+        // Stands in for the validator the poll callbacks capture
+        Object validator = new Object();
+        List<DependencyInfo> dependencies = dependencies(options.packages);
+        try {
+            return Footprint.perItem(dependencies.size(), () -> {
+                for (DependencyInfo dependency : dependencies) {
+                    String key = dependency.getKey();
+                    pending.put(key, dependency);
+                    store.track(dependency);
+                    store.transition(dependency, DependencyInfo.ApprovalStatus.PENDING, WAITING);
+                    // Same captures as DependencyValidator.startPolling; the interval keeps it from firing
+                    poller.start(key, 3_600_000L, () -> check(validator, dependency), new VerdictPoller.Handler() {
+                        @Override
+                        public boolean onResponse(RepoGateApiClient.DependencyResponse response) {
+                            return handle(validator, dependency, key, response);
+                        }
+                    });
+                }
+            }, store, pending, poller, scheduler.getQueue());
+        } finally {
+            poller.stopAll();
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static RepoGateApiClient.DependencyResponse check(Object validator, DependencyInfo dependency) {
+        return null;
+    }
+
+    private static boolean handle(Object validator, DependencyInfo dependency, String key,
+                                  RepoGateApiClient.DependencyResponse response) {
+        return true;
+    }
+
+    private double cachedManifest() {
+        Map<String, List<String>> manifests = new LinkedHashMap<>();
+        for (int i = 0; i < options.manifests; i++) {
+            List<String> names = new ArrayList<>(options.names);
+            for (int j = 0; j < options.names; j++) {
+                names.add(packageName(random.nextInt(options.catalog)));
+            }
+            manifests.put("/home/developer/work/monorepo/packages/module-" + i + "/package.json", names);
+        }
+        reference.put("cachedManifest", ManifestCacheFootprint.legacy(manifests));
+        return ManifestCacheFootprint.cache(manifests);
+    }
+
+    /**
+     * Fresh instances per call, like parser output
+     */
+    private List<DependencyInfo> dependencies(int count) {
+        List<DependencyInfo> dependencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean npm = random.nextInt(3) > 0;
+            dependencies.add(new DependencyInfo(
+                    npm ? packageName(i) : "io.example.group" + (i % 50) + ":artifact-" + i,
+                    npm ? "npm" : "maven",
+                    (i % 10) + "." + (i % 7) + "." + (i % 13),
+                    "/home/developer/work/monorepo/package.json"));
+        }
+        return dependencies;
+    }
+
+    private static String packageName(int index) {
+        return (index % 5 == 0 ? "@scope-" + (index % 17) + "/" : "") + "package-" + index;
+    }
+
+    /**
+     * @return true if every measurement is within its threshold
+     */
+    boolean report(Properties thresholds) {
+        System.out.println("Retained heap, bytes per item (packages=" + options.packages
+                + ", manifests=" + options.manifests + " of " + options.names + " names)");
+        System.out.printf("  %-16s %10s %10s %10s%n", "item", "measured", "threshold", "previous");
+        boolean passed = true;
+        for (Map.Entry<String, Double> entry : measured.entrySet()) {
+            String limit = thresholds.getProperty(entry.getKey());
+            Double previous = reference.get(entry.getKey());
+            boolean over = limit != null && entry.getValue() > Double.parseDouble(limit);
+            passed &= !over;
+            System.out.printf("  %-16s %10.1f %10s %10s%s%n", entry.getKey(), entry.getValue(),
+                    limit != null ? limit : "-",
+                    previous != null ? String.format("%.1f", previous) : "-",
+                    over ? "  OVER" : "");
+        }
+        return passed;
+    }
+
+    static Properties loadThresholds(String path) throws IOException {
+        Properties thresholds = new Properties();
+        if (path != null) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+                thresholds.load(reader);
+            }
+            return thresholds;
+        }
+        try (InputStream in = FootprintSuite.class.getResourceAsStream("/" + THRESHOLDS)) {
+            if (in != null) {
+                thresholds.load(in);
+            }
+        }
+        return thresholds;
+    }
+
+    static final class Options {
+        int packages = 5000;
+        int manifests = 500;
+        int names = 40;
+        int catalog = 400;
+        long seed = 42;
+        String thresholds;
+        boolean gate = true;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Unexpected argument '" + arg + "'\n" + usage());
+                }
+                String key = arg.substring(2, eq);
+                String value = arg.substring(eq + 1);
+                switch (key) {
+                    case "packages": options.packages = Integer.parseInt(value); break;
+                    case "manifests": options.manifests = Integer.parseInt(value); break;
+                    case "names": options.names = Integer.parseInt(value); break;
+                    case "catalog": options.catalog = Integer.parseInt(value); break;
+                    case "seed": options.seed = Long.parseLong(value); break;
+                    case "thresholds": options.thresholds = value; break;
+                    case "gate": options.gate = Boolean.parseBoolean(value); break;
+                    default: throw new IllegalArgumentException("Unknown option '" + key + "'\n" + usage());
+                }
+            }
+            return options;
+        }
+    }
+
+    static String usage() {
+        return "Options (all --name=value):\n"
+                + "  packages    tracked and polled packages to measure (default 5000)\n"
+                + "  manifests   cached manifests to measure (default 500)\n"
+                + "  names       dependencies per manifest (default 40; thresholds assume it)\n"
+                + "  catalog     distinct names the manifests draw from (default 400)\n"
+                + "  seed        random seed (default 42)\n"
+                + "  thresholds  properties file of bytes per item (default: the bundled " + THRESHOLDS + ")\n"
+                + "  gate        fail when a threshold is exceeded (default true)";
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        FootprintSuite suite = new FootprintSuite(options);
+        suite.run();
+        boolean passed = suite.report(loadThresholds(options.thresholds));
+        if (!passed && options.gate) {
+            System.out.println("Footprint regression: see the OVER rows above");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.repogate.plugin.listeners;
+
+import io.repogate.plugin.footprint.Footprint;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap kept per manifest by the listener's {@link ManifestNameCache}, next to the
+ * previous representation (a set of the parsed name strings per path) for comparison.
+ * Names are fresh String instances per manifest, as every parse produces them.
+ */
+public final class ManifestCacheFootprint {
+    private ManifestCacheFootprint() {
+    }
+
+    /**
+     * @param manifests path -> dependency names declared in it
+     * @return bytes per manifest
+     */
+    public static double cache(Map<String, List<String>> manifests) {
+        ManifestNameCache cache = new ManifestNameCache();
+        return Footprint.perItem(manifests.size(), () -> manifests.forEach((path, names) -> {
+            List<String> copy = new ArrayList<>(names.size());
+            for (String name : names) {
+                copy.add(new String(name));
+            }
+            cache.put(new String(path), copy);
+        }), cache);
+    }
+
+    /**
+     * Same as {@link #cache}, for the previous {@code Map<String, Set<String>>}
+     */
+    public static double legacy(Map<String, List<String>> manifests) {
+        Map<String, Set<String>> cache = new ConcurrentHashMap<>();
+        return Footprint.perItem(manifests.size(), () -> manifests.forEach((path, names) -> {
+            Set<String> copy = new HashSet<>();
+            for (String name : names) {
+                copy.add(new String(name));
+            }
+            cache.put(new String(path), copy);
+        }), cache);
+    }
+}
@@ -0,0 +1,93 @@
+package io.repogate.plugin.listeners;
+
+import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.parser.ByteManifestSource;
+import io.repogate.plugin.parser.DependencyParser;
+import io.repogate.plugin.parser.GradleDependencyParser;
+import io.repogate.plugin.parser.ManifestCorpus;
+import io.repogate.plugin.parser.ManifestParseException;
+import io.repogate.plugin.parser.MavenDependencyParser;
+import io.repogate.plugin.parser.NpmDependencyParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the file listener does for one manifest edit, short of validating: parse the new
+ * content, look every name up in the {@link ManifestNameCache} entry of the previous
+ * content and store the new names. The edit adds one dependency, as in the
+ * {@link ManifestCorpus}. Run with {@code ./gradlew jmh -PjmhIncludes=EditPathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EditPathBenchmark {
+    private static final String BEFORE = "/bench/before";
+    private static final String AFTER = "/bench/after";
+
+    @Param({"SMALL", "LARGE", "PATHOLOGICAL"})
+    public String corpus;
+
+    private final NpmDependencyParser npmParser = new NpmDependencyParser();
+    private final MavenDependencyParser mavenParser = new MavenDependencyParser();
+    private final GradleDependencyParser gradleParser = new GradleDependencyParser();
+
+    private byte[] npm;
+    private byte[] maven;
+    private byte[] gradle;
+    // Each holds the names before the edit under BEFORE; the edit itself is stored under AFTER,
+    // so every call sees the same previous names
+    private ManifestNameCache npmCache;
+    private ManifestNameCache mavenCache;
+    private ManifestNameCache gradleCache;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ManifestParseException {
+        ManifestCorpus.Size size = ManifestCorpus.Size.valueOf(corpus);
+        npm = ManifestCorpus.npm(size);
+        maven = ManifestCorpus.maven(size);
+        gradle = ManifestCorpus.gradle(size);
+        npmCache = primed(npmParser, ManifestCorpus.npmBeforeEdit(size));
+        mavenCache = primed(mavenParser, ManifestCorpus.mavenBeforeEdit(size));
+        gradleCache = primed(gradleParser, ManifestCorpus.gradleBeforeEdit(size));
+    }
+
+    @Benchmark
+    public List<DependencyInfo> editNpm() throws ManifestParseException {
+        return edit(npmParser, npm, npmCache);
+    }
+
+    @Benchmark
+    public List<DependencyInfo> editMaven() throws ManifestParseException {
+        return edit(mavenParser, maven, mavenCache);
+    }
+
+    @Benchmark
+    public List<DependencyInfo> editGradle() throws ManifestParseException {
+        return edit(gradleParser, gradle, gradleCache);
+    }
+
+    private static List<DependencyInfo> edit(DependencyParser parser, byte[] content, ManifestNameCache cache)
+            throws ManifestParseException {
+        List<DependencyInfo> current = parser.parseDependencies(ByteManifestSource.wrap(content));
+        List<String> currentNames = new ArrayList<>(current.size());
+        List<DependencyInfo> added = DependencyFileListener.findNewDependencies(current, cache.get(BEFORE), currentNames);
+        cache.put(AFTER, currentNames);
+        return added;
+    }
+
+    private static ManifestNameCache primed(DependencyParser parser, byte[] content) throws ManifestParseException {
+        List<String> names = new ArrayList<>();
+        for (DependencyInfo dependency : parser.parseDependencies(ByteManifestSource.wrap(content))) {
+            names.add(dependency.getPackageName());
+        }
+        ManifestNameCache cache = new ManifestNameCache();
+        cache.put(BEFORE, names);
+        return cache;
+    }
+}
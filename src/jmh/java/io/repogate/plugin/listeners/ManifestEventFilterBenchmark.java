@@ -0,0 +1,119 @@
+package io.repogate.plugin.listeners;
+
+import io.repogate.plugin.parser.DependencyParser;
+import io.repogate.plugin.parser.GradleDependencyParser;
+import io.repogate.plugin.parser.MavenDependencyParser;
+import io.repogate.plugin.parser.NpmDependencyParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a synthetic burst of 500k content-change file names, as a large git
+ * checkout or code generation would deliver them, through the listener's filter.
+ * {@code filter} is the {@link ManifestEventFilter} path; {@code legacy} is the
+ * previous getName() plus supports() loop, for comparison. Scores and the gc
+ * profiler's gc.alloc.rate.norm are per event. Run with
+ * {@code ./gradlew jmh -PjmhIncludes=ManifestEventFilterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManifestEventFilterBenchmark {
+    private static final int EVENTS = 500_000;
+
+    // Mostly source and generated files; a few near misses that share a manifest's
+    // length and last char, and one real manifest in every ~2000 events
+    private static final String[] REJECTED = {
+            "Main.java", "UserService.java", "index.ts", "App.tsx", "styles.css", "README.md",
+            "index.js", "module.js", "utils.kt", "Build.class", "logo.png", "index.d.ts",
+            "tsconfig.json", "web.xml", "settings.gradle", "package-lock.json", "gradle.properties"
+    };
+    private static final String[] MANIFESTS = {"package.json", "pom.xml", "build.gradle", "build.gradle.kts"};
+
+    private final List<DependencyParser> parsers = Arrays.asList(
+            new NpmDependencyParser(),
+            new MavenDependencyParser(),
+            new GradleDependencyParser()
+    );
+    private final ManifestEventFilter filter = new ManifestEventFilter(parsers);
+    private CharSequence[] burst;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        burst = new CharSequence[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            String name = random.nextInt(2000) == 0
+                    ? MANIFESTS[random.nextInt(MANIFESTS.length)]
+                    : REJECTED[random.nextInt(REJECTED.length)];
+            burst[i] = new AsciiName(name);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int filter() {
+        int matched = 0;
+        for (CharSequence name : burst) {
+            if (filter.match(name) != null) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int legacy() {
+        int matched = 0;
+        for (CharSequence name : burst) {
+            String fileName = name.toString();
+            for (DependencyParser parser : parsers) {
+                if (parser.supports(fileName)) {
+                    matched++;
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Stands in for the VFS name sequence: bytes held once, a String only on toString()
+     */
+    private static final class AsciiName implements CharSequence {
+        private final byte[] bytes;
+
+        AsciiName(String name) {
+            bytes = name.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) bytes[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
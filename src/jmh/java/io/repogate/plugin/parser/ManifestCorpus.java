@@ -0,0 +1,144 @@
+package io.repogate.plugin.parser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Generated manifests for the parser benchmarks. Content is deterministic so
+ * results from different commits are comparable.
+ * <ul>
+ *   <li>small: a typical hand-written manifest, about a dozen dependencies</li>
+ *   <li>large: about 3,000 lines, the size of a big multi-module parent pom</li>
+ *   <li>pathological: input that is expensive for the parser's strategy
+ *   (near-miss regex matches, long single lines, deeply nested JSON to skip)</li>
+ * </ul>
+ */
+public final class ManifestCorpus {
+    public enum Size { SMALL, LARGE, PATHOLOGICAL }
+
+    private static final int LARGE_LINES = 3000;
+
+    private ManifestCorpus() {
+    }
+
+    public static byte[] npm(Size size) {
+        return bytes(npmText(size, -1));
+    }
+
+    public static byte[] maven(Size size) {
+        return bytes(mavenText(size, -1));
+    }
+
+    public static byte[] gradle(Size size) {
+        return bytes(gradleText(size, -1));
+    }
+
+    /**
+     * The same manifest with one (well-formed) dependency removed, as the content before an edit
+     */
+    public static byte[] npmBeforeEdit(Size size) {
+        return bytes(npmText(size, 1));
+    }
+
+    public static byte[] mavenBeforeEdit(Size size) {
+        return bytes(mavenText(size, 1));
+    }
+
+    public static byte[] gradleBeforeEdit(Size size) {
+        return bytes(gradleText(size, 1));
+    }
+
+    private static String npmText(Size size, int skip) {
+        int count = size == Size.SMALL ? 12 : LARGE_LINES / 2;
+        StringBuilder sb = new StringBuilder("{\n  \"name\": \"bench\",\n  \"version\": \"1.0.0\",\n");
+        if (size == Size.PATHOLOGICAL) {
+            // Deep, wide metadata ahead of the dependencies that the parser has to skip over
+            sb.append("  \"config\": ");
+            for (int i = 0; i < 100; i++) {
+                sb.append("{\"level").append(i).append("\": [1, 2, \"").append("x".repeat(64)).append("\", ");
+            }
+            sb.append("null");
+            for (int i = 0; i < 100; i++) {
+                sb.append("]}");
+            }
+            sb.append(",\n");
+        }
+        sb.append("  \"dependencies\": {\n");
+        appendNpmEntries(sb, "package-", count, skip);
+        sb.append("  },\n  \"devDependencies\": {\n");
+        appendNpmEntries(sb, "dev-package-", count / 4 + 1, -1);
+        sb.append("  }\n}\n");
+        return sb.toString();
+    }
+
+    private static void appendNpmEntries(StringBuilder sb, String prefix, int count, int skip) {
+        boolean first = true;
+        for (int i = 0; i < count; i++) {
+            if (i == skip) {
+                continue;
+            }
+            if (!first) {
+                sb.append(",\n");
+            }
+            first = false;
+            sb.append("    \"").append(prefix).append(i).append("\": \"^1.").append(i % 40).append(".0\"");
+        }
+        sb.append('\n');
+    }
+
+    private static String mavenText(Size size, int skip) {
+        // Each dependency block is five lines
+        int count = size == Size.SMALL ? 12 : LARGE_LINES / 5;
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project>\n  <dependencies>\n");
+        for (int i = 0; i < count; i++) {
+            if (i == skip) {
+                continue;
+            }
+            if (size == Size.PATHOLOGICAL && i % 2 == 0) {
+                // Near miss: starts like a match, then has scope/comments where groupId is expected,
+                // so the regex scans ahead and backtracks over the whitespace
+                sb.append("    <dependency>").append(" ".repeat(256)).append("\n")
+                        .append("      <!-- ").append("managed ".repeat(32)).append("-->\n")
+                        .append("      <artifactId>artifact-").append(i).append("</artifactId>\n")
+                        .append("      <scope>test</scope>\n")
+                        .append("    </dependency>\n");
+                continue;
+            }
+            sb.append("    <dependency>\n")
+                    .append("      <groupId>org.bench").append(i % 50).append("</groupId>\n")
+                    .append("      <artifactId>artifact-").append(i).append("</artifactId>\n")
+                    .append("      <version>1.").append(i % 40).append(".0</version>\n")
+                    .append("    </dependency>\n");
+        }
+        sb.append("  </dependencies>\n</project>\n");
+        return sb.toString();
+    }
+
+    private static String gradleText(Size size, int skip) {
+        int count = size == Size.SMALL ? 12 : LARGE_LINES;
+        StringBuilder sb = new StringBuilder("plugins {\n    id(\"java\")\n}\n\ndependencies {\n");
+        for (int i = 0; i < count; i++) {
+            if (i == skip) {
+                continue;
+            }
+            if (size == Size.PATHOLOGICAL) {
+                // Everything on one line, and every other entry a configuration name
+                // followed by a string that never becomes a coordinate
+                if (i % 2 == 0) {
+                    sb.append("implementation(\"").append("org.bench.".repeat(8)).append(i).append("\") ");
+                } else {
+                    sb.append("implementation(\"org.bench:artifact-").append(i).append(":1.0\") ");
+                }
+                continue;
+            }
+            String configuration = i % 3 == 0 ? "testImplementation" : "implementation";
+            sb.append("    ").append(configuration).append("(\"org.bench").append(i % 50)
+                    .append(":artifact-").append(i).append(":1.").append(i % 40).append(".0\")\n");
+        }
+        sb.append("\n}\n");
+        return sb.toString();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
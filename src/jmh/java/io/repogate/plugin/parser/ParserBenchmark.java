@@ -0,0 +1,59 @@
+package io.repogate.plugin.parser;
+
+import io.repogate.plugin.model.DependencyInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse cost of each manifest parser over the {@link ManifestCorpus}.
+ * Each benchmark measures a full parse from an in-memory source, what scans and the
+ * file listener do; {@code EditPathBenchmark} adds the listener's name cache on top.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=ParserBenchmark}; results are written
+ * as JSON to build/results/jmh/results.json and the gc profiler reports
+ * allocation per call (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({"SMALL", "LARGE", "PATHOLOGICAL"})
+    public String corpus;
+
+    private final NpmDependencyParser npmParser = new NpmDependencyParser();
+    private final MavenDependencyParser mavenParser = new MavenDependencyParser();
+    private final GradleDependencyParser gradleParser = new GradleDependencyParser();
+
+    private byte[] npm;
+    private byte[] maven;
+    private byte[] gradle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ManifestCorpus.Size size = ManifestCorpus.Size.valueOf(corpus);
+        npm = ManifestCorpus.npm(size);
+        maven = ManifestCorpus.maven(size);
+        gradle = ManifestCorpus.gradle(size);
+    }
+
+    // A fresh source per call: ByteManifestSource caches its decoded chars
+
+    @Benchmark
+    public List<DependencyInfo> parseNpm() throws ManifestParseException {
+        return npmParser.parseDependencies(ByteManifestSource.wrap(npm));
+    }
+
+    @Benchmark
+    public List<DependencyInfo> parseMaven() throws ManifestParseException {
+        return mavenParser.parseDependencies(ByteManifestSource.wrap(maven));
+    }
+
+    @Benchmark
+    public List<DependencyInfo> parseGradle() throws ManifestParseException {
+        return gradleParser.parseDependencies(ByteManifestSource.wrap(gradle));
+    }
+}
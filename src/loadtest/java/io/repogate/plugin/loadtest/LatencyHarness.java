@@ -0,0 +1,321 @@
+package io.repogate.plugin.loadtest;
+
+import io.repogate.plugin.api.RepoGateApiClient;
+import io.repogate.plugin.model.InventoryEntry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives {@link RepoGateApiClient} against a {@link StubRepoGateServer} the way the
+ * plugin does for a large project: the initial scan upload ({@code /queue}), the
+ * inventory report, then one {@code /request} per package and {@code /check} polling
+ * at a fixed interval until every package has a verdict.
+ * <p>
+ * Reports time-to-verdict percentiles, calls per endpoint and peak thread usage.
+ * Run with {@code ./gradlew loadTest -PloadTestArgs="--packages=5000 --error-rate=0.02"};
+ * see {@link #usage()} for all options.
+ */
+public class LatencyHarness {
+    private final Options options;
+    private final StubRepoGateServer server;
+    private final RepoGateApiClient client;
+    private final ExecutorService requestPool;
+    private final ScheduledExecutorService pollTimer;
+    private final Map<String, LongAdder> verdicts = new ConcurrentHashMap<>();
+    private final LongAdder clientErrors = new LongAdder();
+    private final long[] timeToVerdict;
+    private final CountDownLatch remaining;
+
+    LatencyHarness(Options options, StubRepoGateServer server) {
+        this.options = options;
+        this.server = server;
+        this.client = new RepoGateApiClient(server.getBaseUrl(), "loadtest-token");
+        this.requestPool = Executors.newFixedThreadPool(options.concurrency, named("harness-request"));
+        // Like the IDE's scheduled executor: the timer only hands work to the pool
+        this.pollTimer = Executors.newSingleThreadScheduledExecutor(named("harness-timer"));
+        this.timeToVerdict = new long[options.packages];
+        this.remaining = new CountDownLatch(options.packages);
+    }
+
+    void run() throws InterruptedException {
+        ThreadSampler sampler = new ThreadSampler();
+        sampler.start();
+        long start = System.nanoTime();
+
+        long uploadStart = System.nanoTime();
+        client.queuePackages(packageList());
+        long uploadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - uploadStart);
+
+        long inventoryStart = System.nanoTime();
+        try {
+            client.reportInventory("loadtest", "digest-" + options.packages, inventoryList(), Collections.emptyMap());
+        } catch (Exception e) {
+            clientErrors.increment();
+        }
+        long inventoryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inventoryStart);
+
+        for (int i = 0; i < options.packages; i++) {
+            int index = i;
+            requestPool.execute(() -> request(index, System.nanoTime()));
+        }
+        boolean finished = remaining.await(options.timeoutSeconds, TimeUnit.SECONDS);
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        pollTimer.shutdownNow();
+        requestPool.shutdownNow();
+        sampler.stop();
+
+        report(finished, wallMillis, uploadMillis, inventoryMillis, sampler);
+    }
+
+    private void request(int index, long startedAt) {
+        String name = packageName(index);
+        try {
+            RepoGateApiClient.DependencyResponse response = client.requestDependency(
+                    name, "npm", "1.0." + index, "loadtest", "package.json", true);
+            String verdict = verdictOf(response);
+            if (verdict != null) {
+                finish(index, startedAt, verdict);
+            } else {
+                poll(index, startedAt);
+            }
+        } catch (Exception | LinkageError e) {
+            // The plugin marks the package as errored and stops here
+            clientErrors.increment();
+            finish(index, startedAt, "error");
+        }
+    }
+
+    private void poll(int index, long startedAt) {
+        String name = packageName(index);
+        ScheduledFuture<?>[] task = new ScheduledFuture<?>[1];
+        AtomicBoolean done = new AtomicBoolean();
+        task[0] = pollTimer.scheduleAtFixedRate(() -> requestPool.execute(() -> {
+            if (done.get()) {
+                return;
+            }
+            try {
+                RepoGateApiClient.DependencyResponse response = client.checkDependency(
+                        name, "npm", "1.0." + index, "loadtest", true);
+                String verdict = verdictOf(response);
+                // Two polls of a slow server can overlap; only the first verdict counts
+                if (verdict != null && done.compareAndSet(false, true)) {
+                    task[0].cancel(false);
+                    finish(index, startedAt, verdict);
+                }
+            } catch (Exception | LinkageError e) {
+                // Polling keeps going on the next interval, as in the plugin
+                clientErrors.increment();
+            }
+        }), options.pollMillis, options.pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return "approved" or "denied", or null while the package is still pending or scanning
+     */
+    private static String verdictOf(RepoGateApiClient.DependencyResponse response) {
+        String status = response.getStatus() != null ? response.getStatus().toLowerCase() : "pending";
+        return status.equals("approved") || status.equals("denied") ? status : null;
+    }
+
+    private void finish(int index, long startedAt, String verdict) {
+        timeToVerdict[index] = System.nanoTime() - startedAt;
+        verdicts.computeIfAbsent(verdict, v -> new LongAdder()).increment();
+        remaining.countDown();
+    }
+
+    private void report(boolean finished, long wallMillis, long uploadMillis, long inventoryMillis, ThreadSampler sampler) {
+        System.out.println("RepoGate load test: " + options.packages + " packages, concurrency " + options.concurrency
+                + ", poll " + options.pollMillis + " ms");
+        if (!finished) {
+            System.out.println("  TIMED OUT after " + options.timeoutSeconds + " s, "
+                    + remaining.getCount() + " packages without a verdict");
+        }
+        System.out.println("  wall time:            " + wallMillis + " ms");
+        System.out.println("  /queue upload:        " + uploadMillis + " ms (" + server.getQueuedPackages() + " packages)");
+        System.out.println("  inventory report:     " + inventoryMillis + " ms");
+
+        long[] sorted = Arrays.stream(timeToVerdict).filter(t -> t > 0).sorted().toArray();
+        if (sorted.length > 0) {
+            System.out.println("  time to verdict (ms): p50 " + millis(sorted, 0.50) + ", p90 " + millis(sorted, 0.90)
+                    + ", p99 " + millis(sorted, 0.99) + ", max " + millis(sorted, 1.0));
+        }
+        Map<String, Long> verdictCounts = new TreeMap<>();
+        verdicts.forEach((verdict, count) -> verdictCounts.put(verdict, count.sum()));
+        System.out.println("  verdicts:             " + verdictCounts);
+        System.out.println("  client errors:        " + clientErrors.sum()
+                + " (server injected " + server.getInjectedErrors() + ")");
+        System.out.println("  server calls:         " + server.getTotalCalls() + " " + server.getCallCounts());
+        System.out.println("  peak threads:         " + sampler.getPeakTotal() + " total, by pool " + sampler.getPeakByGroup());
+    }
+
+    private static long millis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    }
+
+    private List<RepoGateApiClient.PackageInfo> packageList() {
+        List<RepoGateApiClient.PackageInfo> packages = new ArrayList<>(options.packages);
+        for (int i = 0; i < options.packages; i++) {
+            packages.add(new RepoGateApiClient.PackageInfo(packageName(i), "1.0." + i, "npm", "loadtest",
+                    List.of("package.json")));
+        }
+        return packages;
+    }
+
+    private List<InventoryEntry> inventoryList() {
+        List<InventoryEntry> entries = new ArrayList<>(options.packages);
+        for (int i = 0; i < options.packages; i++) {
+            entries.add(new InventoryEntry(packageName(i), "npm", "1.0." + i, List.of("package.json")));
+        }
+        return entries;
+    }
+
+    private static String packageName(int index) {
+        return "package-" + index;
+    }
+
+    private static java.util.concurrent.ThreadFactory named(String prefix) {
+        AtomicInteger number = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Samples live threads every 50 ms and keeps the peak per pool (by thread name prefix)
+     */
+    private static final class ThreadSampler {
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final Map<String, Integer> peakByGroup = new HashMap<>();
+        private final Thread thread = new Thread(this::sample, "harness-sampler");
+        private volatile boolean running = true;
+
+        void start() {
+            threads.resetPeakThreadCount();
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+        }
+
+        private void sample() {
+            while (running) {
+                Map<String, Integer> counts = new HashMap<>();
+                for (Thread live : Thread.getAllStackTraces().keySet()) {
+                    counts.merge(groupOf(live.getName()), 1, Integer::sum);
+                }
+                synchronized (peakByGroup) {
+                    counts.forEach((group, count) -> peakByGroup.merge(group, count, Math::max));
+                }
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private static String groupOf(String name) {
+            if (name.startsWith("OkHttp")) {
+                return "okhttp";
+            }
+            int dash = name.lastIndexOf('-');
+            if (dash > 0 && (name.startsWith("harness-") || name.startsWith("stub-server-"))) {
+                return name.substring(0, dash);
+            }
+            return "other";
+        }
+
+        int getPeakTotal() {
+            return threads.getPeakThreadCount();
+        }
+
+        Map<String, Integer> getPeakByGroup() {
+            synchronized (peakByGroup) {
+                return new TreeMap<>(peakByGroup);
+            }
+        }
+    }
+
+    static final class Options {
+        int packages = 2000;
+        int concurrency = 16;
+        long pollMillis = 10_000;
+        long timeoutSeconds = 600;
+        StubConfig stub = new StubConfig();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            long latency = options.stub.getLatencyMs();
+            long jitter = options.stub.getJitterMs();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Unexpected argument '" + arg + "'\n" + usage());
+                }
+                String key = arg.substring(2, eq);
+                String value = arg.substring(eq + 1);
+                switch (key) {
+                    case "packages": options.packages = Integer.parseInt(value); break;
+                    case "concurrency": options.concurrency = Integer.parseInt(value); break;
+                    case "poll-ms": options.pollMillis = Long.parseLong(value); break;
+                    case "timeout-s": options.timeoutSeconds = Long.parseLong(value); break;
+                    case "latency-ms": latency = Long.parseLong(value); break;
+                    case "jitter-ms": jitter = Long.parseLong(value); break;
+                    case "error-rate": options.stub.errorRate(Double.parseDouble(value)); break;
+                    case "server-threads": options.stub.serverThreads(Integer.parseInt(value)); break;
+                    case "scripts": options.stub.scripts(value); break;
+                    default: throw new IllegalArgumentException("Unknown option '" + key + "'\n" + usage());
+                }
+            }
+            options.stub.latency(latency, jitter);
+            return options;
+        }
+    }
+
+    static String usage() {
+        return "Options (all --name=value):\n"
+                + "  packages        packages to validate (default 2000)\n"
+                + "  concurrency     request threads, like the IDE's pooled threads (default 16)\n"
+                + "  poll-ms         /check interval per pending package (default 10000, as in the plugin)\n"
+                + "  timeout-s       give up after this long (default 600)\n"
+                + "  latency-ms      stub base latency (default 20)\n"
+                + "  jitter-ms       stub random extra latency (default 10)\n"
+                + "  error-rate      fraction of stub calls failing with 503 (default 0)\n"
+                + "  server-threads  stub handler threads (default 64)\n"
+                + "  scripts         status scripts, e.g. \"=pending,approved;evil-=denied\" (empty prefix = default)";
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        try (StubRepoGateServer server = new StubRepoGateServer(options.stub).start()) {
+            System.out.println("Stub at " + server.getBaseUrl() + " (" + options.stub + ")");
+            new LatencyHarness(options, server).run();
+        }
+        System.exit(0);
+    }
+}
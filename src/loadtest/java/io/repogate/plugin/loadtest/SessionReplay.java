@@ -0,0 +1,466 @@
+package io.repogate.plugin.loadtest;
+
+import io.repogate.plugin.api.HttpClientProvider;
+import io.repogate.plugin.api.RepoGateApiClient;
+import io.repogate.plugin.metrics.Counter;
+import io.repogate.plugin.metrics.Metrics;
+import io.repogate.plugin.metrics.MetricsSnapshot;
+import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.service.VerdictPoller;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless load generator for capacity planning: replays manifest-edit timelines
+ * of N simulated developers against a RepoGate server (the in-process
+ * {@link StubRepoGateServer} by default) and reports what the backend would see.
+ * <p>
+ * Each developer runs the plugin's own validation round trip: a
+ * {@code /request} through {@link RepoGateApiClient} on the shared
+ * {@link HttpClientProvider} client, then {@code /check} polling through the
+ * {@link VerdictPoller} that DependencyValidator uses, until the package is
+ * approved or denied. Latencies and call counts come from the plugin's
+ * MetricsInterceptor, exactly as they would inside the IDE.
+ * <p>
+ * Timelines are recorded with the plugin ({@code -Drepogate.recordSession=...}, see
+ * SessionRecorder) or generated. Run with
+ * {@code ./gradlew replaySessions -PreplayArgs="--developers=500 --duration-s=900 --speed=5"};
+ * see {@link #usage()} for all options.
+ */
+public class SessionReplay {
+    private final Options options;
+    private final String baseUrl;
+    private final List<SessionTimeline> timelines;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService requestPool;
+    private final Counter activePolls = Metrics.counter("replay.polls.active");
+    private final Map<String, LongAdder> verdicts = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> timeToVerdict = new ConcurrentLinkedQueue<>();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder duplicateEdits = new LongAdder();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final CountDownLatch allDispatched;
+
+    SessionReplay(Options options, String baseUrl, List<SessionTimeline> timelines) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.timelines = timelines;
+        // Like the IDE's scheduled executor, which runs poll ticks on pooled threads
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(options.schedulerThreads, named("replay-scheduler"));
+        timer.setRemoveOnCancelPolicy(true);
+        this.scheduler = timer;
+        // Like ValidationDispatcher's workers, shared by all simulated IDEs
+        this.requestPool = Executors.newFixedThreadPool(options.requestThreads, named("replay-request"));
+        this.allDispatched = new CountDownLatch(timelines.stream().mapToInt(timeline -> timeline.edits.size()).sum());
+    }
+
+    void run() throws InterruptedException {
+        Metrics.reset();
+        ResourceSampler sampler = new ResourceSampler();
+        sampler.start();
+        long start = System.nanoTime();
+
+        for (SessionTimeline timeline : timelines) {
+            Developer developer = new Developer(timeline.developer);
+            for (SessionTimeline.Edit edit : timeline.edits) {
+                long delay = (long) (edit.offsetMs / options.speed);
+                scheduler.schedule(() -> requestPool.execute(() -> developer.validate(edit)), delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.timeoutSeconds);
+        allDispatched.await(options.timeoutSeconds, TimeUnit.SECONDS);
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        scheduler.shutdownNow();
+        requestPool.shutdownNow();
+        sampler.stop();
+        report(wallMillis, sampler);
+    }
+
+    /**
+     * One simulated IDE: its own API client (token) and poller, as the plugin has per project
+     */
+    private final class Developer {
+        private final String name;
+        private final RepoGateApiClient client;
+        private final VerdictPoller poller = new VerdictPoller(scheduler, activePolls);
+        private final Map<String, Boolean> inProgress = new ConcurrentHashMap<>();
+
+        Developer(String name) {
+            this.name = name;
+            this.client = new RepoGateApiClient(baseUrl, "replay-" + name);
+        }
+
+        void validate(SessionTimeline.Edit edit) {
+            try {
+                String key = edit.name + ":" + edit.manager;
+                // The plugin only validates names that are new to the manifest
+                if (inProgress.putIfAbsent(key, Boolean.TRUE) != null) {
+                    duplicateEdits.increment();
+                    return;
+                }
+                outstanding.incrementAndGet();
+                long startedAt = System.nanoTime();
+                try {
+                    RepoGateApiClient.DependencyResponse response = client.requestDependency(
+                            edit.name, edit.manager, edit.version, name, edit.file, true);
+                    if (isFinal(response)) {
+                        finish(key, startedAt, response.getApprovalStatus().name());
+                        return;
+                    }
+                    poller.start(key, options.pollMillis,
+                            () -> client.checkDependency(edit.name, edit.manager, edit.version, name, true),
+                            new VerdictPoller.Handler() {
+                                @Override
+                                public boolean onResponse(RepoGateApiClient.DependencyResponse polled) {
+                                    if (!isFinal(polled)) {
+                                        return false;
+                                    }
+                                    finish(key, startedAt, polled.getApprovalStatus().name());
+                                    return true;
+                                }
+
+                                @Override
+                                public boolean onFailure(Exception e) {
+                                    // Polling keeps going on the next interval, as in the plugin
+                                    clientErrors.increment();
+                                    return false;
+                                }
+                            });
+                } catch (Exception | LinkageError e) {
+                    // The plugin marks the package as errored (or waits for the service) here
+                    clientErrors.increment();
+                    finish(key, startedAt, "ERROR");
+                }
+            } finally {
+                allDispatched.countDown();
+            }
+        }
+
+        private void finish(String key, long startedAt, String verdict) {
+            inProgress.remove(key);
+            timeToVerdict.add(System.nanoTime() - startedAt);
+            verdicts.computeIfAbsent(verdict, v -> new LongAdder()).increment();
+            outstanding.decrementAndGet();
+        }
+    }
+
+    private static boolean isFinal(RepoGateApiClient.DependencyResponse response) {
+        DependencyInfo.ApprovalStatus status = response.getApprovalStatus();
+        return status == DependencyInfo.ApprovalStatus.APPROVED || status == DependencyInfo.ApprovalStatus.DENIED;
+    }
+
+    private void report(long wallMillis, ResourceSampler sampler) {
+        int developers = timelines.size();
+        long edits = allDispatched.getCount() == 0
+                ? timelines.stream().mapToLong(timeline -> timeline.edits.size()).sum()
+                : -1;
+        double seconds = Math.max(wallMillis, 1) / 1000.0;
+        MetricsSnapshot metrics = Metrics.snapshot();
+
+        System.out.println("RepoGate session replay: " + developers + " developers, speed x" + options.speed
+                + ", poll " + options.pollMillis + " ms, against " + baseUrl);
+        if (outstanding.get() > 0) {
+            System.out.println("  TIMED OUT after " + options.timeoutSeconds + " s, "
+                    + outstanding.get() + " packages without a verdict");
+        }
+        System.out.println("  wall time:            " + wallMillis + " ms");
+        System.out.println("  edits replayed:       " + (edits >= 0 ? edits : "incomplete")
+                + " (" + duplicateEdits.sum() + " repeats skipped)");
+        long[] sorted = timeToVerdict.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length > 0) {
+            System.out.println("  time to verdict (ms): p50 " + millis(sorted, 0.50) + ", p99 " + millis(sorted, 0.99)
+                    + ", max " + millis(sorted, 1.0));
+        }
+        Map<String, Long> verdictCounts = new TreeMap<>();
+        verdicts.forEach((verdict, count) -> verdictCounts.put(verdict, count.sum()));
+        System.out.println("  verdicts:             " + verdictCounts);
+        System.out.println("  client errors:        " + clientErrors.sum());
+
+        System.out.println("  per endpoint:");
+        System.out.println(String.format("    %-32s %8s %9s %9s %12s %8s %8s %7s",
+                "endpoint", "calls", "avg/s", "peak/s", "per dev/min", "p50 ms", "p99 ms", "errors"));
+        for (Map.Entry<String, MetricsSnapshot.HistogramSnapshot> entry : metrics.getHistograms().entrySet()) {
+            if (!entry.getKey().startsWith("api.")) {
+                continue;
+            }
+            long calls = entry.getValue().getCount();
+            System.out.println(String.format("    %-32s %8d %9.1f %9d %12.2f %8.1f %8.1f %7d",
+                    entry.getKey().substring("api.".length()),
+                    calls,
+                    calls / seconds,
+                    sampler.getPeakRate(entry.getKey() + ".calls"),
+                    calls / (seconds / 60.0) / Math.max(developers, 1),
+                    entry.getValue().getP50Micros() / 1000.0,
+                    entry.getValue().getP99Micros() / 1000.0,
+                    metrics.getCounters().getOrDefault(entry.getKey() + ".errors", 0L)));
+        }
+        System.out.println("  peak in-flight calls: " + sampler.peakInFlight);
+        System.out.println("  peak connections:     " + sampler.peakConnections + " (client pool)");
+        System.out.println("  peak active polls:    " + sampler.peakPolls);
+        System.out.println(String.format("  client CPU:           %.2f cores average, %.0f%% of the machine at peak",
+                sampler.getAverageCores(wallMillis), sampler.peakCpuLoad * 100));
+        System.out.println("  client heap:          " + mib(sampler.peakHeap) + " MiB peak, "
+                + mib(sampler.heapAfterGc) + " MiB live after GC");
+        if (options.serverUrl == null) {
+            System.out.println("  (the stub runs in this JVM; use --server-url for client-only CPU and heap)");
+        }
+    }
+
+    private static long millis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    }
+
+    private static long mib(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger number = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Samples once a second: calls per endpoint (for peak rates), in-flight calls,
+     * pooled connections, active polls, process CPU and heap
+     */
+    private final class ResourceSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        private final Thread thread = new Thread(this::sample, "replay-sampler");
+        private final Map<String, Long> lastCalls = new HashMap<>();
+        private final Map<String, Long> peakRates = new ConcurrentHashMap<>();
+        private final long startCpuNanos = processCpuNanos();
+        private volatile boolean running = true;
+        private volatile long endCpuNanos = -1;
+        volatile long peakInFlight;
+        volatile int peakConnections;
+        volatile long peakPolls;
+        volatile long peakHeap;
+        volatile double peakCpuLoad;
+        volatile long heapAfterGc;
+
+        void start() {
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.interrupt();
+            thread.join();
+            endCpuNanos = processCpuNanos();
+            System.gc();
+            heapAfterGc = memory.getHeapMemoryUsage().getUsed();
+        }
+
+        private void sample() {
+            while (running) {
+                Map<String, Long> counters = Metrics.snapshot().getCounters();
+                counters.forEach((name, value) -> {
+                    if (name.endsWith(".calls")) {
+                        long previous = lastCalls.getOrDefault(name, 0L);
+                        peakRates.merge(name, value - previous, Math::max);
+                        lastCalls.put(name, value);
+                    }
+                });
+                peakInFlight = Math.max(peakInFlight, counters.getOrDefault("api.inFlight", 0L));
+                peakPolls = Math.max(peakPolls, activePolls.get());
+                peakConnections = Math.max(peakConnections, HttpClientProvider.getClient().connectionPool().connectionCount());
+                peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+                if (os instanceof com.sun.management.OperatingSystemMXBean) {
+                    peakCpuLoad = Math.max(peakCpuLoad, ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad());
+                }
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        long getPeakRate(String counter) {
+            return peakRates.getOrDefault(counter, 0L);
+        }
+
+        double getAverageCores(long wallMillis) {
+            if (startCpuNanos < 0 || endCpuNanos < 0) {
+                return 0;
+            }
+            return (endCpuNanos - startCpuNanos) / (double) TimeUnit.MILLISECONDS.toNanos(Math.max(wallMillis, 1));
+        }
+
+        private long processCpuNanos() {
+            return os instanceof com.sun.management.OperatingSystemMXBean
+                    ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime()
+                    : -1;
+        }
+    }
+
+    static final class Options {
+        int developers = 200;
+        List<Path> sessions = new ArrayList<>();
+        long durationSeconds = 600;
+        int editsPerDeveloper = 20;
+        int catalogSize = 5000;
+        double speed = 1.0;
+        long pollMillis = 10_000;
+        int schedulerThreads = 16;
+        int requestThreads = 64;
+        long timeoutSeconds = 900;
+        long seed = 42;
+        String serverUrl;
+        StubConfig stub = new StubConfig();
+
+        static Options parse(String[] args) throws IOException {
+            Options options = new Options();
+            long latency = options.stub.getLatencyMs();
+            long jitter = options.stub.getJitterMs();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Unexpected argument '" + arg + "'\n" + usage());
+                }
+                String key = arg.substring(2, eq);
+                String value = arg.substring(eq + 1);
+                switch (key) {
+                    case "developers": options.developers = Integer.parseInt(value); break;
+                    case "sessions": options.sessions = sessionFiles(value); break;
+                    case "duration-s": options.durationSeconds = Long.parseLong(value); break;
+                    case "edits": options.editsPerDeveloper = Integer.parseInt(value); break;
+                    case "catalog": options.catalogSize = Integer.parseInt(value); break;
+                    case "speed": options.speed = Double.parseDouble(value); break;
+                    case "poll-ms": options.pollMillis = Long.parseLong(value); break;
+                    case "scheduler-threads": options.schedulerThreads = Integer.parseInt(value); break;
+                    case "request-threads": options.requestThreads = Integer.parseInt(value); break;
+                    case "timeout-s": options.timeoutSeconds = Long.parseLong(value); break;
+                    case "seed": options.seed = Long.parseLong(value); break;
+                    case "server-url": options.serverUrl = value; break;
+                    case "latency-ms": latency = Long.parseLong(value); break;
+                    case "jitter-ms": jitter = Long.parseLong(value); break;
+                    case "error-rate": options.stub.errorRate(Double.parseDouble(value)); break;
+                    case "server-threads": options.stub.serverThreads(Integer.parseInt(value)); break;
+                    case "scripts": options.stub.scripts(value); break;
+                    default: throw new IllegalArgumentException("Unknown option '" + key + "'\n" + usage());
+                }
+            }
+            if (options.speed <= 0) {
+                throw new IllegalArgumentException("speed must be positive");
+            }
+            options.stub.latency(latency, jitter);
+            return options;
+        }
+
+        private static List<Path> sessionFiles(String value) throws IOException {
+            List<Path> files = new ArrayList<>();
+            for (String part : value.split(",")) {
+                Path path = Paths.get(part.trim());
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> children = Files.list(path)) {
+                        files.addAll(children.filter(child -> child.toString().endsWith(".jsonl"))
+                                .sorted()
+                                .collect(Collectors.toList()));
+                    }
+                } else {
+                    files.add(path);
+                }
+            }
+            return files;
+        }
+
+        /**
+         * One timeline per developer: recorded sessions are reused round robin, each copy
+         * starting at a random point of the first minute; otherwise sessions are generated
+         */
+        List<SessionTimeline> timelines() throws IOException {
+            Random random = new Random(seed);
+            List<SessionTimeline> timelines = new ArrayList<>(developers);
+            if (!sessions.isEmpty()) {
+                List<SessionTimeline> recorded = new ArrayList<>();
+                for (Path file : sessions) {
+                    recorded.add(SessionTimeline.load(file));
+                }
+                for (int i = 0; i < developers; i++) {
+                    SessionTimeline source = recorded.get(i % recorded.size());
+                    timelines.add(SessionTimeline.copyOf(source, "dev-" + i, (long) (random.nextDouble() * 60_000)));
+                }
+            } else {
+                long durationMs = TimeUnit.SECONDS.toMillis(durationSeconds);
+                for (int i = 0; i < developers; i++) {
+                    timelines.add(SessionTimeline.generate("dev-" + i, random, durationMs, editsPerDeveloper, catalogSize));
+                }
+            }
+            return timelines;
+        }
+    }
+
+    static String usage() {
+        return "Options (all --name=value):\n"
+                + "  developers         simulated developers, one IDE each (default 200)\n"
+                + "  sessions           recorded .jsonl files or directories, comma separated; reused round robin\n"
+                + "  duration-s         length of generated sessions (default 600)\n"
+                + "  edits              dependency additions per generated session (default 20)\n"
+                + "  catalog            distinct package names in generated sessions (default 5000)\n"
+                + "  speed              time compression of the gaps between edits; polling stays real time (default 1)\n"
+                + "  poll-ms            /check interval per pending package (default 10000, as in the plugin)\n"
+                + "  scheduler-threads  threads running poll ticks (default 16)\n"
+                + "  request-threads    threads sending /request (default 64)\n"
+                + "  timeout-s          give up on remaining verdicts after this long (default 900)\n"
+                + "  seed               random seed for generated sessions and start offsets (default 42)\n"
+                + "  server-url         replay against a running server instead of the in-process stub\n"
+                + "  latency-ms, jitter-ms, error-rate, server-threads, scripts\n"
+                + "                     in-process stub behaviour, as for the loadTest task";
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<SessionTimeline> timelines = options.timelines();
+        long longest = timelines.stream().mapToLong(SessionTimeline::getDurationMs).max().orElse(0);
+        System.out.println("Replaying " + timelines.size() + " sessions, longest " + longest / 1000 + " s"
+                + (options.speed != 1.0 ? " (" + (long) (longest / options.speed / 1000) + " s at x" + options.speed + ")" : ""));
+        if (options.serverUrl != null) {
+            new SessionReplay(options, options.serverUrl, timelines).run();
+        } else {
+            try (StubRepoGateServer server = new StubRepoGateServer(options.stub).start()) {
+                System.out.println("Stub at " + server.getBaseUrl() + " (" + options.stub + ")");
+                new SessionReplay(options, server.getBaseUrl(), timelines).run();
+                System.out.println("  server calls:         " + server.getTotalCalls() + " " + server.getCallCounts());
+            }
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,126 @@
+package io.repogate.plugin.loadtest;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One developer's manifest edits over time: which dependencies were added, and when
+ * relative to the start of the session. Loaded from a file recorded by the plugin's
+ * {@code SessionRecorder} (one JSON object per line), or generated.
+ */
+final class SessionTimeline {
+    private static final String[] MANAGERS = {"npm", "npm", "npm", "maven", "maven", "gradle"};
+
+    final String developer;
+    final List<Edit> edits;
+
+    private SessionTimeline(String developer, List<Edit> edits) {
+        this.developer = developer;
+        edits.sort(Comparator.comparingLong(edit -> edit.offsetMs));
+        this.edits = Collections.unmodifiableList(edits);
+    }
+
+    static final class Edit {
+        final long offsetMs;
+        final String manager;
+        final String name;
+        final String version;
+        final String file;
+
+        Edit(long offsetMs, String manager, String name, String version, String file) {
+            this.offsetMs = offsetMs;
+            this.manager = manager;
+            this.name = name;
+            this.version = version;
+            this.file = file;
+        }
+    }
+
+    /**
+     * Read a recorded session; blank and malformed lines are skipped
+     */
+    static SessionTimeline load(Path file) throws IOException {
+        List<Edit> edits = new ArrayList<>();
+        long first = -1;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+                long at = json.get("atMs").getAsLong();
+                if (first < 0) {
+                    first = at;
+                }
+                edits.add(new Edit(Math.max(0, at - first),
+                        json.get("manager").getAsString(),
+                        json.get("name").getAsString(),
+                        json.has("version") ? json.get("version").getAsString() : "",
+                        json.has("file") ? json.get("file").getAsString() : manifestFor(json.get("manager").getAsString())));
+            } catch (RuntimeException e) {
+                // Skip lines that are not recorder output
+            }
+        }
+        return new SessionTimeline(file.getFileName().toString(), edits);
+    }
+
+    /**
+     * Same edits as {@code source}, for another developer starting {@code shiftMs} later
+     */
+    static SessionTimeline copyOf(SessionTimeline source, String developer, long shiftMs) {
+        List<Edit> edits = new ArrayList<>(source.edits.size());
+        for (Edit edit : source.edits) {
+            edits.add(new Edit(edit.offsetMs + shiftMs, edit.manager, edit.name, edit.version, edit.file));
+        }
+        return new SessionTimeline(developer, edits);
+    }
+
+    /**
+     * A plausible working session: edits come in short bursts (adding a few related
+     * packages at once) spread over {@code durationMs}. Package names are drawn with a
+     * long tail from {@code catalogSize} names, so popular packages are requested by many
+     * developers, as in a real organization.
+     */
+    static SessionTimeline generate(String developer, Random random, long durationMs, int editCount, int catalogSize) {
+        List<Edit> edits = new ArrayList<>(editCount);
+        while (edits.size() < editCount) {
+            long burstAt = (long) (random.nextDouble() * durationMs);
+            int burstSize = Math.min(editCount - edits.size(), 1 + random.nextInt(4));
+            String manager = MANAGERS[random.nextInt(MANAGERS.length)];
+            for (int i = 0; i < burstSize; i++) {
+                // Square of a uniform variate: low indexes (popular packages) come up far more often
+                double skew = random.nextDouble();
+                int index = (int) (skew * skew * catalogSize);
+                String name = manager.equals("npm") ? "pkg-" + index : "io.example:lib-" + index;
+                edits.add(new Edit(burstAt + i * (200L + random.nextInt(800)), manager, name,
+                        "1." + (index % 10) + ".0", manifestFor(manager)));
+            }
+        }
+        return new SessionTimeline(developer, edits);
+    }
+
+    private static String manifestFor(String manager) {
+        switch (manager) {
+            case "maven":
+                return "pom.xml";
+            case "gradle":
+                return "build.gradle";
+            default:
+                return "package.json";
+        }
+    }
+
+    long getDurationMs() {
+        return edits.isEmpty() ? 0 : edits.get(edits.size() - 1).offsetMs;
+    }
+}
@@ -0,0 +1,154 @@
+package io.repogate.plugin.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Behaviour of the {@link StubRepoGateServer}: how slow and how flaky it is, and
+ * which statuses each package goes through.
+ * <p>
+ * A status script is the sequence of statuses a package reports: the first on
+ * {@code /request}, then one step further on every {@code /check}, staying on
+ * the last one. Scripts are chosen by package name prefix, longest match first.
+ */
+public class StubConfig {
+    private long latencyMs = 20;
+    private long jitterMs = 10;
+    private double errorRate = 0.0;
+    private double unauthorizedRate = 0.0;
+    private long tokenLifetimeSeconds = 3600;
+    private int serverThreads = 64;
+    private List<String> defaultScript = List.of("pending", "pending", "approved");
+    private final Map<String, List<String>> scripts = new LinkedHashMap<>();
+
+    /**
+     * Base latency added to every response, plus a uniform random jitter of up to {@code jitterMs}
+     */
+    public StubConfig latency(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        return this;
+    }
+
+    /**
+     * Fraction of API calls answered with 503
+     */
+    public StubConfig errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Fraction of API calls answered with 401, to exercise the refresh-and-replay path.
+     * Only useful against a running IDE: the refresh goes through the IDE's AuthManager.
+     */
+    public StubConfig unauthorizedRate(double unauthorizedRate) {
+        this.unauthorizedRate = unauthorizedRate;
+        return this;
+    }
+
+    /**
+     * Lifetime of tokens issued by the auth endpoints
+     */
+    public StubConfig tokenLifetimeSeconds(long tokenLifetimeSeconds) {
+        this.tokenLifetimeSeconds = tokenLifetimeSeconds;
+        return this;
+    }
+
+    public StubConfig serverThreads(int serverThreads) {
+        this.serverThreads = serverThreads;
+        return this;
+    }
+
+    public StubConfig defaultScript(String... statuses) {
+        this.defaultScript = List.of(statuses);
+        return this;
+    }
+
+    /**
+     * Script for packages whose name starts with the prefix
+     */
+    public StubConfig script(String packagePrefix, String... statuses) {
+        scripts.put(packagePrefix, List.of(statuses));
+        return this;
+    }
+
+    /**
+     * Parse "prefix=s1,s2,s3;other=s1" (an empty prefix sets the default script)
+     */
+    public StubConfig scripts(String spec) {
+        for (String part : spec.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Bad script '" + part + "', expected prefix=status,status");
+            }
+            String prefix = part.substring(0, eq).trim();
+            String[] statuses = Arrays.stream(part.substring(eq + 1).split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .toArray(String[]::new);
+            if (statuses.length == 0) {
+                throw new IllegalArgumentException("Script for '" + prefix + "' has no statuses");
+            }
+            if (prefix.isEmpty()) {
+                defaultScript(statuses);
+            } else {
+                script(prefix, statuses);
+            }
+        }
+        return this;
+    }
+
+    List<String> scriptFor(String packageName) {
+        List<String> best = defaultScript;
+        int bestLength = -1;
+        for (Map.Entry<String, List<String>> entry : scripts.entrySet()) {
+            String prefix = entry.getKey();
+            if (packageName.startsWith(prefix) && prefix.length() > bestLength) {
+                best = entry.getValue();
+                bestLength = prefix.length();
+            }
+        }
+        return best;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public long getJitterMs() {
+        return jitterMs;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public double getUnauthorizedRate() {
+        return unauthorizedRate;
+    }
+
+    public long getTokenLifetimeSeconds() {
+        return tokenLifetimeSeconds;
+    }
+
+    public int getServerThreads() {
+        return serverThreads;
+    }
+
+    @Override
+    public String toString() {
+        List<String> described = new ArrayList<>();
+        described.add("latency=" + latencyMs + "ms+0.." + jitterMs + "ms");
+        described.add("errors=" + errorRate);
+        described.add("unauthorized=" + unauthorizedRate);
+        described.add("default=" + defaultScript);
+        if (!scripts.isEmpty()) {
+            described.add("scripts=" + scripts);
+        }
+        return String.join(", ", described);
+    }
+}
@@ -0,0 +1,335 @@
+package io.repogate.plugin.loadtest;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the RepoGate API, built on the JDK HTTP server.
+ * Serves the endpoints the plugin calls ({@code /request}, {@code /check},
+ * {@code /update}, {@code /queue}, {@code /dependencies/inventory*}, the
+ * {@code /auth/*} endpoints and {@code /health}) with the latency, error rates
+ * and status scripts of a {@link StubConfig}, and counts every call.
+ * <p>
+ * Run {@code ./gradlew runStubServer} and point the plugin's API URL at the
+ * printed address to try the plugin against it by hand.
+ */
+public class StubRepoGateServer implements AutoCloseable {
+    static final String API_PREFIX = "/api/v1";
+
+    private final StubConfig config;
+    private final Gson gson = new Gson();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, LongAdder> callCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> scriptSteps = new ConcurrentHashMap<>();
+    private final Map<String, Long> issuedTokens = new ConcurrentHashMap<>();
+    private final Map<String, String> inventoryDigests = new ConcurrentHashMap<>();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder queuedPackages = new LongAdder();
+
+    public StubRepoGateServer(StubConfig config) throws IOException {
+        this(config, 0);
+    }
+
+    public StubRepoGateServer(StubConfig config, int port) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(config.getServerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "stub-server-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(API_PREFIX, this::handle);
+    }
+
+    public StubRepoGateServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * The URL to configure as the plugin's API URL
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + API_PREFIX;
+    }
+
+    /**
+     * Calls per endpoint path (relative to the API prefix), sorted by path
+     */
+    public Map<String, Long> getCallCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        callCounts.forEach((path, count) -> counts.put(path, count.sum()));
+        return counts;
+    }
+
+    public long getTotalCalls() {
+        return callCounts.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    public long getQueuedPackages() {
+        return queuedPackages.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith(API_PREFIX)) {
+                path = path.substring(API_PREFIX.length());
+            }
+            callCounts.computeIfAbsent(path, p -> new LongAdder()).increment();
+            simulateLatency();
+
+            if (path.startsWith("/auth/") || path.equals("/health")) {
+                handleAuth(exchange, path);
+                return;
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < config.getErrorRate()) {
+                injectedErrors.increment();
+                send(exchange, 503, error("Injected failure"));
+                return;
+            }
+            if (random.nextDouble() < config.getUnauthorizedRate() || !isAuthorized(exchange)) {
+                send(exchange, 401, error("Unauthorized"));
+                return;
+            }
+
+            JsonObject body = readBody(exchange);
+            switch (path) {
+                case "/request":
+                    send(exchange, 200, verdict(body, true));
+                    break;
+                case "/check":
+                    send(exchange, 200, verdict(body, false));
+                    break;
+                case "/update":
+                    send(exchange, 200, new JsonObject());
+                    break;
+                case "/queue":
+                    JsonArray packages = body.has("packages") ? body.getAsJsonArray("packages") : new JsonArray();
+                    queuedPackages.add(packages.size());
+                    send(exchange, 200, new JsonObject());
+                    break;
+                case "/dependencies/inventory":
+                    inventoryDigests.put(string(body, "projectName"), string(body, "digest"));
+                    send(exchange, 200, new JsonObject());
+                    break;
+                case "/dependencies/inventory/digest":
+                    handleDigest(exchange, body);
+                    break;
+                case "/dependencies/inventory/delta":
+                    handleDelta(exchange, body);
+                    break;
+                default:
+                    // Includes /policy/*: the stub publishes no snapshots or filters
+                    send(exchange, 404, error("Not found"));
+            }
+        } catch (Exception e) {
+            System.err.println("RepoGate stub: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Answer from the package's status script: /request starts it, each /check moves one step
+     */
+    private JsonObject verdict(JsonObject body, boolean start) {
+        String name = string(body, "name");
+        String ecosystem = string(body, "ecosystem");
+        List<String> script = config.scriptFor(name);
+        String key = name + ":" + ecosystem;
+
+        int step;
+        if (start) {
+            scriptSteps.put(key, new AtomicInteger(0));
+            step = 0;
+        } else {
+            step = scriptSteps.computeIfAbsent(key, k -> new AtomicInteger(0)).incrementAndGet();
+        }
+        String status = script.get(Math.min(step, script.size() - 1));
+
+        JsonObject response = new JsonObject();
+        response.addProperty("status", status);
+        response.addProperty("approved", "approved".equals(status));
+        response.addProperty("packageName", name);
+        response.addProperty("packageManager", ecosystem);
+        response.addProperty("message", messageFor(status));
+        return response;
+    }
+
+    private static String messageFor(String status) {
+        switch (status) {
+            case "approved":
+                return "Approved by stub policy";
+            case "denied":
+                return "Denied by stub policy";
+            case "scanning":
+                return "Security scan in progress";
+            default:
+                return "Awaiting review";
+        }
+    }
+
+    private void handleDigest(HttpExchange exchange, JsonObject body) throws IOException {
+        String known = inventoryDigests.get(string(body, "projectName"));
+        JsonObject response = new JsonObject();
+        response.addProperty("digest", known);
+        response.addProperty("upToDate", known != null && known.equals(string(body, "digest")));
+        send(exchange, 200, response);
+    }
+
+    private void handleDelta(HttpExchange exchange, JsonObject body) throws IOException {
+        String project = string(body, "projectName");
+        String known = inventoryDigests.get(project);
+        if (known == null || !known.equals(string(body, "baseDigest"))) {
+            send(exchange, 409, error("Base digest mismatch"));
+            return;
+        }
+        inventoryDigests.put(project, string(body, "digest"));
+        send(exchange, 200, new JsonObject());
+    }
+
+    private void handleAuth(HttpExchange exchange, String path) throws IOException {
+        switch (path) {
+            case "/health": {
+                JsonObject response = new JsonObject();
+                response.addProperty("status", "ok");
+                send(exchange, 200, response);
+                break;
+            }
+            case "/auth/mode": {
+                JsonObject response = new JsonObject();
+                response.addProperty("authMode", "LOCAL_TOKEN");
+                response.addProperty("organizationName", "RepoGate Stub");
+                response.addProperty("requiresEntraSso", false);
+                send(exchange, 200, response);
+                break;
+            }
+            case "/auth/entra/connect": {
+                JsonObject response = issueToken();
+                JsonObject user = new JsonObject();
+                user.addProperty("id", "stub-user");
+                user.addProperty("email", "developer@stub.local");
+                user.addProperty("name", "Stub Developer");
+                user.addProperty("orgId", "stub-org");
+                user.addProperty("authMode", "ENTRA_SSO");
+                response.add("user", user);
+                send(exchange, 200, response);
+                break;
+            }
+            case "/auth/entra/refresh":
+                send(exchange, 200, issueToken());
+                break;
+            default:
+                send(exchange, 404, error("Not found"));
+        }
+    }
+
+    private JsonObject issueToken() {
+        String token = "stub-" + UUID.randomUUID();
+        issuedTokens.put(token, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(config.getTokenLifetimeSeconds()));
+        JsonObject response = new JsonObject();
+        response.addProperty("accessToken", token);
+        response.addProperty("tokenType", "Bearer");
+        response.addProperty("expiresIn", config.getTokenLifetimeSeconds());
+        response.addProperty("refreshToken", "refresh-" + UUID.randomUUID());
+        return response;
+    }
+
+    /**
+     * Any bearer token is accepted, except tokens this stub issued that have since expired
+     */
+    private boolean isAuthorized(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ") || header.length() == "Bearer ".length()) {
+            return false;
+        }
+        Long expiresAt = issuedTokens.get(header.substring("Bearer ".length()));
+        return expiresAt == null || expiresAt > System.currentTimeMillis();
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        long delay = config.getLatencyMs();
+        if (config.getJitterMs() > 0) {
+            delay += ThreadLocalRandom.current().nextLong(config.getJitterMs() + 1);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            JsonObject body = text.isBlank() ? null : gson.fromJson(text, JsonObject.class);
+            return body != null ? body : new JsonObject();
+        }
+    }
+
+    private void send(HttpExchange exchange, int code, JsonObject body) throws IOException {
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject body = new JsonObject();
+        body.addProperty("error", message);
+        return body;
+    }
+
+    private static String string(JsonObject body, String field) {
+        return body.has(field) && !body.get(field).isJsonNull() ? body.get(field).getAsString() : "";
+    }
+
+    /**
+     * Run the stub standalone: {@code [port] [scripts]}, e.g. {@code 8787 "lodash=pending,approved;evil=denied"}
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8787;
+        StubConfig config = new StubConfig();
+        if (args.length > 1) {
+            config.scripts(args[1]);
+        }
+        StubRepoGateServer server = new StubRepoGateServer(config, port).start();
+        System.out.println("RepoGate stub listening on " + server.getBaseUrl() + " (" + config + ")");
+        Thread.currentThread().join();
+    }
+}
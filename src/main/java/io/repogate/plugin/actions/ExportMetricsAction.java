@@ -0,0 +1,58 @@
+package io.repogate.plugin.actions;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.fileChooser.FileSaverDialog;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import io.repogate.plugin.metrics.Metrics;
+import io.repogate.plugin.metrics.MetricsSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Action to save a snapshot of the plugin's internal metrics (API latencies, parse
+ * times, cache hit rates, ...) as JSON, for diagnosing slow validations
+ */
+public class ExportMetricsAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        // Take the snapshot first so the dialog time is not part of it
+        MetricsSnapshot snapshot = Metrics.snapshot();
+
+        FileSaverDescriptor descriptor = new FileSaverDescriptor(
+                "Export RepoGate Metrics",
+                "Save a snapshot of RepoGate's internal metrics",
+                "json"
+        );
+        FileSaverDialog dialog = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, e.getProject());
+        String fileName = "repogate-metrics-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json";
+        VirtualFileWrapper target = dialog.save(fileName);
+        if (target == null) {
+            return;
+        }
+
+        try {
+            Files.writeString(target.getFile().toPath(), snapshot.toJson(), StandardCharsets.UTF_8);
+            Notifications.Bus.notify(new Notification(
+                    "RepoGate Notifications",
+                    "RepoGate",
+                    "Metrics exported to " + target.getFile().getPath(),
+                    NotificationType.INFORMATION
+            ), e.getProject());
+        } catch (IOException ex) {
+            Messages.showErrorDialog("Could not write metrics: " + ex.getMessage(), "RepoGate: Export Failed");
+        }
+    }
+}
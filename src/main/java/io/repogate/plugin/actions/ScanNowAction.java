@@ -30,22 +30,12 @@ public class ScanNowAction extends AnAction {
             return;
         }
         
-        showNotification("Scanning packages...", NotificationType.INFORMATION);
-        
+        // Token lookup may refresh over the network, so stay off the EDT;
+        // the scan itself is queued on the workspace ScanScheduler
         ApplicationManager.getApplication().executeOnPooledThread(() -> {
-            try {
-                InitialPackageScanner scanner = new InitialPackageScanner(project);
-                // Force re-scan by resetting the flag
-                project.getService(com.intellij.openapi.components.PersistentStateComponent.class);
-                scanner.performInitialScanIfNeeded();
-                
-                showNotification("Package scan completed", NotificationType.INFORMATION);
-            } catch (Exception ex) {
-                showNotification(
-                        "Scan failed: " + ex.getMessage(),
-                        NotificationType.ERROR
-                );
-            }
+            InitialPackageScanner scanner = new InitialPackageScanner(project);
+            scanner.performInitialScanIfNeeded();
+            showNotification("Package scan queued", NotificationType.INFORMATION);
         });
     }
     
@@ -0,0 +1,53 @@
+package io.repogate.plugin.api;
+
+import io.repogate.plugin.startup.StartupTrace;
+import okhttp3.Authenticator;
+import okhttp3.OkHttpClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared HTTP transport for RepoGate API calls.
+ * One client means one connection pool and dispatcher for the whole IDE, and a
+ * single place where expired tokens are refreshed and requests replayed.
+ * Both clients are built on first use, not when the plugin loads.
+ */
+public final class HttpClientProvider {
+
+    private HttpClientProvider() {
+    }
+
+    public static OkHttpClient getClient() {
+        return Holder.CLIENT;
+    }
+
+    /**
+     * For the sign-in and token endpoints themselves: same pool and dispatcher,
+     * but a 401 is returned as is instead of triggering a refresh and replay
+     */
+    public static OkHttpClient getAuthClient() {
+        return AuthHolder.CLIENT;
+    }
+
+    private static final class Holder {
+        private static final OkHttpClient CLIENT = create();
+
+        private static OkHttpClient create() {
+            try (StartupTrace ignored = StartupTrace.begin("httpClient")) {
+                return new OkHttpClient.Builder()
+                        .connectTimeout(10, TimeUnit.SECONDS)
+                        .readTimeout(30, TimeUnit.SECONDS)
+                        .addInterceptor(new MetricsInterceptor())
+                        .addInterceptor(new TracingInterceptor())
+                        .authenticator(new TokenAuthenticator())
+                        .build();
+            }
+        }
+    }
+
+    private static final class AuthHolder {
+        private static final OkHttpClient CLIENT = Holder.CLIENT.newBuilder()
+                .authenticator(Authenticator.NONE)
+                .build();
+    }
+}
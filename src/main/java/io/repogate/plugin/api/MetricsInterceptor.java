@@ -0,0 +1,49 @@
+package io.repogate.plugin.api;
+
+import io.repogate.plugin.metrics.Metrics;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Records latency, call and error counts per endpoint for every call on the shared client.
+ * Runs as an application interceptor, so a 401 refresh-and-replay counts as one call.
+ */
+class MetricsInterceptor implements Interceptor {
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        String endpoint = "api." + endpointOf(chain.request().url().encodedPath());
+        long start = System.nanoTime();
+        Metrics.counter("api.inFlight").increment();
+        try {
+            Response response = chain.proceed(chain.request());
+            if (!response.isSuccessful()) {
+                Metrics.counter(endpoint + ".errors").increment();
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            Metrics.counter(endpoint + ".errors").increment();
+            throw e;
+        } finally {
+            Metrics.counter("api.inFlight").decrement();
+            Metrics.counter(endpoint + ".calls").increment();
+            Metrics.histogram(endpoint).recordSince(start);
+        }
+    }
+
+    /**
+     * The path below the API version segment, e.g. "/api/v1/check" becomes "/check"
+     */
+    static String endpointOf(String path) {
+        int api = path.indexOf("/api/v");
+        if (api >= 0) {
+            int next = path.indexOf('/', api + "/api/v".length());
+            return next >= 0 ? path.substring(next) : "/";
+        }
+        return path;
+    }
+}
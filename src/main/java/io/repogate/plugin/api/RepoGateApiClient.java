@@ -1,29 +1,27 @@
 package io.repogate.plugin.api;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.utils.Json;
 import okhttp3.*;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 
 public class RepoGateApiClient {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(RepoGateApiClient.class);
+
     private static final String DEFAULT_BASE_URL = "https://app.repogate.io/api/v1";
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
     
     private final OkHttpClient client;
-    private final Gson gson;
     private final String baseUrl;
     private final String apiToken;
 
     public RepoGateApiClient(String baseUrl, String apiToken) {
         this.baseUrl = baseUrl != null && !baseUrl.isEmpty() ? baseUrl : DEFAULT_BASE_URL;
         this.apiToken = apiToken;
-        this.gson = new Gson();
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .build();
+        this.client = HttpClientProvider.getClient();
     }
 
     /**
@@ -39,7 +37,7 @@ public class RepoGateApiClient {
         requestBody.addProperty("path", path);
         requestBody.addProperty("repository", repository);
 
-        RequestBody body = RequestBody.create(gson.toJson(requestBody), JSON);
+        RequestBody body = RequestBody.create(Json.gson().toJson(requestBody), JSON);
         Request request = new Request.Builder()
                 .url(baseUrl + "/request") // Changed from /dependencies/request
                 .post(body)
@@ -48,12 +46,15 @@ public class RepoGateApiClient {
                 .build();
 
         try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 401) {
+                throw new UnauthorizedException();
+            }
             if (!response.isSuccessful()) {
                 throw new IOException("Unexpected response code: " + response.code());
             }
             
             String responseBody = response.body() != null ? response.body().string() : "{}";
-            return gson.fromJson(responseBody, DependencyResponse.class);
+            return Json.gson().fromJson(responseBody, DependencyResponse.class);
         }
     }
 
@@ -69,7 +70,7 @@ public class RepoGateApiClient {
         requestBody.addProperty("projectName", projectName);
         requestBody.addProperty("repository", repository);
 
-        RequestBody body = RequestBody.create(gson.toJson(requestBody), JSON);
+        RequestBody body = RequestBody.create(Json.gson().toJson(requestBody), JSON);
         Request request = new Request.Builder()
                 .url(baseUrl + "/check") // Changed from /dependencies/check
                 .post(body)
@@ -78,12 +79,15 @@ public class RepoGateApiClient {
                 .build();
 
         try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 401) {
+                throw new UnauthorizedException();
+            }
             if (!response.isSuccessful()) {
                 throw new IOException("Unexpected response code: " + response.code());
             }
             
             String responseBody = response.body() != null ? response.body().string() : "{}";
-            return gson.fromJson(responseBody, DependencyResponse.class);
+            return Json.gson().fromJson(responseBody, DependencyResponse.class);
         }
     }
     
@@ -104,7 +108,7 @@ public class RepoGateApiClient {
         requestBody.addProperty("timestamp", java.time.Instant.now().toString());
         requestBody.addProperty("repository", repository);
 
-        RequestBody body = RequestBody.create(gson.toJson(requestBody), JSON);
+        RequestBody body = RequestBody.create(Json.gson().toJson(requestBody), JSON);
         Request request = new Request.Builder()
                 .url(baseUrl + "/update")
                 .post(body)
@@ -114,51 +118,221 @@ public class RepoGateApiClient {
 
         try (Response response = client.newCall(request).execute()) {
             if (!response.isSuccessful()) {
-                System.err.println("RepoGate: Failed to update dependency: " + response.code());
+                LOG.warn("Failed to update dependency: " + response.code());
             }
         }
     }
 
     /**
-     * Report inventory of all dependencies to RepoGate
+     * Exchange the local inventory digest with the server
+     * Returns null if the server does not support inventory digests
      */
-    public void reportInventory(java.util.List<io.repogate.plugin.model.DependencyInfo> dependencies, java.util.Map<String, String> developerInfo) {
-        try {
-            JsonObject payload = new JsonObject();
-            com.google.gson.JsonArray depsArray = new com.google.gson.JsonArray();
-            
-            for (io.repogate.plugin.model.DependencyInfo dep : dependencies) {
-                JsonObject depObj = new JsonObject();
-                depObj.addProperty("packageName", dep.getPackageName());
-                depObj.addProperty("packageManager", dep.getPackageManager());
-                depObj.addProperty("status", dep.getStatus().toString());
-                depsArray.add(depObj);
+    public io.repogate.plugin.model.InventoryDigestResponse checkInventoryDigest(String projectName, String digest) throws IOException {
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("projectName", projectName);
+        requestBody.addProperty("digest", digest);
+
+        RequestBody body = RequestBody.create(Json.gson().toJson(requestBody), JSON);
+        Request request = new Request.Builder()
+                .url(baseUrl + "/dependencies/inventory/digest")
+                .post(body)
+                .addHeader("Authorization", "Bearer " + apiToken)
+                .addHeader("Content-Type", "application/json")
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 404) {
+                return null;
             }
-            
-            JsonObject devInfo = new JsonObject();
-            for (java.util.Map.Entry<String, String> entry : developerInfo.entrySet()) {
-                devInfo.addProperty(entry.getKey(), entry.getValue());
+            if (response.code() == 401) {
+                throw new UnauthorizedException();
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Unexpected response code: " + response.code());
             }
-            
-            payload.add("dependencies", depsArray);
-            payload.add("developer", devInfo);
-            payload.addProperty("timestamp", java.time.Instant.now().toString());
-            
-            RequestBody body = RequestBody.create(gson.toJson(payload), JSON);
-            Request request = new Request.Builder()
-                    .url(baseUrl + "/dependencies/inventory")
-                    .post(body)
-                    .addHeader("Authorization", "Bearer " + apiToken)
-                    .addHeader("Content-Type", "application/json")
-                    .build();
 
-            try (Response response = client.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    System.err.println("RepoGate: Failed to report inventory: " + response.code());
-                }
+            String responseBody = response.body() != null ? response.body().string() : "{}";
+            return Json.gson().fromJson(responseBody, io.repogate.plugin.model.InventoryDigestResponse.class);
+        }
+    }
+
+    /**
+     * Report only the inventory entries that changed since the given base digest.
+     * Changed entries carry the new version and paths plus the previous version and the paths
+     * added and removed, keyed by package manager and name.
+     * Returns false if the server rejected the delta because its digest differs from the base
+     */
+    public boolean reportInventoryDelta(String projectName, String baseDigest, String digest,
+                                        java.util.List<io.repogate.plugin.model.InventoryEntry> added,
+                                        java.util.List<io.repogate.plugin.model.InventoryEntry> removed,
+                                        java.util.List<io.repogate.plugin.model.InventoryChange> changed,
+                                        java.util.Map<String, String> developerInfo) throws IOException {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("projectName", projectName);
+        payload.addProperty("baseDigest", baseDigest);
+        payload.addProperty("digest", digest);
+        payload.add("added", toInventoryArray(added));
+        payload.add("removed", toInventoryArray(removed));
+        payload.add("changed", toChangeArray(changed));
+        payload.add("developer", toJsonObject(developerInfo));
+        payload.addProperty("timestamp", java.time.Instant.now().toString());
+
+        RequestBody body = RequestBody.create(Json.gson().toJson(payload), JSON);
+        Request request = new Request.Builder()
+                .url(baseUrl + "/dependencies/inventory/delta")
+                .post(body)
+                .addHeader("Authorization", "Bearer " + apiToken)
+                .addHeader("Content-Type", "application/json")
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 409) {
+                return false;
             }
-        } catch (Exception e) {
-            System.err.println("RepoGate: Error reporting inventory: " + e.getMessage());
+            if (response.code() == 401) {
+                throw new UnauthorizedException();
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Unexpected response code: " + response.code());
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Report the full inventory of a project to RepoGate
+     */
+    public void reportInventory(String projectName, String digest,
+                                java.util.List<io.repogate.plugin.model.InventoryEntry> entries,
+                                java.util.Map<String, String> developerInfo) throws IOException {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("projectName", projectName);
+        payload.addProperty("digest", digest);
+        payload.add("dependencies", toInventoryArray(entries));
+        payload.add("developer", toJsonObject(developerInfo));
+        payload.addProperty("timestamp", java.time.Instant.now().toString());
+
+        RequestBody body = RequestBody.create(Json.gson().toJson(payload), JSON);
+        Request request = new Request.Builder()
+                .url(baseUrl + "/dependencies/inventory")
+                .post(body)
+                .addHeader("Authorization", "Bearer " + apiToken)
+                .addHeader("Content-Type", "application/json")
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 401) {
+                throw new UnauthorizedException();
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Unexpected response code: " + response.code());
+            }
+        }
+    }
+
+    private com.google.gson.JsonArray toInventoryArray(java.util.List<io.repogate.plugin.model.InventoryEntry> entries) {
+        com.google.gson.JsonArray depsArray = new com.google.gson.JsonArray();
+        for (io.repogate.plugin.model.InventoryEntry entry : entries) {
+            depsArray.add(toInventoryObject(entry));
+        }
+        return depsArray;
+    }
+
+    private com.google.gson.JsonArray toChangeArray(java.util.List<io.repogate.plugin.model.InventoryChange> changes) {
+        com.google.gson.JsonArray depsArray = new com.google.gson.JsonArray();
+        for (io.repogate.plugin.model.InventoryChange change : changes) {
+            JsonObject depObj = toInventoryObject(change.getCurrent());
+            depObj.addProperty("previousVersion", change.getPrevious().version);
+            depObj.add("addedPaths", toStringArray(change.getAddedPaths()));
+            depObj.add("removedPaths", toStringArray(change.getRemovedPaths()));
+            depsArray.add(depObj);
+        }
+        return depsArray;
+    }
+
+    private JsonObject toInventoryObject(io.repogate.plugin.model.InventoryEntry entry) {
+        JsonObject depObj = new JsonObject();
+        depObj.addProperty("packageName", entry.packageName);
+        depObj.addProperty("packageManager", entry.packageManager);
+        depObj.addProperty("version", entry.version);
+        depObj.add("paths", toStringArray(entry.paths));
+        return depObj;
+    }
+
+    private com.google.gson.JsonArray toStringArray(java.util.List<String> values) {
+        com.google.gson.JsonArray array = new com.google.gson.JsonArray();
+        for (String value : values) {
+            array.add(value);
+        }
+        return array;
+    }
+
+    private JsonObject toJsonObject(java.util.Map<String, String> values) {
+        JsonObject obj = new JsonObject();
+        for (java.util.Map.Entry<String, String> entry : values.entrySet()) {
+            obj.addProperty(entry.getKey(), entry.getValue());
+        }
+        return obj;
+    }
+
+    /**
+     * Fetch the organization policy snapshot, as a diff when a previous version is known
+     * Returns null if the server does not publish policy snapshots
+     */
+    public io.repogate.plugin.model.PolicySnapshotResponse fetchPolicySnapshot(long sinceVersion) throws IOException {
+        HttpUrl url = HttpUrl.get(baseUrl + "/policy/snapshot").newBuilder()
+                .addQueryParameter("since", String.valueOf(sinceVersion))
+                .build();
+        Request request = new Request.Builder()
+                .url(url)
+                .get()
+                .addHeader("Authorization", "Bearer " + apiToken)
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 404) {
+                return null;
+            }
+            if (response.code() == 401) {
+                throw new UnauthorizedException();
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Unexpected response code: " + response.code());
+            }
+
+            String responseBody = response.body() != null ? response.body().string() : "{}";
+            return Json.gson().fromJson(responseBody, io.repogate.plugin.model.PolicySnapshotResponse.class);
+        }
+    }
+
+    /**
+     * Fetch the Bloom filter of approved coordinates, built for the given false positive rate
+     * Returns null if the server does not publish a filter or the given version is current
+     */
+    public io.repogate.plugin.model.ApprovedFilterResponse fetchApprovedFilter(double falsePositiveRate, long sinceVersion) throws IOException {
+        HttpUrl url = HttpUrl.get(baseUrl + "/policy/approved-filter").newBuilder()
+                .addQueryParameter("fpp", String.valueOf(falsePositiveRate))
+                .addQueryParameter("since", String.valueOf(sinceVersion))
+                .build();
+        Request request = new Request.Builder()
+                .url(url)
+                .get()
+                .addHeader("Authorization", "Bearer " + apiToken)
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 404 || response.code() == 304) {
+                return null;
+            }
+            if (response.code() == 401) {
+                throw new UnauthorizedException();
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Unexpected response code: " + response.code());
+            }
+
+            String responseBody = response.body() != null ? response.body().string() : "{}";
+            return Json.gson().fromJson(responseBody, io.repogate.plugin.model.ApprovedFilterResponse.class);
         }
     }
 
@@ -180,12 +354,19 @@ public class RepoGateApiClient {
                 if (pkg.projectName != null && !pkg.projectName.isEmpty()) {
                     pkgObj.addProperty("projectName", pkg.projectName);
                 }
+                if (pkg.paths != null && !pkg.paths.isEmpty()) {
+                    com.google.gson.JsonArray pathsArray = new com.google.gson.JsonArray();
+                    for (String path : pkg.paths) {
+                        pathsArray.add(path);
+                    }
+                    pkgObj.add("paths", pathsArray);
+                }
                 packagesArray.add(pkgObj);
             }
             
             payload.add("packages", packagesArray);
             
-            RequestBody body = RequestBody.create(gson.toJson(payload), JSON);
+            RequestBody body = RequestBody.create(Json.gson().toJson(payload), JSON);
             Request request = new Request.Builder()
                     .url(baseUrl + "/queue")
                     .post(body)
@@ -195,11 +376,11 @@ public class RepoGateApiClient {
 
             try (Response response = client.newCall(request).execute()) {
                 if (!response.isSuccessful()) {
-                    System.err.println("RepoGate: Failed to queue packages: " + response.code());
+                    LOG.warn("Failed to queue packages: " + response.code());
                 }
             }
         } catch (Exception e) {
-            System.err.println("RepoGate: Error queuing packages: " + e.getMessage());
+            LOG.warn("Error queuing packages: " + e.getMessage());
         }
     }
 
@@ -208,12 +389,18 @@ public class RepoGateApiClient {
         public String packageVersion;
         public String packageManager;
         public String projectName;
+        public java.util.List<String> paths;
         
         public PackageInfo(String packageName, String packageVersion, String packageManager, String projectName) {
+            this(packageName, packageVersion, packageManager, projectName, java.util.Collections.emptyList());
+        }
+        
+        public PackageInfo(String packageName, String packageVersion, String packageManager, String projectName, java.util.List<String> paths) {
             this.packageName = packageName;
             this.packageVersion = packageVersion;
             this.packageManager = packageManager;
             this.projectName = projectName;
+            this.paths = paths;
         }
     }
 
@@ -263,5 +450,28 @@ public class RepoGateApiClient {
         public void setStatus(String status) {
             this.status = status;
         }
+
+        /**
+         * The status as an enum; a missing status falls back to the approved flag,
+         * anything unrecognized counts as pending
+         */
+        public DependencyInfo.ApprovalStatus getApprovalStatus() {
+            String value = status;
+            if (value == null) {
+                value = approved ? "approved" : "pending";
+            }
+            switch (value.toLowerCase()) {
+                case "approved":
+                    return DependencyInfo.ApprovalStatus.APPROVED;
+                case "denied":
+                    return DependencyInfo.ApprovalStatus.DENIED;
+                case "scanning":
+                    return DependencyInfo.ApprovalStatus.SCANNING;
+                case "not_found":
+                    return DependencyInfo.ApprovalStatus.NOT_FOUND;
+                default:
+                    return DependencyInfo.ApprovalStatus.PENDING;
+            }
+        }
     }
 }
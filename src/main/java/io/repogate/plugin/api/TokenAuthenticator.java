@@ -0,0 +1,45 @@
+package io.repogate.plugin.api;
+
+import io.repogate.plugin.auth.AuthManager;
+import io.repogate.plugin.auth.SignInPrompt;
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Answers 401 responses by refreshing the token once and replaying the request.
+ * Concurrent 401s all wait on the same refresh (see AuthManager.refreshAfterUnauthorized),
+ * and requests that were sent with a token that has since been replaced are replayed
+ * without another refresh. If the replay is rejected too, the user is asked to sign in.
+ */
+class TokenAuthenticator implements Authenticator {
+
+    @Nullable
+    @Override
+    public Request authenticate(@Nullable Route route, Response response) {
+        String header = response.request().header("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            // Not a RepoGate API request (or not a bearer token), nothing to refresh
+            return null;
+        }
+        if (response.priorResponse() != null) {
+            // Already replayed once with a fresh token
+            SignInPrompt.showOnce();
+            return null;
+        }
+
+        String rejectedToken = header.substring("Bearer ".length());
+        AuthManager authManager = AuthManager.getInstance();
+        String token = authManager.refreshAfterUnauthorized(rejectedToken);
+        if (token == null) {
+            SignInPrompt.showOnce();
+            return null;
+        }
+
+        return response.request().newBuilder()
+                .header("Authorization", "Bearer " + token)
+                .build();
+    }
+}
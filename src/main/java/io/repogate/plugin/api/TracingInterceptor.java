@@ -0,0 +1,52 @@
+package io.repogate.plugin.api;
+
+import io.repogate.plugin.tracing.Span;
+import io.repogate.plugin.tracing.Tracer;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Records a client span for each API call made inside a sampled trace and sends its
+ * W3C {@code traceparent} header, so the server's spans join the same trace. Calls
+ * outside a trace pass through untouched.
+ */
+class TracingInterceptor implements Interceptor {
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        if (Tracer.current() == null) {
+            return chain.proceed(request);
+        }
+
+        String endpoint = MetricsInterceptor.endpointOf(request.url().encodedPath());
+        Span span = Tracer.startSpan(request.method() + " " + endpoint, Span.Kind.CLIENT)
+                .setAttribute("http.request.method", request.method())
+                .setAttribute("url.path", endpoint)
+                .setAttribute("server.address", request.url().host());
+        if (!span.isRecording()) {
+            return chain.proceed(request);
+        }
+        try {
+            Response response = chain.proceed(request.newBuilder()
+                    .header("traceparent", span.getContext().toTraceparent())
+                    .build());
+            span.setAttribute("http.response.status_code", response.code());
+            if (!response.isSuccessful()) {
+                span.setError("HTTP " + response.code());
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            span.setAttribute("error.type", e.getClass().getName());
+            span.setError(e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.repogate.plugin.api;
+
+import java.io.IOException;
+
+/**
+ * Thrown when the server still rejects a request after the token was refreshed.
+ * The user has already been asked to sign in again, so callers should not notify.
+ */
+public class UnauthorizedException extends IOException {
+    public UnauthorizedException() {
+        super("Unexpected response code: 401");
+    }
+}
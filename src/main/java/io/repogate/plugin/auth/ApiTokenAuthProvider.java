@@ -8,17 +8,18 @@ import org.jetbrains.annotations.Nullable;
  * API Token authentication provider using SecureStorage
  */
 public class ApiTokenAuthProvider implements AuthProvider {
+    private final TokenHolder tokenHolder = new TokenHolder(
+            () -> new TokenHolder.Token(SecureStorage.get(SecureStorage.API_TOKEN_KEY), 0));
 
     @Override
     @Nullable
     public String getToken() {
-        return SecureStorage.get(SecureStorage.API_TOKEN_KEY);
+        return tokenHolder.get().getValue();
     }
 
     @Override
     public boolean isConfigured() {
-        String token = getToken();
-        return token != null && !token.trim().isEmpty();
+        return tokenHolder.get().isPresent();
     }
 
     @Override
@@ -46,6 +47,7 @@ public class ApiTokenAuthProvider implements AuthProvider {
     @Override
     public void clearAuth() {
         SecureStorage.delete(SecureStorage.API_TOKEN_KEY);
+        tokenHolder.invalidate();
     }
 
     @Override
@@ -59,5 +61,6 @@ public class ApiTokenAuthProvider implements AuthProvider {
      */
     public void setToken(String token) {
         SecureStorage.store(SecureStorage.API_TOKEN_KEY, token);
+        tokenHolder.set(token, 0);
     }
 }
@@ -3,6 +3,7 @@ package io.repogate.plugin.auth;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import io.repogate.plugin.settings.RepoGateSettings;
+import io.repogate.plugin.startup.StartupTrace;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -11,7 +12,9 @@ import org.jetbrains.annotations.Nullable;
  */
 @Service
 public final class AuthManager {
-    private AuthProvider currentProvider;
+    private volatile AuthProvider currentProvider;
+    // Cache scope of the signed-in identity, and the API URL it was derived for
+    private volatile ScopeKey cacheScope;
     
     public static AuthManager getInstance() {
         return ApplicationManager.getApplication().getService(AuthManager.class);
@@ -22,6 +25,18 @@ public final class AuthManager {
      */
     @Nullable
     public AuthProvider getCurrentProvider() {
+        AuthProvider provider = currentProvider;
+        if (provider != null) {
+            return provider;
+        }
+        return createProvider();
+    }
+    
+    /**
+     * Create the provider once, so concurrent callers share one token refresh coordinator
+     */
+    @Nullable
+    private synchronized AuthProvider createProvider() {
         if (currentProvider != null) {
             return currentProvider;
         }
@@ -29,15 +44,17 @@ public final class AuthManager {
         RepoGateSettings settings = RepoGateSettings.getInstance();
         AuthMode authMode = settings.getAuthMode();
         
-        switch (authMode) {
-            case ENTRA_SSO:
-                currentProvider = new EntraIdAuthProvider(settings.getApiUrl());
-                break;
-            case LOCAL_TOKEN:
-                currentProvider = new ApiTokenAuthProvider();
-                break;
-            default:
-                return null;
+        try (StartupTrace ignored = StartupTrace.begin("authProvider")) {
+            switch (authMode) {
+                case ENTRA_SSO:
+                    currentProvider = new EntraIdAuthProvider(settings.getApiUrl());
+                    break;
+                case LOCAL_TOKEN:
+                    currentProvider = new ApiTokenAuthProvider();
+                    break;
+                default:
+                    return null;
+            }
         }
         
         return currentProvider;
@@ -57,6 +74,40 @@ public final class AuthManager {
         return null;
     }
     
+    /**
+     * Called by the HTTP layer after a 401: refresh once (shared by all concurrent callers)
+     * and return the token to replay with, or null if the user has to sign in again
+     */
+    @Nullable
+    public String refreshAfterUnauthorized(String rejectedToken) {
+        AuthProvider provider = getCurrentProvider();
+        if (provider == null || !provider.isConfigured() || SignInPrompt.isPending()) {
+            // Refreshing already failed; wait for the user to sign in instead of retrying per request
+            return null;
+        }
+        
+        String current = provider.getToken();
+        if (current != null && !current.equals(rejectedToken)) {
+            // Another caller already refreshed
+            return current;
+        }
+        
+        if (provider instanceof EntraIdAuthProvider && ((EntraIdAuthProvider) provider).forceRefresh()) {
+            String refreshed = provider.getToken();
+            return refreshed != null && !refreshed.equals(rejectedToken) ? refreshed : null;
+        }
+        return null;
+    }
+    
+    /**
+     * Expiry of the current token (epoch millis), or 0 if it does not expire (API tokens)
+     * or nobody is signed in. Never creates a provider or touches storage.
+     */
+    public long getTokenExpiresAt() {
+        AuthProvider provider = currentProvider;
+        return provider instanceof EntraIdAuthProvider ? ((EntraIdAuthProvider) provider).getTokenExpiresAt() : 0;
+    }
+    
     /**
      * Check if user is authenticated
      */
@@ -65,6 +116,46 @@ public final class AuthManager {
         return provider != null && provider.isConfigured();
     }
     
+    /**
+     * Scope the local caches of server answers belong to: the API URL plus the signed-in
+     * identity (see {@link CacheScope}), or null if nobody is signed in
+     */
+    @Nullable
+    public String getCacheScope() {
+        String apiUrl = RepoGateSettings.getInstance().getApiUrl();
+        ScopeKey key = cacheScope;
+        if (key != null && java.util.Objects.equals(key.apiUrl, apiUrl)) {
+            return key.scope;
+        }
+        String identity = getIdentity();
+        key = new ScopeKey(apiUrl, identity != null ? CacheScope.of(apiUrl, identity) : null);
+        cacheScope = key;
+        return key.scope;
+    }
+    
+    /**
+     * Stable identity of the signed-in account: the EntraID organization and user, or the
+     * API token itself (it is only ever hashed)
+     */
+    @Nullable
+    private String getIdentity() {
+        AuthProvider provider = getCurrentProvider();
+        if (provider == null || !provider.isConfigured()) {
+            return null;
+        }
+        if (provider instanceof EntraIdAuthProvider) {
+            // Not the token: it changes with every refresh
+            io.repogate.plugin.model.UserInfo userInfo = ((EntraIdAuthProvider) provider).getUserInfo();
+            if (userInfo == null) {
+                return null;
+            }
+            String user = userInfo.getId() != null ? userInfo.getId() : userInfo.getEmail();
+            return user != null ? "entra:" + userInfo.getOrgId() + ":" + user : null;
+        }
+        String token = provider.getToken();
+        return token != null ? "token:" + token : null;
+    }
+    
     /**
      * Sign in with EntraID
      */
@@ -72,9 +163,12 @@ public final class AuthManager {
         RepoGateSettings settings = RepoGateSettings.getInstance();
         EntraIdAuthProvider provider = new EntraIdAuthProvider(settings.getApiUrl());
         
+        String previousScope = getCacheScope();
         if (provider.authenticate()) {
             settings.setAuthMode(AuthMode.ENTRA_SSO);
-            currentProvider = provider;
+            replaceProvider(provider);
+            SignInPrompt.reset();
+            clearIfAccountChanged(previousScope);
             return true;
         }
         
@@ -87,10 +181,9 @@ public final class AuthManager {
     public boolean signInWithAPIToken() {
         ApiTokenAuthProvider provider = new ApiTokenAuthProvider();
         
+        String previousScope = getCacheScope();
         if (provider.authenticate()) {
-            RepoGateSettings settings = RepoGateSettings.getInstance();
-            settings.setAuthMode(AuthMode.LOCAL_TOKEN);
-            currentProvider = provider;
+            useApiToken(provider, previousScope);
             return true;
         }
         
@@ -98,9 +191,46 @@ public final class AuthManager {
     }
     
     /**
-     * Sign out
+     * Sign in with an API token obtained without the dialog, e.g. from a test or provisioning
+     */
+    public void signInWithAPIToken(String token) {
+        ApiTokenAuthProvider provider = new ApiTokenAuthProvider();
+        
+        String previousScope = getCacheScope();
+        provider.setToken(token);
+        useApiToken(provider, previousScope);
+    }
+    
+    private void useApiToken(ApiTokenAuthProvider provider, @Nullable String previousScope) {
+        RepoGateSettings settings = RepoGateSettings.getInstance();
+        settings.setAuthMode(AuthMode.LOCAL_TOKEN);
+        replaceProvider(provider);
+        SignInPrompt.reset();
+        clearIfAccountChanged(previousScope);
+    }
+    
+    private synchronized void replaceProvider(@Nullable AuthProvider provider) {
+        if (currentProvider instanceof EntraIdAuthProvider && currentProvider != provider) {
+            ((EntraIdAuthProvider) currentProvider).shutdown();
+        }
+        currentProvider = provider;
+        cacheScope = null;
+    }
+    
+    /**
+     * Another account signed in over the previous one: nothing cached for it may be served any more
+     */
+    private void clearIfAccountChanged(@Nullable String previousScope) {
+        if (previousScope != null && !previousScope.equals(getCacheScope())) {
+            CacheScope.clear(previousScope);
+        }
+    }
+    
+    /**
+     * Sign out, and delete what was cached for the account
      */
     public void signOut() {
+        String previousScope = getCacheScope();
         AuthProvider provider = getCurrentProvider();
         if (provider != null) {
             provider.clearAuth();
@@ -109,6 +239,10 @@ public final class AuthManager {
         RepoGateSettings settings = RepoGateSettings.getInstance();
         settings.setAuthMode(AuthMode.UNAUTHENTICATED);
         currentProvider = null;
+        cacheScope = null;
+        if (previousScope != null) {
+            CacheScope.clear(previousScope);
+        }
     }
     
     /**
@@ -157,4 +291,15 @@ public final class AuthManager {
         }
         return null;
     }
+    
+    private static final class ScopeKey {
+        private final String apiUrl;
+        @Nullable
+        private final String scope;
+        
+        ScopeKey(String apiUrl, @Nullable String scope) {
+            this.apiUrl = apiUrl;
+            this.scope = scope;
+        }
+    }
 }
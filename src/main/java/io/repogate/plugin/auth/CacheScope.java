@@ -0,0 +1,94 @@
+package io.repogate.plugin.auth;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.util.messages.Topic;
+import io.repogate.plugin.logging.RepoGateLogger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Whom locally cached server answers belong to: the API URL plus the signed-in identity,
+ * hashed into a directory name under the IDE system directory. Verdicts, the policy
+ * snapshot and the allowlist filter are specific to an organization, so the caches keep
+ * them per scope, and {@link AuthManager} deletes a scope when its user signs out or
+ * another account signs in.
+ */
+public final class CacheScope {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(CacheScope.class);
+
+    public static final Topic<Listener> TOPIC = Topic.create("RepoGate cache scope", Listener.class);
+
+    public interface Listener {
+        /**
+         * Everything persisted for the scope is being deleted; drop what is held in memory for it
+         */
+        void scopeCleared(String scope);
+    }
+
+    private CacheScope() {
+    }
+
+    /**
+     * Directory holding the cache files of a scope
+     */
+    public static Path directory(String scope) {
+        return Path.of(PathManager.getSystemPath(), "repogate", "scopes", scope);
+    }
+
+    /**
+     * Delete a cache file written before caches were scoped; it may hold another account's answers
+     */
+    public static void deleteUnscoped(String fileName) {
+        try {
+            Files.deleteIfExists(Path.of(PathManager.getSystemPath(), "repogate", fileName));
+        } catch (IOException e) {
+            LOG.warn("Failed to delete " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    static String of(String apiUrl, String identity) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest((apiUrl + "\n" + identity).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            // 128 bits are plenty to tell a few accounts apart
+            for (int i = 0; i < 16; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Tell the caches to forget the scope, then delete its files
+     */
+    static void clear(String scope) {
+        ApplicationManager.getApplication().getMessageBus().syncPublisher(TOPIC).scopeCleared(scope);
+
+        Path directory = directory(scope);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    LOG.warn("Failed to delete " + path + ": " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            LOG.warn("Failed to clear cache scope: " + e.getMessage());
+        }
+    }
+}
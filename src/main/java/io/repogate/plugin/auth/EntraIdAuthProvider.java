@@ -1,59 +1,65 @@
 package io.repogate.plugin.auth;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.ui.Messages;
+import io.repogate.plugin.api.HttpClientProvider;
+import io.repogate.plugin.logging.RepoGateLogger;
 import io.repogate.plugin.model.EntraAuthResponse;
 import io.repogate.plugin.model.TokenRefreshResponse;
+import io.repogate.plugin.utils.Json;
 import okhttp3.*;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 
 /**
  * EntraID OAuth authentication provider
  */
 public class EntraIdAuthProvider implements AuthProvider {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(EntraIdAuthProvider.class);
+
     private final String apiUrl;
-    private final OkHttpClient client;
-    private final Gson gson;
-    private final OAuthService oauthService;
     
-    // Token expiration tracking
-    private long tokenExpiration = 0;
+    // Access token and its expiration, read from storage on first use
+    private final TokenHolder tokenHolder = new TokenHolder(EntraIdAuthProvider::loadStoredToken);
+    private final TokenRefreshCoordinator refreshCoordinator = new TokenRefreshCoordinator(tokenHolder, this::refreshToken);
     
     public EntraIdAuthProvider(String apiUrl) {
+        // Nothing else here: the provider is created on the first token lookup, and storage,
+        // HTTP client and OAuth callback server are only touched when actually needed
         this.apiUrl = apiUrl;
-        this.gson = new Gson();
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .build();
-        this.oauthService = new OAuthService();
-        
-        // Load expiration from storage if available
+    }
+    
+    private static TokenHolder.Token loadStoredToken() {
+        long expiration = 0;
         String expirationStr = SecureStorage.get("repogate.tokenExpiration");
         if (expirationStr != null) {
             try {
-                tokenExpiration = Long.parseLong(expirationStr);
+                expiration = Long.parseLong(expirationStr);
             } catch (NumberFormatException e) {
                 // Ignore
             }
         }
+        return new TokenHolder.Token(SecureStorage.get(SecureStorage.ACCESS_TOKEN_KEY), expiration);
     }
     
     @Override
     @Nullable
     public String getToken() {
-        return SecureStorage.get(SecureStorage.ACCESS_TOKEN_KEY);
+        return tokenHolder.get().getValue();
     }
     
     @Override
     public boolean isConfigured() {
-        String token = getToken();
-        return token != null && !token.trim().isEmpty();
+        return tokenHolder.get().isPresent();
+    }
+    
+    /**
+     * Expiry of the current access token (epoch millis), 0 if unknown
+     */
+    public long getTokenExpiresAt() {
+        return tokenHolder.get().getExpiresAt();
     }
     
     @Override
@@ -84,7 +90,7 @@ public class EntraIdAuthProvider implements AuthProvider {
                     .get()
                     .build();
             
-            try (Response response = client.newCall(request).execute()) {
+            try (Response response = HttpClientProvider.getAuthClient().newCall(request).execute()) {
                 if (!response.isSuccessful()) {
                     Messages.showErrorDialog(
                             "Failed to determine authentication method: " + response.code(),
@@ -94,7 +100,7 @@ public class EntraIdAuthProvider implements AuthProvider {
                 }
                 
                 String responseBody = response.body() != null ? response.body().string() : "{}";
-                JsonObject authModeData = gson.fromJson(responseBody, JsonObject.class);
+                JsonObject authModeData = Json.gson().fromJson(responseBody, JsonObject.class);
                 
                 String authMode = authModeData.get("authMode").getAsString();
                 if (!"ENTRA_SSO".equals(authMode)) {
@@ -109,22 +115,22 @@ public class EntraIdAuthProvider implements AuthProvider {
                 String clientId = authModeData.get("clientId").getAsString();
                 String redirectUri = authModeData.get("redirectUri").getAsString();
                 
-                System.out.println("RepoGate: Starting EntraID authentication flow");
+                LOG.info("Starting EntraID authentication flow");
                 
                 // Start OAuth flow
-                OAuthService.OAuthTokens tokens = oauthService.authenticate(tenantId, clientId, redirectUri);
+                OAuthService.OAuthTokens tokens = new OAuthService().authenticate(tenantId, clientId, redirectUri);
                 
                 if (tokens == null || tokens.accessToken == null) {
-                    System.out.println("RepoGate: EntraID authentication cancelled or failed");
+                    LOG.info("EntraID authentication cancelled or failed");
                     return false;
                 }
                 
                 // Store refresh token if available
                 if (tokens.refreshToken != null) {
                     SecureStorage.store(SecureStorage.REFRESH_TOKEN_KEY, tokens.refreshToken);
-                    System.out.println("RepoGate: Refresh token stored from OAuth callback");
+                    LOG.info("Refresh token stored from OAuth callback");
                 } else {
-                    System.out.println("RepoGate: No refresh token received from OAuth callback");
+                    LOG.info("No refresh token received from OAuth callback");
                 }
                 
                 // Exchange Entra token for RepoGate JWT
@@ -136,7 +142,7 @@ public class EntraIdAuthProvider implements AuthProvider {
                 // Store authentication data
                 storeEntraAuth(authResponse);
                 
-                System.out.println("RepoGate: EntraID authentication successful");
+                LOG.info("EntraID authentication successful");
                 Messages.showInfoMessage(
                         "Signed in as " + authResponse.getUser().getName() + " (" + authResponse.getUser().getEmail() + ")",
                         "Sign-In Successful"
@@ -146,8 +152,7 @@ public class EntraIdAuthProvider implements AuthProvider {
             }
             
         } catch (Exception e) {
-            System.err.println("RepoGate: EntraID authentication failed: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("EntraID authentication failed: " + e.getMessage(), e);
             Messages.showErrorDialog(
                     "Authentication failed: " + e.getMessage(),
                     "Authentication Error"
@@ -161,18 +166,28 @@ public class EntraIdAuthProvider implements AuthProvider {
         SecureStorage.delete(SecureStorage.ACCESS_TOKEN_KEY);
         SecureStorage.delete(SecureStorage.REFRESH_TOKEN_KEY);
         SecureStorage.delete("repogate.tokenExpiration");
-        tokenExpiration = 0;
+        tokenHolder.invalidate();
+        refreshCoordinator.cancel();
     }
     
     @Override
     public boolean refreshTokenIfNeeded() {
-        // Check if token is expiring soon (within 5 minutes)
-        long now = System.currentTimeMillis();
-        if (tokenExpiration > 0 && (tokenExpiration - now) < 300000) {
-            System.out.println("RepoGate: Token expiring soon, attempting refresh...");
-            return refreshToken();
-        }
-        return true;
+        // Renewed in the background ahead of expiry; only blocks once the token has expired
+        return refreshCoordinator.ensureFresh();
+    }
+    
+    /**
+     * Refresh now because the server rejected the current token; joins a refresh already in flight
+     */
+    public boolean forceRefresh() {
+        return refreshCoordinator.awaitRefresh();
+    }
+    
+    /**
+     * Stop background token renewal, e.g. when this provider is replaced
+     */
+    public void shutdown() {
+        refreshCoordinator.cancel();
     }
     
     /**
@@ -186,7 +201,7 @@ public class EntraIdAuthProvider implements AuthProvider {
             requestBody.addProperty("extensionVersion", "1.4.0"); // TODO: Get from plugin.xml
             
             RequestBody body = RequestBody.create(
-                    gson.toJson(requestBody),
+                    Json.gson().toJson(requestBody),
                     MediaType.get("application/json; charset=utf-8")
             );
             
@@ -197,7 +212,7 @@ public class EntraIdAuthProvider implements AuthProvider {
                     .addHeader("Content-Type", "application/json")
                     .build();
             
-            try (Response response = client.newCall(request).execute()) {
+            try (Response response = HttpClientProvider.getAuthClient().newCall(request).execute()) {
                 if (!response.isSuccessful()) {
                     String errorMsg = "Token exchange failed: " + response.code();
                     if (response.body() != null) {
@@ -208,12 +223,11 @@ public class EntraIdAuthProvider implements AuthProvider {
                 }
                 
                 String responseBody = response.body() != null ? response.body().string() : "{}";
-                return gson.fromJson(responseBody, EntraAuthResponse.class);
+                return Json.gson().fromJson(responseBody, EntraAuthResponse.class);
             }
             
         } catch (Exception e) {
-            System.err.println("RepoGate: Token exchange failed: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Token exchange failed: " + e.getMessage(), e);
             return null;
         }
     }
@@ -228,42 +242,44 @@ public class EntraIdAuthProvider implements AuthProvider {
         // Store refresh token if available
         if (authResponse.getRefreshToken() != null) {
             SecureStorage.store(SecureStorage.REFRESH_TOKEN_KEY, authResponse.getRefreshToken());
-            System.out.println("RepoGate: Refresh token stored successfully");
+            LOG.info("Refresh token stored successfully");
         }
         
         // Store user info if available
         if (authResponse.getUser() != null) {
-            String userInfoJson = gson.toJson(authResponse.getUser());
+            String userInfoJson = Json.gson().toJson(authResponse.getUser());
             SecureStorage.store("repogate.userInfo", userInfoJson);
-            System.out.println("RepoGate: User info stored successfully");
+            LOG.info("User info stored successfully");
         }
         
         // Calculate and store expiration timestamp
         long expirationTime = System.currentTimeMillis() + (authResponse.getExpiresIn() * 1000L);
-        tokenExpiration = expirationTime;
         SecureStorage.store("repogate.tokenExpiration", String.valueOf(expirationTime));
+        tokenHolder.set(authResponse.getAccessToken(), expirationTime);
+        refreshCoordinator.scheduleAhead();
         
-        System.out.println("RepoGate: EntraID auth data stored successfully");
+        LOG.info("EntraID auth data stored successfully");
     }
     
     /**
      * Refresh expired JWT token using refresh token
+     * Only called through the refresh coordinator, which guarantees one call at a time
      */
     private boolean refreshToken() {
         try {
             String refreshToken = SecureStorage.get(SecureStorage.REFRESH_TOKEN_KEY);
             if (refreshToken == null) {
-                System.out.println("RepoGate: No refresh token available");
+                LOG.info("No refresh token available");
                 return false;
             }
             
-            String accessToken = SecureStorage.get(SecureStorage.ACCESS_TOKEN_KEY);
+            String accessToken = tokenHolder.get().getValue();
             
             JsonObject requestBody = new JsonObject();
             requestBody.addProperty("refreshToken", refreshToken);
             
             RequestBody body = RequestBody.create(
-                    gson.toJson(requestBody),
+                    Json.gson().toJson(requestBody),
                     MediaType.get("application/json; charset=utf-8")
             );
             
@@ -274,16 +290,16 @@ public class EntraIdAuthProvider implements AuthProvider {
                     .addHeader("Content-Type", "application/json")
                     .build();
             
-            System.out.println("RepoGate: Refreshing access token using refresh token");
+            LOG.info("Refreshing access token using refresh token");
             
-            try (Response response = client.newCall(request).execute()) {
+            try (Response response = HttpClientProvider.getAuthClient().newCall(request).execute()) {
                 if (!response.isSuccessful()) {
-                    System.err.println("RepoGate: Token refresh failed: " + response.code());
+                    LOG.warn("Token refresh failed: " + response.code());
                     return false;
                 }
                 
                 String responseBody = response.body() != null ? response.body().string() : "{}";
-                TokenRefreshResponse refreshResponse = gson.fromJson(responseBody, TokenRefreshResponse.class);
+                TokenRefreshResponse refreshResponse = Json.gson().fromJson(responseBody, TokenRefreshResponse.class);
                 
                 // Store new access token
                 SecureStorage.store(SecureStorage.ACCESS_TOKEN_KEY, refreshResponse.getAccessToken());
@@ -291,21 +307,20 @@ public class EntraIdAuthProvider implements AuthProvider {
                 // Store new refresh token if provided (token rotation)
                 if (refreshResponse.getRefreshToken() != null) {
                     SecureStorage.store(SecureStorage.REFRESH_TOKEN_KEY, refreshResponse.getRefreshToken());
-                    System.out.println("RepoGate: New refresh token stored (token rotation)");
+                    LOG.info("New refresh token stored (token rotation)");
                 }
                 
                 // Update expiration time
                 long expirationTime = System.currentTimeMillis() + (refreshResponse.getExpiresIn() * 1000L);
-                tokenExpiration = expirationTime;
                 SecureStorage.store("repogate.tokenExpiration", String.valueOf(expirationTime));
+                tokenHolder.set(refreshResponse.getAccessToken(), expirationTime);
                 
-                System.out.println("RepoGate: Token refreshed successfully");
+                LOG.info("Token refreshed successfully");
                 return true;
             }
             
         } catch (Exception e) {
-            System.err.println("RepoGate: Token refresh failed: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Token refresh failed: " + e.getMessage(), e);
             return false;
         }
     }
@@ -325,9 +340,9 @@ public class EntraIdAuthProvider implements AuthProvider {
         String userInfoJson = SecureStorage.get("repogate.userInfo");
         if (userInfoJson != null) {
             try {
-                return gson.fromJson(userInfoJson, io.repogate.plugin.model.UserInfo.class);
+                return Json.gson().fromJson(userInfoJson, io.repogate.plugin.model.UserInfo.class);
             } catch (Exception e) {
-                System.err.println("RepoGate: Failed to parse user info: " + e.getMessage());
+                LOG.warn("Failed to parse user info: " + e.getMessage());
             }
         }
         return null;
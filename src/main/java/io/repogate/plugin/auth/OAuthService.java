@@ -1,6 +1,5 @@
 package io.repogate.plugin.auth;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.intellij.ide.BrowserUtil;
 import com.intellij.openapi.application.ApplicationManager;
@@ -11,6 +10,8 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.utils.Json;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -27,11 +28,12 @@ import java.util.concurrent.TimeUnit;
  * Uses local HTTP server to receive OAuth callback
  */
 public class OAuthService {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(OAuthService.class);
+
     private static final int CALLBACK_PORT = 8765;
     private static final String CALLBACK_PATH = "/auth-callback";
     private static final int TIMEOUT_SECONDS = 300; // 5 minutes
     
-    private final Gson gson = new Gson();
     private HttpServer callbackServer;
     private CompletableFuture<OAuthTokens> tokenFuture;
     
@@ -54,10 +56,10 @@ public class OAuthService {
     @Nullable
     public OAuthTokens authenticate(String tenantId, String clientId, String redirectUri) {
         try {
-            System.out.println("RepoGate: Starting EntraID OAuth authentication flow");
-            System.out.println("RepoGate: Tenant ID: " + tenantId);
-            System.out.println("RepoGate: Client ID: " + clientId);
-            System.out.println("RepoGate: Redirect URI: " + redirectUri);
+            LOG.info("Starting EntraID OAuth authentication flow");
+            LOG.debug(() -> "Tenant ID: " + tenantId);
+            LOG.debug(() -> "Client ID: " + clientId);
+            LOG.debug(() -> "Redirect URI: " + redirectUri);
             
             // Generate PKCE challenge
             PKCEGenerator.PKCEChallenge pkce = PKCEGenerator.generate();
@@ -72,7 +74,7 @@ public class OAuthService {
             startCallbackServer();
             
             // Open browser
-            System.out.println("RepoGate: Opening browser for EntraID authentication");
+            LOG.info("Opening browser for EntraID authentication");
             BrowserUtil.browse(authUrl);
             
             // Wait for callback with progress dialog
@@ -89,15 +91,14 @@ public class OAuthService {
                     try {
                         return tokenFuture.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
                     } catch (Exception e) {
-                        System.err.println("RepoGate: Authentication timed out or was cancelled");
+                        LOG.warn("Authentication timed out or was cancelled");
                         return null;
                     }
                 }
             });
             
         } catch (Exception e) {
-            System.err.println("RepoGate: OAuth authentication error: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("OAuth authentication error: " + e.getMessage(), e);
             return null;
         } finally {
             stopCallbackServer();
@@ -113,7 +114,7 @@ public class OAuthService {
         stateObj.addProperty("codeVerifier", codeVerifier);
         stateObj.addProperty("tenantId", tenantId);
         
-        String stateJson = gson.toJson(stateObj);
+        String stateJson = Json.gson().toJson(stateObj);
         return java.util.Base64.getEncoder().encodeToString(stateJson.getBytes(StandardCharsets.UTF_8));
     }
     
@@ -134,7 +135,7 @@ public class OAuthService {
         url.append("&code_challenge=").append(urlEncode(codeChallenge));
         url.append("&code_challenge_method=S256");
         
-        System.out.println("RepoGate: OAuth authorization URL built");
+        LOG.info("OAuth authorization URL built");
         return url.toString();
     }
     
@@ -149,7 +150,7 @@ public class OAuthService {
         callbackServer.setExecutor(null);
         callbackServer.start();
         
-        System.out.println("RepoGate: Callback server started on port " + CALLBACK_PORT);
+        LOG.info("Callback server started on port " + CALLBACK_PORT);
     }
     
     /**
@@ -159,7 +160,7 @@ public class OAuthService {
         if (callbackServer != null) {
             callbackServer.stop(0);
             callbackServer = null;
-            System.out.println("RepoGate: Callback server stopped");
+            LOG.info("Callback server stopped");
         }
     }
     
@@ -169,16 +170,15 @@ public class OAuthService {
     private void handleCallback(HttpExchange exchange) throws IOException {
         try {
             String query = exchange.getRequestURI().getQuery();
-            System.out.println("RepoGate: OAuth callback received");
-            System.out.println("RepoGate: Query: " + query);
-            
             Map<String, String> params = parseQueryString(query);
+            // Never log the query itself: it carries the access and refresh tokens
+            LOG.info(() -> "OAuth callback received with parameters " + params.keySet());
             
             // Check for error
             if (params.containsKey("error")) {
                 String error = params.get("error");
                 String message = params.get("message");
-                System.err.println("RepoGate: OAuth error: " + error + " - " + message);
+                LOG.warn("OAuth error: " + error + " - " + message);
                 
                 sendResponse(exchange, 400, "<html><body><h1>Authentication Failed</h1><p>" + 
                         (message != null ? message : error) + 
@@ -193,14 +193,14 @@ public class OAuthService {
             String refreshToken = params.get("refreshToken");
             
             if (token != null) {
-                System.out.println("RepoGate: Entra ID token extracted from callback");
-                System.out.println("RepoGate: Token length: " + token.length());
+                LOG.info("Entra ID token extracted from callback");
+                LOG.debug(() -> "Token length: " + token.length());
                 
                 if (refreshToken != null) {
-                    System.out.println("RepoGate: Refresh token extracted from callback");
-                    System.out.println("RepoGate: Refresh token length: " + refreshToken.length());
+                    LOG.info("Refresh token extracted from callback");
+                    LOG.debug(() -> "Refresh token length: " + refreshToken.length());
                 } else {
-                    System.out.println("RepoGate: No refresh token in callback URL");
+                    LOG.info("No refresh token in callback URL");
                 }
                 
                 sendResponse(exchange, 200, "<html><body><h1>Authentication Successful!</h1>" +
@@ -209,7 +209,7 @@ public class OAuthService {
                 
                 tokenFuture.complete(new OAuthTokens(token, refreshToken));
             } else {
-                System.err.println("RepoGate: No token in callback URL");
+                LOG.warn("No token in callback URL");
                 
                 sendResponse(exchange, 400, "<html><body><h1>Authentication Failed</h1>" +
                         "<p>No token received from server.</p>" +
@@ -219,8 +219,7 @@ public class OAuthService {
             }
             
         } catch (Exception e) {
-            System.err.println("RepoGate: Error handling callback: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error handling callback: " + e.getMessage(), e);
             
             sendResponse(exchange, 500, "<html><body><h1>Error</h1><p>" + 
                     e.getMessage() + "</p></body></html>");
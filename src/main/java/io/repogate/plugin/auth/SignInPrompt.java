@@ -0,0 +1,58 @@
+package io.repogate.plugin.auth;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationAction;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.application.ApplicationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * "Please sign in again" notification, shown at most once until the next successful sign-in
+ * no matter how many requests are rejected in the meantime.
+ */
+public final class SignInPrompt {
+    private static final AtomicBoolean shown = new AtomicBoolean(false);
+
+    private SignInPrompt() {
+    }
+
+    public static void showOnce() {
+        if (!shown.compareAndSet(false, true)) {
+            return;
+        }
+
+        ApplicationManager.getApplication().invokeLater(() -> {
+            Notification notification = NotificationGroupManager.getInstance()
+                    .getNotificationGroup("RepoGate Notifications")
+                    .createNotification("RepoGate: Session Expired",
+                            "Your RepoGate session is no longer valid. Please sign in again.",
+                            NotificationType.WARNING);
+            notification.addAction(NotificationAction.createSimpleExpiring("Sign in", () -> {
+                AuthManager authManager = AuthManager.getInstance();
+                if (authManager.getAuthMode() == AuthMode.LOCAL_TOKEN) {
+                    authManager.signInWithAPIToken();
+                } else {
+                    authManager.signInWithEntraID();
+                }
+            }));
+            Notifications.Bus.notify(notification);
+        });
+    }
+
+    /**
+     * Whether the user has been asked to sign in and has not done so yet
+     */
+    public static boolean isPending() {
+        return shown.get();
+    }
+
+    /**
+     * Allow the prompt again, after a successful sign-in
+     */
+    static void reset() {
+        shown.set(false);
+    }
+}
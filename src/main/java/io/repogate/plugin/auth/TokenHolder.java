@@ -0,0 +1,91 @@
+package io.repogate.plugin.auth;
+
+import io.repogate.plugin.startup.StartupTrace;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * In-memory copy of a provider's token so hot paths (polling, validation) read a
+ * volatile field instead of going to PasswordSafe, which may hit the OS keychain
+ * or an encrypted KeePass file. The secure store is read once, on first use or
+ * after {@link #invalidate()}; writes go through {@link #set(String, long)}.
+ */
+public final class TokenHolder {
+    private static final Token ABSENT = new Token(null, 0);
+
+    private final Supplier<Token> loader;
+    private volatile Token token;
+
+    public TokenHolder(Supplier<Token> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Current token; loads from the secure store only if not cached
+     */
+    public Token get() {
+        Token current = token;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (token == null) {
+                Token loaded;
+                // Secure storage can block on the OS keychain; this shows how often and how long
+                try (StartupTrace ignored = StartupTrace.begin("credentialLoad")) {
+                    loaded = loader.get();
+                }
+                token = loaded != null ? loaded : ABSENT;
+            }
+            return token;
+        }
+    }
+
+    /**
+     * Replace the cached token after sign-in or refresh (the caller persists it)
+     */
+    public synchronized void set(@Nullable String value, long expiresAt) {
+        token = value != null ? new Token(value, expiresAt) : ABSENT;
+    }
+
+    /**
+     * Drop the cached token so the next read goes back to the secure store
+     */
+    public synchronized void invalidate() {
+        token = null;
+    }
+
+    /**
+     * An immutable token value with its expiry (0 when it does not expire)
+     */
+    public static final class Token {
+        private final String value;
+        private final long expiresAt;
+
+        public Token(@Nullable String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        @Nullable
+        public String getValue() {
+            return value;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isPresent() {
+            return value != null && !value.trim().isEmpty();
+        }
+
+        /**
+         * Whether the token expires within the given time
+         */
+        public boolean expiresWithin(long millis, long now) {
+            return expiresAt > 0 && expiresAt - now < millis;
+        }
+    }
+}
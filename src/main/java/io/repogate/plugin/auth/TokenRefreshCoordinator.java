@@ -0,0 +1,149 @@
+package io.repogate.plugin.auth;
+
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.repogate.plugin.logging.RepoGateLogger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Renews a token ahead of expiry on a background timer and collapses concurrent
+ * refresh requests into a single in-flight call, so rotating refresh tokens are
+ * never spent twice. Callers only wait when the token has actually expired;
+ * otherwise {@link #ensureFresh()} is a volatile read.
+ */
+final class TokenRefreshCoordinator {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(TokenRefreshCoordinator.class);
+
+    private static final long REFRESH_AHEAD_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long RETRY_AFTER_FAILURE_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final long EXPIRED_WAIT_SECONDS = 30;
+
+    private final TokenHolder tokenHolder;
+    private final BooleanSupplier refresher;
+    private final AtomicReference<CompletableFuture<Boolean>> inFlight = new AtomicReference<>();
+    private ScheduledFuture<?> scheduledRefresh;
+    private volatile boolean armed = false;
+    private volatile long retryNotBefore = 0;
+
+    /**
+     * @param refresher performs the network refresh and updates the holder; returns false on failure
+     */
+    TokenRefreshCoordinator(TokenHolder tokenHolder, BooleanSupplier refresher) {
+        this.tokenHolder = tokenHolder;
+        this.refresher = refresher;
+    }
+
+    /**
+     * Make sure the caller gets a usable token: returns immediately unless the token
+     * has expired, in which case it waits for the (shared) refresh
+     */
+    boolean ensureFresh() {
+        TokenHolder.Token token = tokenHolder.get();
+        long now = System.currentTimeMillis();
+        if (!armed) {
+            scheduleAhead();
+        }
+        if (!token.expiresWithin(REFRESH_AHEAD_MS, now)) {
+            return true;
+        }
+
+        boolean expired = token.getExpiresAt() <= now;
+        if (now < retryNotBefore && inFlight.get() == null) {
+            // The last refresh failed recently; don't hammer the server on every poll
+            return !expired;
+        }
+
+        CompletableFuture<Boolean> refresh = refreshAsync();
+        if (!expired) {
+            return true;
+        }
+        try {
+            return refresh.get(EXPIRED_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Refresh regardless of expiry (e.g. the token was revoked) and wait for the result
+     */
+    boolean awaitRefresh() {
+        try {
+            return refreshAsync().get(EXPIRED_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Start a refresh, or join the one already running
+     */
+    CompletableFuture<Boolean> refreshAsync() {
+        while (true) {
+            CompletableFuture<Boolean> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<Boolean> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                AppExecutorUtil.getAppExecutorService().execute(() -> runRefresh(created));
+                return created;
+            }
+        }
+    }
+
+    private void runRefresh(CompletableFuture<Boolean> result) {
+        boolean refreshed = false;
+        try {
+            refreshed = refresher.getAsBoolean();
+        } catch (Exception e) {
+            LOG.warn("Token refresh failed: " + e.getMessage());
+        } finally {
+            retryNotBefore = refreshed ? 0 : System.currentTimeMillis() + RETRY_AFTER_FAILURE_MS;
+            inFlight.set(null);
+            result.complete(refreshed);
+        }
+        scheduleAhead();
+    }
+
+    /**
+     * (Re)arm the timer to refresh shortly before the current token expires
+     */
+    synchronized void scheduleAhead() {
+        armed = true;
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+
+        long expiresAt = tokenHolder.get().getExpiresAt();
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now) {
+            // Nothing to renew, or already expired: callers refresh on demand
+            return;
+        }
+
+        long delay = expiresAt - REFRESH_AHEAD_MS - now;
+        if (delay < 0) {
+            // Already inside the refresh window after a failed attempt: retry after the backoff
+            delay = Math.max(retryNotBefore - now, 0);
+        }
+        scheduledRefresh = AppExecutorUtil.getAppScheduledExecutorService().schedule(
+                this::refreshAsync, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the timer, e.g. on sign-out
+     */
+    synchronized void cancel() {
+        armed = false;
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+    }
+}
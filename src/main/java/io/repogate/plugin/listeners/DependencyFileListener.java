@@ -2,100 +2,157 @@ package io.repogate.plugin.listeners;
 
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.util.Key;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.newvfs.BulkFileListener;
 import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
 import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.metrics.Counter;
+import io.repogate.plugin.metrics.Metrics;
 import io.repogate.plugin.model.DependencyInfo;
 import io.repogate.plugin.parser.DependencyParser;
 import io.repogate.plugin.parser.GradleDependencyParser;
+import io.repogate.plugin.parser.ManifestParseException;
 import io.repogate.plugin.parser.MavenDependencyParser;
 import io.repogate.plugin.parser.NpmDependencyParser;
 import io.repogate.plugin.service.DependencyValidator;
 import io.repogate.plugin.service.InitialPackageScanner;
+import io.repogate.plugin.service.InventoryReporter;
+import io.repogate.plugin.service.ScanPathFilterService;
+import io.repogate.plugin.service.SessionRecorder;
+import io.repogate.plugin.service.ValidationDispatcher;
+import io.repogate.plugin.utils.ManifestReader;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class DependencyFileListener implements BulkFileListener {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(DependencyFileListener.class);
+
     private final List<DependencyParser> parsers = Arrays.asList(
             new NpmDependencyParser(),
             new MavenDependencyParser(),
             new GradleDependencyParser()
     );
+    private final ManifestEventFilter eventFilter = new ManifestEventFilter(parsers);
     
-    private final Map<String, String> fileContentsCache = new ConcurrentHashMap<>();
-    private final Map<Project, DependencyValidator> validators = new ConcurrentHashMap<>();
-    private final Set<Project> initialScanTriggered = ConcurrentHashMap.newKeySet();
+    // Dependency names last seen per manifest path; replaces caching whole file contents
+    private final ManifestNameCache knownDependenciesCache = new ManifestNameCache();
+    // Kept on the project itself so nothing here outlives it
+    private static final Key<Boolean> INITIAL_SCAN_TRIGGERED = Key.create("repogate.initialScanTriggered");
+    private static final Counter EVENTS_PROCESSED = Metrics.counter("listener.events.processed");
+    private static final Counter EVENTS_SKIPPED = Metrics.counter("listener.events.skipped");
 
     @Override
     public void after(@NotNull List<? extends VFileEvent> events) {
-        for (VFileEvent event : events) {
+        // Indexed loop and no getName(): rejecting an event must not allocate
+        for (int i = 0, size = events.size(); i < size; i++) {
+            VFileEvent event = events.get(i);
             if (event instanceof VFileContentChangeEvent) {
-                VFileContentChangeEvent changeEvent = (VFileContentChangeEvent) event;
-                VirtualFile file = changeEvent.getFile();
-                
-                // Check if this is a dependency file we care about
-                String fileName = file.getName();
-                DependencyParser parser = findParser(fileName);
+                VirtualFile file = ((VFileContentChangeEvent) event).getFile();
+                DependencyParser parser = eventFilter.match(file.getNameSequence());
                 
                 if (parser != null) {
                     handleDependencyFileChange(file, parser);
+                    continue;
                 }
             }
+            EVENTS_SKIPPED.increment();
         }
     }
 
-    private DependencyParser findParser(String fileName) {
-        for (DependencyParser parser : parsers) {
-            if (parser.supports(fileName)) {
-                return parser;
-            }
-        }
-        return null;
-    }
-
     private void handleDependencyFileChange(VirtualFile file, DependencyParser parser) {
+        // Find the project for this file
+        Project project = findProjectForFile(file);
+        if (project == null) {
+            EVENTS_SKIPPED.increment();
+            return;
+        }
+        
+        // Skip build output, vendored trees, excluded roots and ignored files before reading anything
+        if (ScanPathFilterService.getInstance(project).isExcluded(file)) {
+            EVENTS_SKIPPED.increment();
+            return;
+        }
+        EVENTS_PROCESSED.increment();
+        
         try {
             String filePath = file.getPath();
-            String currentContent = new String(file.contentsToByteArray(), StandardCharsets.UTF_8);
-            String previousContent = fileContentsCache.getOrDefault(filePath, "");
-            
-            // Parse new dependencies
-            List<DependencyInfo> newDependencies = parser.parseNewDependencies(currentContent, previousContent);
+            List<DependencyInfo> currentDependencies = parser.parseDependencies(ManifestReader.read(file));
+            ManifestNameCache.Names previousNames = knownDependenciesCache.get(filePath);
+
+            List<String> currentNames = new ArrayList<>(currentDependencies.size());
+            List<DependencyInfo> newDependencies = findNewDependencies(currentDependencies, previousNames, currentNames);
             
             if (!newDependencies.isEmpty()) {
-                // Find the project for this file
-                Project project = findProjectForFile(file);
-                if (project != null) {
-                    // Trigger initial scan on first file change
-                    // This will only run once per project and sends to /queue endpoint
-                    if (!initialScanTriggered.contains(project)) {
-                        InitialPackageScanner scanner = new InitialPackageScanner(project);
-                        scanner.performInitialScanIfNeeded();
-                        initialScanTriggered.add(project);
-                    }
-                    
-                    DependencyValidator validator = validators.computeIfAbsent(
-                            project,
-                            DependencyValidator::new
-                    );
-                    
-                    // Validate each new dependency (sends to /request endpoint)
-                    for (DependencyInfo dependency : newDependencies) {
-                        validator.validateDependency(dependency);
-                    }
+                // Trigger initial scan on first file change
+                // This will only run once per project and sends to /queue endpoint
+                if (project.getUserData(INITIAL_SCAN_TRIGGERED) == null) {
+                    project.putUserData(INITIAL_SCAN_TRIGGERED, Boolean.TRUE);
+                    InitialPackageScanner scanner = new InitialPackageScanner(project);
+                    scanner.performInitialScanIfNeeded();
+                    InventoryReporter.getInstance(project).reportInventoryIfNeeded();
+                }
+                
+                DependencyValidator validator = DependencyValidator.getInstance(project);
+                // An edit in the manifest the developer is looking at jumps ahead of scans and branch switches
+                ValidationDispatcher.Priority priority = ValidationDispatcher.priorityFor(project, file);
+                
+                // Validate each new dependency (sends to /request endpoint)
+                for (DependencyInfo dependency : newDependencies) {
+                    SessionRecorder.record(dependency);
+                    validator.validateDependency(dependency, priority);
                 }
             }
             
             // Update cache
-            fileContentsCache.put(filePath, currentContent);
+            ManifestNameCache.Names stored = knownDependenciesCache.put(filePath, currentNames);
+            forgetRemoved(project, filePath, previousNames, stored, parser.getPackageManager());
             
+        } catch (ManifestParseException e) {
+            // Mid-edit; keep the names from the last good parse so nothing looks removed or new
+            LOG.debug(() -> "Skipping unparseable " + file.getName() + ": " + e.getMessage());
         } catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
+            LOG.warn("Error reading file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Dependencies whose name the manifest did not declare before, once per name
+     * @param currentNames receives the name of every current dependency, to be cached for the next change
+     */
+    static List<DependencyInfo> findNewDependencies(List<DependencyInfo> current, ManifestNameCache.Names previous,
+                                                    List<String> currentNames) {
+        Set<String> added = new HashSet<>();
+        List<DependencyInfo> newDependencies = new ArrayList<>();
+        for (DependencyInfo dependency : current) {
+            currentNames.add(dependency.getPackageName());
+            if (!previous.contains(dependency.getPackageName()) && added.add(dependency.getPackageName())) {
+                newDependencies.add(dependency);
+            }
+        }
+        return newDependencies;
+    }
+
+    /**
+     * Let the validator drop what it keeps for packages this change removed, unless another
+     * manifest seen this session still declares them. Manifests not seen yet are validated
+     * in full on their first change, so a package dropped here comes back with them.
+     */
+    private void forgetRemoved(Project project, String filePath, ManifestNameCache.Names previous,
+                               ManifestNameCache.Names current, String packageManager) {
+        // Nothing to forget if nothing was validated yet; don't create the validator for it
+        DependencyValidator validator = project.getServiceIfCreated(DependencyValidator.class);
+        if (validator == null) {
+            return;
+        }
+        for (int i = 0; i < previous.size(); i++) {
+            String name = previous.name(i);
+            if (!current.contains(name) && !knownDependenciesCache.isDeclaredOutside(filePath, name)) {
+                validator.forget(name, packageManager);
+            }
         }
     }
 
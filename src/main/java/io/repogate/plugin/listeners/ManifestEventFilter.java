@@ -0,0 +1,110 @@
+package io.repogate.plugin.listeners;
+
+import io.repogate.plugin.parser.DependencyParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * First stage of VFS event handling: maps a file name to the parser for it, or
+ * rejects it. Runs for every content change in the IDE (hundreds of thousands
+ * during a checkout or code generation), so a rejection must not allocate.
+ * Names are taken as the VFS CharSequence ({@code VirtualFile.getNameSequence()})
+ * and rejected in order by length, last character and hash before the one
+ * candidate is compared char by char. All tables are built once, up front.
+ */
+final class ManifestEventFilter {
+    private final int minLength;
+    private final int maxLength;
+    // Indexed by the name's last char, ASCII only
+    private final boolean[] lastChars = new boolean[128];
+    // Open addressing on String-compatible hashes; slot -> index into names, -1 if empty
+    private final int[] slots;
+    private final int mask;
+    private final String[] names;
+    private final int[] hashes;
+    private final DependencyParser[] parsers;
+
+    ManifestEventFilter(List<DependencyParser> parserList) {
+        List<String> nameList = new ArrayList<>();
+        List<DependencyParser> owners = new ArrayList<>();
+        for (DependencyParser parser : parserList) {
+            for (String name : parser.getFileNames()) {
+                nameList.add(name);
+                owners.add(parser);
+            }
+        }
+        names = nameList.toArray(new String[0]);
+        parsers = owners.toArray(new DependencyParser[0]);
+        hashes = new int[names.length];
+
+        int capacity = Integer.highestOneBit(Math.max(names.length, 1) * 4 - 1) << 1;
+        slots = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(slots, -1);
+
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            min = Math.min(min, name.length());
+            max = Math.max(max, name.length());
+            char last = name.charAt(name.length() - 1);
+            if (last < lastChars.length) {
+                lastChars[last] = true;
+            }
+            hashes[i] = name.hashCode();
+            int slot = spread(hashes[i]) & mask;
+            while (slots[slot] != -1) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i;
+        }
+        minLength = names.length == 0 ? 1 : min;
+        maxLength = max;
+    }
+
+    /**
+     * @return the parser for this manifest name, or null if it is not a manifest
+     */
+    DependencyParser match(CharSequence name) {
+        int length = name.length();
+        if (length < minLength || length > maxLength) {
+            return null;
+        }
+        char last = name.charAt(length - 1);
+        if (last >= lastChars.length || !lastChars[last]) {
+            return null;
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        int slot = spread(hash) & mask;
+        int index;
+        while ((index = slots[slot]) != -1) {
+            if (hashes[index] == hash && sameChars(names[index], name)) {
+                return parsers[index];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private static boolean sameChars(String expected, CharSequence actual) {
+        if (expected.length() != actual.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (expected.charAt(i) != actual.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,165 @@
+package io.repogate.plugin.listeners;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dependency names last seen in each manifest, so a change only validates what was
+ * added. Each manifest keeps its names packed into one string, ordered by a 64-bit
+ * hash kept in a parallel array: a few bytes per name instead of a hash node plus a
+ * String copied out of every parse. A hash hit is always confirmed against the stored
+ * name; package names are chosen by whoever publishes them, so a collision must never
+ * make a new dependency look known and skip validation.
+ */
+final class ManifestNameCache {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<String, Names> namesByPath = new ConcurrentHashMap<>();
+
+    /**
+     * @return the names last stored for this manifest, empty if it was never seen
+     */
+    Names get(String path) {
+        return namesByPath.getOrDefault(path, Names.NONE);
+    }
+
+    /**
+     * Replace the names of a manifest
+     * @return the names as stored
+     */
+    Names put(String path, List<String> names) {
+        Names stored = Names.of(names);
+        namesByPath.put(path, stored);
+        return stored;
+    }
+
+    /**
+     * Whether a manifest other than {@code path} was last seen declaring {@code name}
+     */
+    boolean isDeclaredOutside(String path, CharSequence name) {
+        for (Map.Entry<String, Names> entry : namesByPath.entrySet()) {
+            if (!entry.getKey().equals(path) && entry.getValue().contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return namesByPath.size();
+    }
+
+    /**
+     * 64-bit FNV-1a over the name's chars
+     */
+    static long hash(CharSequence name) {
+        long hash = FNV_OFFSET;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            char c = name.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Immutable, deduplicated set of the names of one manifest
+     */
+    static final class Names {
+        static final Names NONE = new Names(new long[0], new int[0], "");
+
+        // Sorted; equal hashes (collisions) are adjacent and ordered by name
+        private final long[] hashes;
+        // End of each name in packed, in the same order
+        private final int[] ends;
+        private final String packed;
+
+        private Names(long[] hashes, int[] ends, String packed) {
+            this.hashes = hashes;
+            this.ends = ends;
+            this.packed = packed;
+        }
+
+        static Names of(List<String> names) {
+            int count = names.size();
+            if (count == 0) {
+                return NONE;
+            }
+            long[] unsorted = new long[count];
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                unsorted[i] = hash(names.get(i));
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> unsorted[a] != unsorted[b]
+                    ? Long.compare(unsorted[a], unsorted[b])
+                    : names.get(a).compareTo(names.get(b)));
+
+            long[] hashes = new long[count];
+            int[] ends = new int[count];
+            StringBuilder packed = new StringBuilder(count * 16);
+            int unique = 0;
+            String last = null;
+            for (Integer index : order) {
+                String name = names.get(index);
+                if (name.equals(last)) {
+                    continue;
+                }
+                packed.append(name);
+                hashes[unique] = unsorted[index];
+                ends[unique] = packed.length();
+                unique++;
+                last = name;
+            }
+            return unique == count
+                    ? new Names(hashes, ends, packed.toString())
+                    : new Names(Arrays.copyOf(hashes, unique), Arrays.copyOf(ends, unique), packed.toString());
+        }
+
+        boolean contains(CharSequence name) {
+            long hash = hash(name);
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                return false;
+            }
+            while (index > 0 && hashes[index - 1] == hash) {
+                index--;
+            }
+            for (; index < hashes.length && hashes[index] == hash; index++) {
+                if (matches(index, name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int size() {
+            return hashes.length;
+        }
+
+        String name(int index) {
+            return packed.substring(start(index), ends[index]);
+        }
+
+        private boolean matches(int index, CharSequence name) {
+            int start = start(index);
+            int length = ends[index] - start;
+            if (length != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (packed.charAt(start + i) != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int start(int index) {
+            return index == 0 ? 0 : ends[index - 1];
+        }
+    }
+}
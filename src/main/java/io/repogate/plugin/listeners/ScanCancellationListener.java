@@ -0,0 +1,24 @@
+package io.repogate.plugin.listeners;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectCloseListener;
+import io.repogate.plugin.service.ScanScheduler;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Drops the scans a closing project still has queued in the application-wide
+ * {@link ScanScheduler}. A project closed while indexing never gets its
+ * smart-mode callback, so without this its requests would keep it reachable.
+ */
+public class ScanCancellationListener implements ProjectCloseListener {
+
+    @Override
+    public void projectClosed(@NotNull Project project) {
+        // Nothing queued if no scan was ever submitted; don't create the scheduler for it
+        ScanScheduler scheduler = ApplicationManager.getApplication().getServiceIfCreated(ScanScheduler.class);
+        if (scheduler != null) {
+            scheduler.cancel(project);
+        }
+    }
+}
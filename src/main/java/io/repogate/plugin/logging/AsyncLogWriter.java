@@ -0,0 +1,139 @@
+package io.repogate.plugin.logging;
+
+import com.intellij.openapi.diagnostic.Logger;
+import io.repogate.plugin.utils.PluginDisposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffered appender for INFO and DEBUG messages. Callers only enqueue; a single
+ * daemon thread redacts and writes batches to the IDE log, so scans and polling
+ * never contend on the log file. When the buffer is full messages are dropped
+ * and the loss is reported once the writer catches up.
+ * <p>
+ * The thread is tied to {@link PluginDisposable}: when the plugin is unloaded it is
+ * interrupted and writes what is still queued before it exits. Messages logged
+ * after that, or before the application exists, are written on the caller's thread.
+ */
+final class AsyncLogWriter {
+    private static final int CAPACITY = 4096;
+    private static final int BATCH = 256;
+    private static final long SHUTDOWN_TIMEOUT_MS = 1000;
+
+    private static final BlockingQueue<Record> QUEUE = new ArrayBlockingQueue<>(CAPACITY);
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static volatile Thread writer;
+    private static volatile boolean stopped = false;
+
+    private AsyncLogWriter() {
+    }
+
+    static void enqueue(Logger target, String message) {
+        if (!ensureStarted()) {
+            target.info(LogRedactor.redact(message));
+            return;
+        }
+        if (!QUEUE.offer(new Record(target, message))) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return false if there is no writer thread and none may be started
+     */
+    private static boolean ensureStarted() {
+        if (writer != null) {
+            return true;
+        }
+        synchronized (AsyncLogWriter.class) {
+            if (writer == null) {
+                if (stopped || !PluginDisposable.register(AsyncLogWriter::shutdown)) {
+                    return false;
+                }
+                Thread thread = new Thread(AsyncLogWriter::drain, "RepoGate Log Writer");
+                thread.setDaemon(true);
+                thread.start();
+                writer = thread;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stop the writer and wait (briefly) for it to write what is queued
+     */
+    private static void shutdown() {
+        Thread thread;
+        synchronized (AsyncLogWriter.class) {
+            stopped = true;
+            thread = writer;
+            writer = null;
+        }
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drain() {
+        List<Record> batch = new ArrayList<>(BATCH);
+        while (true) {
+            try {
+                Record first = QUEUE.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                QUEUE.drainTo(batch, BATCH - 1);
+                for (Record record : batch) {
+                    record.target.info(LogRedactor.redact(record.message));
+                }
+                batch.clear();
+
+                long dropped = DROPPED.getAndSet(0);
+                if (dropped > 0) {
+                    Logger.getInstance(AsyncLogWriter.class).warn("RepoGate: Log buffer full, dropped " + dropped + " messages");
+                }
+            } catch (InterruptedException e) {
+                flushRemaining();
+                return;
+            } catch (RuntimeException e) {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write what is left in the buffer; the writer is going away
+     */
+    private static void flushRemaining() {
+        Record record;
+        while ((record = QUEUE.poll()) != null) {
+            try {
+                record.target.info(LogRedactor.redact(record.message));
+            } catch (RuntimeException e) {
+                // Keep going; the rest of the buffer is still worth writing
+            }
+        }
+    }
+
+    private static final class Record {
+        private final Logger target;
+        private final String message;
+
+        Record(Logger target, String message) {
+            this.target = target;
+            this.message = message;
+        }
+    }
+}
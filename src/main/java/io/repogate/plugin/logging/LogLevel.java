@@ -0,0 +1,35 @@
+package io.repogate.plugin.logging;
+
+import java.util.Locale;
+
+/**
+ * Verbosity of the plugin's own logging, from the "logLevel" setting.
+ * Each level includes the ones above it.
+ */
+public enum LogLevel {
+    ERROR,
+    WARN,
+    INFO,
+    DEBUG;
+
+    /**
+     * Parse a setting value ("error", "warn", "info", "debug"); anything else is ERROR
+     */
+    public static LogLevel parse(String value) {
+        if (value == null) {
+            return ERROR;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "warn":
+            case "warning":
+                return WARN;
+            case "info":
+                return INFO;
+            case "debug":
+            case "trace":
+                return DEBUG;
+            default:
+                return ERROR;
+        }
+    }
+}
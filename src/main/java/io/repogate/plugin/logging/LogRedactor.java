@@ -0,0 +1,36 @@
+package io.repogate.plugin.logging;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Masks credentials before a message reaches the log: bearer tokens, JWTs,
+ * token/secret/code parameters and the query part of URLs.
+ */
+public final class LogRedactor {
+    static final String MASK = "<redacted>";
+
+    private static final Pattern BEARER = Pattern.compile("(?i)(bearer\\s+)[A-Za-z0-9._~+/=-]+");
+    private static final Pattern JWT = Pattern.compile("eyJ[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]*");
+    private static final Pattern SECRET_PARAM = Pattern.compile(
+            "(?i)\\b((?:access_?token|refresh_?token|id_?token|token|code|client_?secret|password|secret|api_?key)[\"']?\\s*[=:]\\s*[\"']?)[^\\s&\"',;]+");
+    private static final Pattern URL_QUERY = Pattern.compile("(https?://[^\\s?#]+)\\?[^\\s#]*");
+
+    private LogRedactor() {
+    }
+
+    public static String redact(String message) {
+        if (message == null || message.isEmpty()) {
+            return message;
+        }
+        String result = replace(URL_QUERY, message, "$1?" + MASK);
+        result = replace(BEARER, result, "$1" + MASK);
+        result = replace(JWT, result, MASK);
+        return replace(SECRET_PARAM, result, "$1" + MASK);
+    }
+
+    private static String replace(Pattern pattern, String input, String replacement) {
+        Matcher matcher = pattern.matcher(input);
+        return matcher.find() ? matcher.replaceAll(replacement) : input;
+    }
+}
@@ -0,0 +1,101 @@
+package io.repogate.plugin.logging;
+
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.util.function.Supplier;
+
+/**
+ * Leveled logging facade over the IDE logger. The threshold comes from the
+ * "logLevel" setting and is checked before any message is built; the Supplier
+ * overloads defer formatting until the level is known to be enabled.
+ * <p>
+ * ERROR and WARN are written synchronously (both as IDE warnings, since an IDE
+ * error pops up the "internal error" balloon). INFO and DEBUG go through the
+ * {@link AsyncLogWriter}. Every message is passed through {@link LogRedactor}.
+ * <p>
+ * Typical use: {@code private static final RepoGateLogger LOG = RepoGateLogger.getInstance(Foo.class);}
+ */
+public final class RepoGateLogger {
+    private static final String PREFIX = "RepoGate: ";
+
+    private static volatile LogLevel level = LogLevel.ERROR;
+
+    private final Logger delegate;
+
+    private RepoGateLogger(Logger delegate) {
+        this.delegate = delegate;
+    }
+
+    public static RepoGateLogger getInstance(Class<?> owner) {
+        return new RepoGateLogger(Logger.getInstance(owner));
+    }
+
+    /**
+     * Applied by RepoGateSettings whenever the "logLevel" setting is loaded or changed
+     */
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel != null ? newLevel : LogLevel.ERROR;
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static boolean isEnabled(LogLevel candidate) {
+        return candidate.ordinal() <= level.ordinal();
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public void error(String message) {
+        error(message, null);
+    }
+
+    public void error(String message, Throwable t) {
+        // Errors are never filtered out
+        delegate.warn(LogRedactor.redact(PREFIX + message), t);
+    }
+
+    public void warn(String message) {
+        warn(message, null);
+    }
+
+    public void warn(String message, Throwable t) {
+        if (isEnabled(LogLevel.WARN)) {
+            delegate.warn(LogRedactor.redact(PREFIX + message), t);
+        }
+    }
+
+    public void warn(Supplier<String> message) {
+        if (isEnabled(LogLevel.WARN)) {
+            delegate.warn(LogRedactor.redact(PREFIX + message.get()));
+        }
+    }
+
+    public void info(String message) {
+        if (isEnabled(LogLevel.INFO)) {
+            AsyncLogWriter.enqueue(delegate, PREFIX + message);
+        }
+    }
+
+    public void info(Supplier<String> message) {
+        if (isEnabled(LogLevel.INFO)) {
+            AsyncLogWriter.enqueue(delegate, PREFIX + message.get());
+        }
+    }
+
+    public void debug(String message) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            // Written at IDE info level: the setting, not the IDE's debug categories, decides
+            AsyncLogWriter.enqueue(delegate, PREFIX + "[debug] " + message);
+        }
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(LogLevel.DEBUG)) {
+            AsyncLogWriter.enqueue(delegate, PREFIX + "[debug] " + message.get());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.repogate.plugin.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counter; cheap enough to bump on every event from any thread.
+ * Can also go down, for gauges such as "poll tasks active".
+ */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void decrement() {
+        value.decrement();
+    }
+
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    void reset() {
+        value.reset();
+    }
+}
@@ -0,0 +1,109 @@
+package io.repogate.plugin.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets: every power of two
+ * is split into {@value #SUB_BUCKETS} linear sub-buckets, so any recorded value is
+ * reported within 12.5% from a fixed ~2 KB array, from 1 µs to about 19 hours.
+ * Recording is a few bit operations and three atomic updates.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+    }
+
+    /**
+     * Record the time elapsed since a {@link System#nanoTime()} reading
+     */
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    public void recordNanos(long nanos) {
+        recordMicros(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        buckets.incrementAndGet(indexOf(value));
+        sumMicros.add(value);
+        maxMicros.accumulate(value);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Largest value that falls into the bucket
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    /**
+     * Copy the current state. Concurrent recordings may be partly included, which
+     * is fine for diagnostics.
+     */
+    public MetricsSnapshot.HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = buckets.get(i);
+            total += copy[i];
+        }
+        long max = maxMicros.get();
+        return new MetricsSnapshot.HistogramSnapshot(total, sumMicros.sum(), max,
+                percentile(copy, total, 0.50, max),
+                percentile(copy, total, 0.90, max),
+                percentile(copy, total, 0.99, max));
+    }
+
+    private static long percentile(long[] counts, long total, double percentile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // Never report more than the largest value actually recorded
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        sumMicros.reset();
+        maxMicros.reset();
+    }
+}
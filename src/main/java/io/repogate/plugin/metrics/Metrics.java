@@ -0,0 +1,46 @@
+package io.repogate.plugin.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of counters and latency histograms.
+ * Instruments are created on first use and live for the whole IDE session; hot
+ * paths look them up once and keep them in a static field. Names are dotted,
+ * e.g. "api./check" or "parser.maven".
+ */
+public final class Metrics {
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * Copy of every instrument, sorted by name
+     */
+    public static MetricsSnapshot snapshot() {
+        Map<String, Long> counters = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.get()));
+        Map<String, MetricsSnapshot.HistogramSnapshot> histograms = new TreeMap<>();
+        HISTOGRAMS.forEach((name, histogram) -> histograms.put(name, histogram.snapshot()));
+        return new MetricsSnapshot(System.currentTimeMillis(), counters, histograms);
+    }
+
+    /**
+     * Zero every instrument (gauge-style counters included), e.g. before reproducing a problem
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(Counter::reset);
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+    }
+}
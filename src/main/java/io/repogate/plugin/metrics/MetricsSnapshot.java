@@ -0,0 +1,107 @@
+package io.repogate.plugin.metrics;
+
+import com.google.gson.GsonBuilder;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of all metrics, for export
+ */
+public final class MetricsSnapshot {
+    private final String takenAt;
+    private final Map<String, Long> counters;
+    private final Map<String, HistogramSnapshot> histograms;
+
+    MetricsSnapshot(long takenAtMillis, Map<String, Long> counters, Map<String, HistogramSnapshot> histograms) {
+        this.takenAt = Instant.ofEpochMilli(takenAtMillis).toString();
+        this.counters = Collections.unmodifiableMap(counters);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Share of lookups answered by a cache, from its "&lt;prefix&gt;.hit" and "&lt;prefix&gt;.miss" counters
+     */
+    public double getHitRate(String prefix) {
+        long hits = counters.getOrDefault(prefix + ".hit", 0L);
+        long misses = counters.getOrDefault(prefix + ".miss", 0L);
+        return hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+    }
+
+    public String toJson() {
+        return new GsonBuilder().setPrettyPrinting().create().toJson(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RepoGate metrics at ").append(takenAt).append('\n');
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            sb.append("  ").append(entry.getKey()).append(" = ").append(entry.getValue()).append('\n');
+        }
+        for (Map.Entry<String, HistogramSnapshot> entry : histograms.entrySet()) {
+            sb.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Summary of one histogram; latencies in microseconds
+     */
+    public static final class HistogramSnapshot {
+        private final long count;
+        private final long sumMicros;
+        private final long maxMicros;
+        private final long p50Micros;
+        private final long p90Micros;
+        private final long p99Micros;
+
+        HistogramSnapshot(long count, long sumMicros, long maxMicros, long p50Micros, long p90Micros, long p99Micros) {
+            this.count = count;
+            this.sumMicros = sumMicros;
+            this.maxMicros = maxMicros;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMicros() {
+            return count == 0 ? 0.0 : (double) sumMicros / count;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP90Micros() {
+            return p90Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.2fms p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                    count, getMeanMicros() / 1000, p50Micros / 1000.0, p90Micros / 1000.0,
+                    p99Micros / 1000.0, maxMicros / 1000.0);
+        }
+    }
+}
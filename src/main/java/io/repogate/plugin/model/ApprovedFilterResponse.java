@@ -0,0 +1,45 @@
+package io.repogate.plugin.model;
+
+/**
+ * Response model for the approved-coordinates filter endpoint.
+ * The filter holds "ecosystem:name" for packages approved in any version and
+ * "ecosystem:name@version" for packages approved in a specific version.
+ */
+public class ApprovedFilterResponse {
+    private long version;
+    private double falsePositiveRate;
+    private int entryCount;
+    private String filter; // base64, see BloomFilter.fromBase64
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+}
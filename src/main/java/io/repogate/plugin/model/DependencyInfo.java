@@ -1,13 +1,16 @@
 package io.repogate.plugin.model;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DependencyInfo {
     private final String packageName;
     private final String packageManager;
     private final String version;
     private final String filePath;
-    private ApprovalStatus status;
+    private final AtomicReference<DependencyState> state = new AtomicReference<>(DependencyState.INITIAL);
+    // Built on first use; a racy but idempotent cache, like String.hashCode
+    private String key;
 
     public enum ApprovalStatus {
         PENDING,
@@ -27,7 +30,6 @@ public class DependencyInfo {
         this.packageManager = packageManager;
         this.version = version;
         this.filePath = filePath != null ? filePath : "";
-        this.status = ApprovalStatus.PENDING;
     }
 
     public String getPackageName() {
@@ -46,12 +48,61 @@ public class DependencyInfo {
         return filePath;
     }
 
+    /**
+     * "name:manager", the key of every per-package map (state store, pending list, poller).
+     * Built once and shared, so a tracked package holds one copy instead of one per map.
+     */
+    public String getKey() {
+        String k = key;
+        if (k == null) {
+            k = keyOf(packageName, packageManager);
+            key = k;
+        }
+        return k;
+    }
+
+    public static String keyOf(String packageName, String packageManager) {
+        return packageName + ":" + packageManager;
+    }
+
     public ApprovalStatus getStatus() {
-        return status;
+        return state.get().getStatus();
+    }
+
+    public DependencyState getState() {
+        return state.get();
+    }
+
+    /**
+     * Atomically move to a new status if the transition is allowed from the current state
+     * @return the previous state, or null if the transition was rejected (e.g. same status)
+     */
+    public DependencyState transitionTo(ApprovalStatus target, String message) {
+        while (true) {
+            DependencyState current = state.get();
+            if (!current.canMoveTo(target)) {
+                return null;
+            }
+            if (state.compareAndSet(current, current.next(target, message))) {
+                return current;
+            }
+        }
     }
 
-    public void setStatus(ApprovalStatus status) {
-        this.status = status;
+    /**
+     * Atomically take a final verdict back to an undecided status, see {@link DependencyState#canReopenTo}
+     * @return the previous state, or null if there was no final verdict to take back
+     */
+    public DependencyState reopen(ApprovalStatus target, String message) {
+        while (true) {
+            DependencyState current = state.get();
+            if (!current.canReopenTo(target)) {
+                return null;
+            }
+            if (state.compareAndSet(current, current.next(target, message))) {
+                return current;
+            }
+        }
     }
 
     @Override
@@ -74,7 +125,7 @@ public class DependencyInfo {
                 "packageName='" + packageName + '\'' +
                 ", packageManager='" + packageManager + '\'' +
                 ", version='" + version + '\'' +
-                ", status=" + status +
+                ", state=" + state.get() +
                 '}';
     }
 }
@@ -0,0 +1,99 @@
+package io.repogate.plugin.model;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Immutable approval state of one dependency. A new instance is created for every
+ * transition, so readers always see a consistent status/message/revision triple.
+ */
+public final class DependencyState {
+    static final DependencyState INITIAL = new DependencyState(DependencyInfo.ApprovalStatus.PENDING, null, 0, 0);
+
+    private static final Map<DependencyInfo.ApprovalStatus, EnumSet<DependencyInfo.ApprovalStatus>> ALLOWED = Map.of(
+            DependencyInfo.ApprovalStatus.PENDING, EnumSet.of(
+                    DependencyInfo.ApprovalStatus.SCANNING, DependencyInfo.ApprovalStatus.APPROVED,
+                    DependencyInfo.ApprovalStatus.DENIED, DependencyInfo.ApprovalStatus.NOT_FOUND,
+                    DependencyInfo.ApprovalStatus.ERROR),
+            DependencyInfo.ApprovalStatus.SCANNING, EnumSet.of(
+                    DependencyInfo.ApprovalStatus.PENDING, DependencyInfo.ApprovalStatus.APPROVED,
+                    DependencyInfo.ApprovalStatus.DENIED, DependencyInfo.ApprovalStatus.NOT_FOUND,
+                    DependencyInfo.ApprovalStatus.ERROR),
+            DependencyInfo.ApprovalStatus.NOT_FOUND, EnumSet.of(
+                    DependencyInfo.ApprovalStatus.PENDING, DependencyInfo.ApprovalStatus.SCANNING,
+                    DependencyInfo.ApprovalStatus.APPROVED, DependencyInfo.ApprovalStatus.DENIED,
+                    DependencyInfo.ApprovalStatus.ERROR),
+            DependencyInfo.ApprovalStatus.ERROR, EnumSet.of(
+                    DependencyInfo.ApprovalStatus.PENDING, DependencyInfo.ApprovalStatus.SCANNING,
+                    DependencyInfo.ApprovalStatus.APPROVED, DependencyInfo.ApprovalStatus.DENIED,
+                    DependencyInfo.ApprovalStatus.NOT_FOUND),
+            // Final verdicts only change when the policy does, or when reopened (see canReopenTo)
+            DependencyInfo.ApprovalStatus.APPROVED, EnumSet.of(DependencyInfo.ApprovalStatus.DENIED),
+            DependencyInfo.ApprovalStatus.DENIED, EnumSet.of(DependencyInfo.ApprovalStatus.APPROVED)
+    );
+    private static final EnumSet<DependencyInfo.ApprovalStatus> UNDECIDED = EnumSet.of(
+            DependencyInfo.ApprovalStatus.PENDING, DependencyInfo.ApprovalStatus.SCANNING,
+            DependencyInfo.ApprovalStatus.NOT_FOUND);
+
+    private final DependencyInfo.ApprovalStatus status;
+    private final String message;
+    private final long revision;
+    private final long updatedAt;
+
+    private DependencyState(DependencyInfo.ApprovalStatus status, String message, long revision, long updatedAt) {
+        this.status = status;
+        this.message = message;
+        this.revision = revision;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Whether moving from this state to the given status is a valid transition.
+     * Re-entering the same status is not, which is what suppresses duplicate notifications;
+     * the very first decision is always allowed.
+     */
+    public boolean canMoveTo(DependencyInfo.ApprovalStatus target) {
+        return revision == 0 || ALLOWED.get(status).contains(target);
+    }
+
+    /**
+     * Whether a final verdict can be taken back to the given undecided status. Only the
+     * server does that, when it disagrees with a verdict answered locally (policy
+     * snapshot, status cache, allowlist filter) or has revoked it since.
+     */
+    public boolean canReopenTo(DependencyInfo.ApprovalStatus target) {
+        return isFinal() && UNDECIDED.contains(target);
+    }
+
+    public boolean isFinal() {
+        return status == DependencyInfo.ApprovalStatus.APPROVED || status == DependencyInfo.ApprovalStatus.DENIED;
+    }
+
+    DependencyState next(DependencyInfo.ApprovalStatus target, String message) {
+        return new DependencyState(target, message, revision + 1, System.currentTimeMillis());
+    }
+
+    public DependencyInfo.ApprovalStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Number of transitions so far; 0 until the first decision
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return status + "#" + revision;
+    }
+}
@@ -0,0 +1,43 @@
+package io.repogate.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A package whose version or declaring manifests changed between two inventories
+ */
+public class InventoryChange {
+    private final InventoryEntry previous;
+    private final InventoryEntry current;
+
+    public InventoryChange(InventoryEntry previous, InventoryEntry current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public InventoryEntry getPrevious() {
+        return previous;
+    }
+
+    public InventoryEntry getCurrent() {
+        return current;
+    }
+
+    /**
+     * Manifests that declare the package now but did not before
+     */
+    public List<String> getAddedPaths() {
+        List<String> added = new ArrayList<>(current.paths);
+        added.removeAll(previous.paths);
+        return added;
+    }
+
+    /**
+     * Manifests that declared the package before but no longer do
+     */
+    public List<String> getRemovedPaths() {
+        List<String> removed = new ArrayList<>(previous.paths);
+        removed.removeAll(current.paths);
+        return removed;
+    }
+}
@@ -0,0 +1,29 @@
+package io.repogate.plugin.model;
+
+/**
+ * Response model for the inventory digest handshake
+ */
+public class InventoryDigestResponse {
+    private String digest;
+    private boolean upToDate;
+
+    /**
+     * Digest of the last inventory the server acknowledged for the project,
+     * or null if the server has none
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    public boolean isUpToDate() {
+        return upToDate;
+    }
+
+    public void setUpToDate(boolean upToDate) {
+        this.upToDate = upToDate;
+    }
+}
@@ -0,0 +1,50 @@
+package io.repogate.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A single package in a project inventory, with the manifests that declare it
+ */
+public class InventoryEntry {
+    // Public no-arg bean shape so the entry can be persisted by XmlSerializer
+    public String packageName = "";
+    public String packageManager = "";
+    public String version = "";
+    public List<String> paths = new ArrayList<>();
+
+    public InventoryEntry() {
+    }
+
+    public InventoryEntry(String packageName, String packageManager, String version, List<String> paths) {
+        this.packageName = packageName;
+        this.packageManager = packageManager;
+        this.version = version != null ? version : "";
+        this.paths = new ArrayList<>(paths);
+    }
+
+    /**
+     * Identity of the package within an inventory ("manager:name"). The version is not
+     * part of it, so a version bump is reported as a change rather than a remove plus an add.
+     */
+    public String getKey() {
+        return packageManager + ":" + packageName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InventoryEntry that = (InventoryEntry) o;
+        return Objects.equals(packageName, that.packageName) &&
+                Objects.equals(packageManager, that.packageManager) &&
+                Objects.equals(version, that.version) &&
+                Objects.equals(paths, that.paths);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(packageName, packageManager, version, paths);
+    }
+}
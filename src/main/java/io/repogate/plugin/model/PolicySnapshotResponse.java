@@ -0,0 +1,80 @@
+package io.repogate.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response model for the policy snapshot endpoint.
+ * Coordinates are "ecosystem:name" (any version) or "ecosystem:name@version";
+ * patterns may use '*' wildcards, e.g. "npm:@types/*" or "maven:org.apache.*".
+ * A full snapshot replaces the local one; a diff is applied on top of the
+ * version it was requested for.
+ */
+public class PolicySnapshotResponse {
+    private long version;
+    private boolean full = true;
+    private List<String> approved = new ArrayList<>();
+    private List<String> denied = new ArrayList<>();
+    private List<String> approvedPatterns = new ArrayList<>();
+    private List<String> deniedPatterns = new ArrayList<>();
+    private List<String> removed = new ArrayList<>();
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public List<String> getApproved() {
+        return approved != null ? approved : new ArrayList<>();
+    }
+
+    public void setApproved(List<String> approved) {
+        this.approved = approved;
+    }
+
+    public List<String> getDenied() {
+        return denied != null ? denied : new ArrayList<>();
+    }
+
+    public void setDenied(List<String> denied) {
+        this.denied = denied;
+    }
+
+    public List<String> getApprovedPatterns() {
+        return approvedPatterns != null ? approvedPatterns : new ArrayList<>();
+    }
+
+    public void setApprovedPatterns(List<String> approvedPatterns) {
+        this.approvedPatterns = approvedPatterns;
+    }
+
+    public List<String> getDeniedPatterns() {
+        return deniedPatterns != null ? deniedPatterns : new ArrayList<>();
+    }
+
+    public void setDeniedPatterns(List<String> deniedPatterns) {
+        this.deniedPatterns = deniedPatterns;
+    }
+
+    /**
+     * Coordinates and patterns dropped from either list since the requested version (diffs only)
+     */
+    public List<String> getRemoved() {
+        return removed != null ? removed : new ArrayList<>();
+    }
+
+    public void setRemoved(List<String> removed) {
+        this.removed = removed;
+    }
+}
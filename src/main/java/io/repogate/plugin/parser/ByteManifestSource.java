@@ -0,0 +1,137 @@
+package io.repogate.plugin.parser;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link ManifestSource} over UTF-8 bytes held in a heap buffer.
+ * Pure ASCII content (the usual case for manifests) is exposed as a zero-copy
+ * character view; anything else is decoded once into a CharBuffer.
+ */
+public class ByteManifestSource implements ManifestSource {
+    private final ByteBuffer bytes;
+    private CharSequence chars;
+
+    private ByteManifestSource(ByteBuffer bytes) {
+        this.bytes = bytes.asReadOnlyBuffer();
+    }
+
+    /**
+     * Wrap bytes already in memory (for example VFS content)
+     */
+    public static ByteManifestSource wrap(byte[] content) {
+        return new ByteManifestSource(ByteBuffer.wrap(content));
+    }
+
+    @Override
+    public synchronized CharSequence getChars() {
+        if (chars == null) {
+            chars = isAscii(bytes) ? new AsciiCharSequence(bytes, 0, bytes.limit()) : decode(bytes);
+        }
+        return chars;
+    }
+
+    @Override
+    public Reader openReader() {
+        return new InputStreamReader(new ByteBufferInputStream(bytes.duplicate()), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public long getLength() {
+        return bytes.limit();
+    }
+
+    private static boolean isAscii(ByteBuffer buffer) {
+        for (int i = 0, n = buffer.limit(); i < n; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static CharSequence decode(ByteBuffer buffer) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(buffer.duplicate());
+        } catch (CharacterCodingException e) {
+            // Unreachable with REPLACE actions
+            return CharBuffer.allocate(0);
+        }
+    }
+
+    /**
+     * Character view over ASCII bytes; subSequence shares the buffer
+     */
+    private static final class AsciiCharSequence implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+
+        AsciiCharSequence(ByteBuffer buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) buffer.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new AsciiCharSequence(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            byte[] copy = new byte[length];
+            for (int i = 0; i < length; i++) {
+                copy[i] = buffer.get(offset + i);
+            }
+            return new String(copy, StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
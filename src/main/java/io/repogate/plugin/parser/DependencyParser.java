@@ -5,12 +5,13 @@ import java.util.List;
 
 public interface DependencyParser {
     /**
-     * Parse dependencies from file content
-     * @param content The file content
-     * @param previousContent The previous file content (for comparison)
-     * @return List of newly added dependencies
+     * Parse all dependencies declared in a manifest, streaming from the source
+     * instead of materializing it as a String
+     * @param source The manifest content
+     * @return List of declared dependencies
+     * @throws ManifestParseException if the content could not be parsed to the end (e.g. half-typed)
      */
-    List<DependencyInfo> parseNewDependencies(String content, String previousContent);
+    List<DependencyInfo> parseDependencies(ManifestSource source) throws ManifestParseException;
     
     /**
      * Check if this parser supports the given file
@@ -19,6 +20,12 @@ public interface DependencyParser {
      */
     boolean supports(String fileName);
     
+    /**
+     * Exact manifest file names this parser handles, the same names {@link #supports} accepts
+     * @return The file names, e.g. "pom.xml"
+     */
+    List<String> getFileNames();
+    
     /**
      * Get the package manager type
      * @return The package manager identifier (npm, maven, gradle)
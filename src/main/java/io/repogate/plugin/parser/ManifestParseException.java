@@ -0,0 +1,14 @@
+package io.repogate.plugin.parser;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a manifest could not be parsed to the end, typically while it is being
+ * edited. What was read before the error is not a complete list of its dependencies,
+ * so callers must not treat missing entries as removed.
+ */
+public class ManifestParseException extends IOException {
+    public ManifestParseException(String packageManager, Throwable cause) {
+        super("Could not parse " + packageManager + " manifest: " + cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,28 @@
+package io.repogate.plugin.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Read-only view of a manifest's content that parsers can consume
+ * without first copying it into a String
+ */
+public interface ManifestSource {
+    /**
+     * Get the content as characters, for regex based parsers
+     * @return A character view of the content, decoded at most once
+     */
+    CharSequence getChars();
+
+    /**
+     * Open a streaming reader over the content, for token based parsers
+     * @return A new reader positioned at the start of the content
+     */
+    Reader openReader() throws IOException;
+
+    /**
+     * Get the size of the content
+     * @return The content length in bytes
+     */
+    long getLength();
+}
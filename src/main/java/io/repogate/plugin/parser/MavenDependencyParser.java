@@ -1,65 +1,43 @@
 package io.repogate.plugin.parser;
 
+import io.repogate.plugin.metrics.LatencyHistogram;
+import io.repogate.plugin.metrics.Metrics;
 import io.repogate.plugin.model.DependencyInfo;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class MavenDependencyParser implements DependencyParser {
+    private static final LatencyHistogram PARSE_TIME = Metrics.histogram("parser.maven");
+
     private static final Pattern DEPENDENCY_PATTERN = Pattern.compile(
             "<dependency>\\s*<groupId>([^<]+)</groupId>\\s*<artifactId>([^<]+)</artifactId>\\s*(?:<version>([^<]+)</version>)?",
             Pattern.DOTALL
     );
 
     @Override
-    public List<DependencyInfo> parseNewDependencies(String content, String previousContent) {
-        List<DependencyInfo> newDependencies = new ArrayList<>();
+    public List<DependencyInfo> parseDependencies(ManifestSource source) throws ManifestParseException {
+        List<DependencyInfo> dependencies = new ArrayList<>();
+        long start = System.nanoTime();
         
         try {
-            Set<String> previousDeps = extractDependencies(previousContent);
-            Set<String> currentDeps = extractDependencies(content);
-            
-            // Find new dependencies
-            Matcher matcher = DEPENDENCY_PATTERN.matcher(content);
+            Matcher matcher = DEPENDENCY_PATTERN.matcher(source.getChars());
             while (matcher.find()) {
                 String groupId = matcher.group(1).trim();
                 String artifactId = matcher.group(2).trim();
                 String version = matcher.group(3) != null ? matcher.group(3).trim() : "";
-                String fullName = groupId + ":" + artifactId;
-                
-                if (!previousDeps.contains(fullName) && currentDeps.contains(fullName)) {
-                    newDependencies.add(new DependencyInfo(fullName, "maven", version));
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing Maven dependencies: " + e.getMessage());
-        }
-        
-        return newDependencies;
-    }
-
-    private Set<String> extractDependencies(String content) {
-        Set<String> deps = new HashSet<>();
-        if (content == null || content.trim().isEmpty()) {
-            return deps;
-        }
-        
-        try {
-            Matcher matcher = DEPENDENCY_PATTERN.matcher(content);
-            while (matcher.find()) {
-                String groupId = matcher.group(1).trim();
-                String artifactId = matcher.group(2).trim();
-                deps.add(groupId + ":" + artifactId);
+                dependencies.add(new DependencyInfo(groupId + ":" + artifactId, "maven", version));
             }
         } catch (Exception e) {
-            // Ignore parsing errors
+            throw new ManifestParseException("maven", e);
+        } finally {
+            PARSE_TIME.recordSince(start);
         }
         
-        return deps;
+        return dependencies;
     }
 
     @Override
@@ -67,6 +45,11 @@ public class MavenDependencyParser implements DependencyParser {
         return "pom.xml".equals(fileName);
     }
 
+    @Override
+    public List<String> getFileNames() {
+        return Collections.singletonList("pom.xml");
+    }
+
     @Override
     public String getPackageManager() {
         return "maven";
@@ -1,74 +1,65 @@
 package io.repogate.plugin.parser;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.repogate.plugin.metrics.LatencyHistogram;
+import io.repogate.plugin.metrics.Metrics;
 import io.repogate.plugin.model.DependencyInfo;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 public class NpmDependencyParser implements DependencyParser {
-    private final Gson gson = new Gson();
+    private static final LatencyHistogram PARSE_TIME = Metrics.histogram("parser.npm");
+
 
     @Override
-    public List<DependencyInfo> parseNewDependencies(String content, String previousContent) {
-        List<DependencyInfo> newDependencies = new ArrayList<>();
+    public List<DependencyInfo> parseDependencies(ManifestSource source) throws ManifestParseException {
+        Map<String, DependencyInfo> dependencies = new LinkedHashMap<>();
+        long start = System.nanoTime();
         
-        try {
-            Set<String> previousDeps = extractDependencies(previousContent);
-            Set<String> currentDeps = extractDependencies(content);
-            
-            JsonObject currentJson = gson.fromJson(content, JsonObject.class);
-            JsonObject dependencies = currentJson.has("dependencies") ? 
-                    currentJson.getAsJsonObject("dependencies") : new JsonObject();
-            JsonObject devDependencies = currentJson.has("devDependencies") ? 
-                    currentJson.getAsJsonObject("devDependencies") : new JsonObject();
-            
-            // Find new dependencies
-            for (String dep : currentDeps) {
-                if (!previousDeps.contains(dep)) {
-                    String version = "";
-                    if (dependencies.has(dep)) {
-                        version = dependencies.get(dep).getAsString();
-                    } else if (devDependencies.has(dep)) {
-                        version = devDependencies.get(dep).getAsString();
+        try (JsonReader reader = new JsonReader(source.openReader())) {
+            reader.setLenient(true);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String section = reader.nextName();
+                if (("dependencies".equals(section) || "devDependencies".equals(section))
+                        && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    boolean devSection = "devDependencies".equals(section);
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        String version = "";
+                        if (reader.peek() == JsonToken.STRING) {
+                            version = reader.nextString();
+                        } else {
+                            reader.skipValue();
+                        }
+                        // "dependencies" wins over "devDependencies" when a package is in both
+                        DependencyInfo dependency = new DependencyInfo(name, "npm", version);
+                        if (devSection) {
+                            dependencies.putIfAbsent(name, dependency);
+                        } else {
+                            dependencies.put(name, dependency);
+                        }
                     }
-                    newDependencies.add(new DependencyInfo(dep, "npm", version));
+                    reader.endObject();
+                } else {
+                    // Skip scripts, lockfile trees and everything else without building objects
+                    reader.skipValue();
                 }
             }
         } catch (Exception e) {
-            // Log error but don't fail
-            System.err.println("Error parsing npm dependencies: " + e.getMessage());
+            // Partial results would make everything after the error look removed
+            throw new ManifestParseException("npm", e);
+        } finally {
+            PARSE_TIME.recordSince(start);
         }
         
-        return newDependencies;
-    }
-
-    private Set<String> extractDependencies(String content) {
-        Set<String> deps = new HashSet<>();
-        if (content == null || content.trim().isEmpty()) {
-            return deps;
-        }
-        
-        try {
-            JsonObject json = gson.fromJson(content, JsonObject.class);
-            
-            if (json.has("dependencies")) {
-                JsonObject dependencies = json.getAsJsonObject("dependencies");
-                dependencies.keySet().forEach(deps::add);
-            }
-            
-            if (json.has("devDependencies")) {
-                JsonObject devDependencies = json.getAsJsonObject("devDependencies");
-                devDependencies.keySet().forEach(deps::add);
-            }
-        } catch (Exception e) {
-            // Ignore parsing errors for previous content
-        }
-        
-        return deps;
+        return new ArrayList<>(dependencies.values());
     }
 
     @Override
@@ -76,6 +67,11 @@ public class NpmDependencyParser implements DependencyParser {
         return "package.json".equals(fileName);
     }
 
+    @Override
+    public List<String> getFileNames() {
+        return Collections.singletonList("package.json");
+    }
+
     @Override
     public String getPackageManager() {
         return "npm";
@@ -0,0 +1,382 @@
+package io.repogate.plugin.service;
+
+import com.google.gson.reflect.TypeToken;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.repogate.plugin.auth.AuthManager;
+import io.repogate.plugin.auth.CacheScope;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.metrics.Counter;
+import io.repogate.plugin.metrics.Metrics;
+import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.utils.Json;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-wide cache of approval verdicts keyed by (ecosystem, name, version),
+ * shared by all open projects and persisted to the IDE system directory so the
+ * IDE starts warm. Entries are kept in LRU order and bounded in size.
+ * <p>
+ * Verdicts belong to the {@link CacheScope} of the signed-in account: the map only
+ * ever holds one scope, is swapped when the scope changes, and nothing is cached
+ * while nobody is signed in.
+ * <p>
+ * Each status has two ages: until {@code refreshAfter} an entry is served without
+ * any network call; until {@code expireAfter} it is still served but the caller
+ * should revalidate in the background; after that it is dropped.
+ */
+@Service
+public final class ApprovalStatusCache implements Disposable {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(ApprovalStatusCache.class);
+
+    private static final int MAX_ENTRIES = 10_000;
+    private static final long SAVE_INTERVAL_SECONDS = 300;
+    private static final String FILE_NAME = "status-cache.json";
+    private static final Counter HIT = Metrics.counter("cache.status.hit");
+    private static final Counter MISS = Metrics.counter("cache.status.miss");
+
+    private final LinkedHashMap<String, CachedStatus> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedStatus> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private boolean dirty = false;
+    // Scope the entries belong to, null while nobody is signed in; guarded by this
+    private String scope;
+    private final ScheduledFuture<?> saveTask;
+
+    public ApprovalStatusCache() {
+        this.saveTask = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                this::saveIfDirty, SAVE_INTERVAL_SECONDS, SAVE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        ApplicationManager.getApplication().getMessageBus().connect(this)
+                .subscribe(CacheScope.TOPIC, this::forgetScope);
+        // Warm up off the calling thread, which is often the EDT
+        AppExecutorUtil.getAppExecutorService().execute(() -> {
+            CacheScope.deleteUnscoped(FILE_NAME);
+            enterScope(AuthManager.getInstance().getCacheScope());
+        });
+    }
+
+    public static ApprovalStatusCache getInstance() {
+        return ApplicationManager.getApplication().getService(ApprovalStatusCache.class);
+    }
+
+    /**
+     * Look up a cached verdict, or null if there is none or it has expired
+     */
+    @Nullable
+    public CachedStatus get(String ecosystem, String name, String version) {
+        // Resolved outside the lock: the first call may read the account from secure storage
+        return get(AuthManager.getInstance().getCacheScope(), ecosystem, name, version);
+    }
+
+    @Nullable
+    private synchronized CachedStatus get(@Nullable String currentScope, String ecosystem, String name, String version) {
+        if (!enterScope(currentScope)) {
+            misses.incrementAndGet();
+            MISS.increment();
+            return null;
+        }
+        String key = key(ecosystem, name, version);
+        CachedStatus cached = entries.get(key);
+        long now = System.currentTimeMillis();
+
+        if (cached == null || cached.isExpired(now)) {
+            if (cached != null) {
+                entries.remove(key);
+                dirty = true;
+            }
+            misses.incrementAndGet();
+            MISS.increment();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        HIT.increment();
+        if (cached.needsRevalidation(now)) {
+            staleHits.incrementAndGet();
+        }
+        return cached;
+    }
+
+    /**
+     * Remember a verdict; statuses without a TTL (errors, pending) are not cached
+     */
+    public void put(String ecosystem, String name, String version,
+                    DependencyInfo.ApprovalStatus status, @Nullable String message) {
+        if (Ttl.of(status) == null) {
+            return;
+        }
+        String currentScope = AuthManager.getInstance().getCacheScope();
+        synchronized (this) {
+            if (!enterScope(currentScope)) {
+                return;
+            }
+            entries.put(key(ecosystem, name, version),
+                    new CachedStatus(status, message, System.currentTimeMillis()));
+            dirty = true;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Hits served without any network call
+     */
+    public long getSavedRoundTrips() {
+        return hits.get() - staleHits.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static String key(String ecosystem, String name, String version) {
+        return ecosystem + ":" + name + "@" + (version != null ? version : "");
+    }
+
+    /**
+     * Make {@code current} the scope of the entries: switching drops the entries of the
+     * previous scope and loads the file of the new one in the background
+     * @return false if nobody is signed in, so nothing may be cached
+     */
+    private synchronized boolean enterScope(@Nullable String current) {
+        if (Objects.equals(current, scope)) {
+            return current != null;
+        }
+        entries.clear();
+        dirty = false;
+        scope = current;
+        if (current != null) {
+            AppExecutorUtil.getAppExecutorService().execute(() -> load(current));
+        }
+        return current != null;
+    }
+
+    /**
+     * The account signed out or was replaced; its file is being deleted, drop its entries without saving them
+     */
+    private synchronized void forgetScope(String cleared) {
+        if (cleared.equals(scope)) {
+            entries.clear();
+            dirty = false;
+            scope = null;
+        }
+    }
+
+    private static Path cacheFile(String scope) {
+        return CacheScope.directory(scope).resolve(FILE_NAME);
+    }
+
+    private void load(String loadScope) {
+        Path cacheFile = cacheFile(loadScope);
+        if (!Files.isRegularFile(cacheFile)) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            List<PersistedEntry> persisted = Json.gson().fromJson(reader, new TypeToken<List<PersistedEntry>>() {}.getType());
+            if (persisted == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            int loadedCount = 0;
+            synchronized (this) {
+                if (!loadScope.equals(scope)) {
+                    // Switched to another account while reading
+                    return;
+                }
+                for (PersistedEntry entry : persisted) {
+                    try {
+                        CachedStatus cached = new CachedStatus(
+                                DependencyInfo.ApprovalStatus.valueOf(entry.status), entry.message, entry.storedAt);
+                        // Verdicts received since startup are newer than the persisted ones
+                        if (!cached.isExpired(now) && !entries.containsKey(entry.key)) {
+                            entries.put(entry.key, cached);
+                            loadedCount++;
+                        }
+                    } catch (IllegalArgumentException e) {
+                        // Unknown status from an older version, skip it
+                    }
+                }
+            }
+            LOG.info("Loaded " + loadedCount + " cached package statuses");
+        } catch (Exception e) {
+            LOG.warn("Failed to load status cache: " + e.getMessage());
+        }
+    }
+
+    private void saveIfDirty() {
+        List<PersistedEntry> snapshot;
+        String saveScope;
+        synchronized (this) {
+            if (!dirty || scope == null) {
+                return;
+            }
+            dirty = false;
+            saveScope = scope;
+            snapshot = snapshotEntries();
+        }
+        write(saveScope, snapshot);
+    }
+
+    /**
+     * Unexpired entries in LRU order, so the most recently used ones are reloaded last (and stay hottest)
+     */
+    private List<PersistedEntry> snapshotEntries() {
+        long now = System.currentTimeMillis();
+        List<PersistedEntry> snapshot = new ArrayList<>(entries.size());
+        Iterator<Map.Entry<String, CachedStatus>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, CachedStatus> entry = it.next();
+            CachedStatus cached = entry.getValue();
+            if (cached.isExpired(now)) {
+                it.remove();
+                continue;
+            }
+            snapshot.add(new PersistedEntry(entry.getKey(), cached.status.name(), cached.message, cached.storedAt));
+        }
+        return snapshot;
+    }
+
+    private void write(String saveScope, List<PersistedEntry> snapshot) {
+        Path cacheFile = cacheFile(saveScope);
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                Json.gson().toJson(snapshot, writer);
+            }
+            synchronized (this) {
+                if (!saveScope.equals(scope)) {
+                    // Signed out or switched accounts while writing; don't bring the scope back
+                    Files.deleteIfExists(tempFile);
+                    return;
+                }
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to save status cache: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void dispose() {
+        saveTask.cancel(false);
+        saveIfDirty();
+    }
+
+    /**
+     * Per-status ages in milliseconds
+     */
+    private enum Ttl {
+        FINAL(TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(7)),
+        TRANSIENT(TimeUnit.SECONDS.toMillis(30), TimeUnit.MINUTES.toMillis(2));
+
+        private final long refreshAfter;
+        private final long expireAfter;
+
+        Ttl(long refreshAfter, long expireAfter) {
+            this.refreshAfter = refreshAfter;
+            this.expireAfter = expireAfter;
+        }
+
+        @Nullable
+        static Ttl of(DependencyInfo.ApprovalStatus status) {
+            switch (status) {
+                case APPROVED:
+                case DENIED:
+                    return FINAL;
+                case SCANNING:
+                    return TRANSIENT;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * A cached verdict
+     */
+    public static final class CachedStatus {
+        private final DependencyInfo.ApprovalStatus status;
+        private final String message;
+        private final long storedAt;
+
+        CachedStatus(DependencyInfo.ApprovalStatus status, String message, long storedAt) {
+            this.status = status;
+            this.message = message;
+            this.storedAt = storedAt;
+        }
+
+        public DependencyInfo.ApprovalStatus getStatus() {
+            return status;
+        }
+
+        @Nullable
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Whether the verdict should be confirmed with the server in the background
+         */
+        public boolean needsRevalidation(long now) {
+            Ttl ttl = Ttl.of(status);
+            return ttl == null || now - storedAt >= ttl.refreshAfter;
+        }
+
+        boolean isExpired(long now) {
+            Ttl ttl = Ttl.of(status);
+            return ttl == null || now - storedAt >= ttl.expireAfter;
+        }
+    }
+
+    private static final class PersistedEntry {
+        String key;
+        String status;
+        String message;
+        long storedAt;
+
+        PersistedEntry(String key, String status, String message, long storedAt) {
+            this.key = key;
+            this.status = status;
+            this.message = message;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package io.repogate.plugin.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.repogate.plugin.api.RepoGateApiClient;
+import io.repogate.plugin.auth.AuthManager;
+import io.repogate.plugin.auth.CacheScope;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.metrics.Counter;
+import io.repogate.plugin.metrics.Metrics;
+import io.repogate.plugin.model.ApprovedFilterResponse;
+import io.repogate.plugin.settings.RepoGateSettings;
+import io.repogate.plugin.utils.BloomFilter;
+import io.repogate.plugin.utils.Json;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter of the organization allowlist, used to answer "likely approved"
+ * without a round trip. A miss is definite and sends the package down the full
+ * server path; a hit is confirmed with the server in the background.
+ * <p>
+ * Each lookup probes two keys (with and without version), so the filter is
+ * requested at half the configured error rate to keep the combined rate within it.
+ * <p>
+ * The filter is held with the {@link CacheScope} it was fetched for and only answers
+ * for that scope; an optimistic answer the server does not confirm is taken back by
+ * the validator ({@code DependencyStateStore.overturn}).
+ */
+@Service
+public final class ApprovedFilterService implements Disposable {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(ApprovedFilterService.class);
+
+    private static final long REFRESH_INTERVAL_MINUTES = 30;
+    private static final String FILE_NAME = "approved-filter.json";
+    private static final Counter HIT = Metrics.counter("cache.approvedFilter.hit");
+    private static final Counter MISS = Metrics.counter("cache.approvedFilter.miss");
+
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final AtomicLong optimisticAnswers = new AtomicLong();
+    private final AtomicLong overturnedAnswers = new AtomicLong();
+    private final ScheduledFuture<?> refreshTask;
+    private volatile Loaded current;
+    // Last scope a lookup asked for, so a scope change schedules one refresh, not one per lookup
+    private volatile String requestedScope;
+
+    public ApprovedFilterService() {
+        ApplicationManager.getApplication().getMessageBus().connect(this)
+                .subscribe(CacheScope.TOPIC, this::forgetScope);
+        this.refreshTask = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                this::refresh, 0, REFRESH_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        AppExecutorUtil.getAppExecutorService().execute(() -> CacheScope.deleteUnscoped(FILE_NAME));
+    }
+
+    public static ApprovedFilterService getInstance() {
+        return ApplicationManager.getApplication().getService(ApprovedFilterService.class);
+    }
+
+    /**
+     * Whether the package is probably on the allowlist; false is definite
+     */
+    public boolean mightBeApproved(String ecosystem, String name, String version) {
+        Loaded filter = filterFor(AuthManager.getInstance().getCacheScope());
+        if (filter == null || filter.falsePositiveRate > RepoGateSettings.getInstance().getAllowlistFilterErrorRate()) {
+            // No filter for this account yet, or one built for a looser bound than is now configured
+            return false;
+        }
+
+        String coordinate = ecosystem + ":" + name;
+        boolean hit = filter.bloom.mightContain(coordinate) ||
+                (version != null && !version.isEmpty() && filter.bloom.mightContain(coordinate + "@" + version));
+        if (hit) {
+            optimisticAnswers.incrementAndGet();
+        }
+        (hit ? HIT : MISS).increment();
+        return hit;
+    }
+
+    /**
+     * Record that the server did not confirm an optimistic answer (a false positive or a stale filter)
+     */
+    public void recordOverturned() {
+        overturnedAnswers.incrementAndGet();
+    }
+
+    public long getOptimisticAnswerCount() {
+        return optimisticAnswers.get();
+    }
+
+    /**
+     * Observed share of optimistic answers the server overturned
+     */
+    public double getObservedErrorRate() {
+        long total = optimisticAnswers.get();
+        return total == 0 ? 0.0 : (double) overturnedAnswers.get() / total;
+    }
+
+    /**
+     * The filter of the scope, or null (and a refresh scheduled) if the one held is another scope's
+     */
+    @Nullable
+    private Loaded filterFor(@Nullable String scope) {
+        if (scope == null) {
+            return null;
+        }
+        Loaded filter = current;
+        if (filter != null && filter.scope.equals(scope)) {
+            return filter;
+        }
+        if (!scope.equals(requestedScope)) {
+            requestedScope = scope;
+            AppExecutorUtil.getAppExecutorService().execute(this::refresh);
+        }
+        return null;
+    }
+
+    /**
+     * The account signed out or was replaced; its file is being deleted
+     */
+    private void forgetScope(String cleared) {
+        Loaded filter = current;
+        if (filter != null && filter.scope.equals(cleared)) {
+            current = null;
+            // The observed error rate was the old filter's
+            optimisticAnswers.set(0);
+            overturnedAnswers.set(0);
+        }
+        requestedScope = null;
+    }
+
+    private void refresh() {
+        RepoGateSettings settings = RepoGateSettings.getInstance();
+        if (!settings.isEnabled() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        String scope = null;
+        try {
+            String token = AuthManager.getInstance().getToken();
+            scope = AuthManager.getInstance().getCacheScope();
+            if (token == null || scope == null) {
+                return;
+            }
+
+            Loaded filter = current;
+            if (filter == null || !filter.scope.equals(scope)) {
+                // Start from the persisted filter of this scope so the refresh can be a diff
+                filter = load(scope);
+                current = filter;
+            }
+
+            double requestedRate = settings.getAllowlistFilterErrorRate() / 2;
+            // Rebuild from scratch when the configured bound is tighter than the held filter
+            long sinceVersion = filter != null && filter.falsePositiveRate <= settings.getAllowlistFilterErrorRate()
+                    ? filter.version : 0;
+
+            RepoGateApiClient client = new RepoGateApiClient(settings.getApiUrl(), token);
+            ApprovedFilterResponse response = client.fetchApprovedFilter(requestedRate, sinceVersion);
+            if (response == null || response.getFilter() == null) {
+                return;
+            }
+
+            current = toLoaded(response, scope);
+            save(scope, response);
+            LOG.info("Allowlist filter updated to version " + response.getVersion() +
+                    " (" + response.getEntryCount() + " entries)");
+        } catch (Exception e) {
+            // Keep the current filter; the next refresh will retry
+            LOG.warn("Failed to refresh allowlist filter: " + e.getMessage());
+        } finally {
+            refreshing.set(false);
+            String requested = requestedScope;
+            if (requested != null && !requested.equals(scope)) {
+                // A lookup asked for another scope while this refresh was running
+                AppExecutorUtil.getAppExecutorService().execute(this::refresh);
+            }
+        }
+    }
+
+    private static Path filterFile(String scope) {
+        return CacheScope.directory(scope).resolve(FILE_NAME);
+    }
+
+    @Nullable
+    private Loaded load(String scope) {
+        Path filterFile = filterFile(scope);
+        if (!Files.isRegularFile(filterFile)) {
+            return null;
+        }
+
+        try (Reader reader = Files.newBufferedReader(filterFile, StandardCharsets.UTF_8)) {
+            ApprovedFilterResponse persisted = Json.gson().fromJson(reader, ApprovedFilterResponse.class);
+            if (persisted != null && persisted.getFilter() != null) {
+                return toLoaded(persisted, scope);
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to load allowlist filter: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private void save(String scope, ApprovedFilterResponse response) {
+        Path filterFile = filterFile(scope);
+        try {
+            Files.createDirectories(filterFile.getParent());
+            Path tempFile = filterFile.resolveSibling(filterFile.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                Json.gson().toJson(response, writer);
+            }
+            if (!scope.equals(AuthManager.getInstance().getCacheScope())) {
+                // Signed out or switched accounts while writing; don't bring the scope back
+                Files.deleteIfExists(tempFile);
+                return;
+            }
+            Files.move(tempFile, filterFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOG.warn("Failed to save allowlist filter: " + e.getMessage());
+        }
+    }
+
+    private static Loaded toLoaded(ApprovedFilterResponse response, String scope) {
+        // Two probes per lookup, so the effective rate is about twice the per-key rate
+        return new Loaded(BloomFilter.fromBase64(response.getFilter()), response.getVersion(),
+                response.getFalsePositiveRate() * 2, scope);
+    }
+
+    @Override
+    public void dispose() {
+        refreshTask.cancel(false);
+    }
+
+    private static final class Loaded {
+        final BloomFilter bloom;
+        final long version;
+        final double falsePositiveRate;
+        final String scope;
+
+        Loaded(BloomFilter bloom, long version, double falsePositiveRate, String scope) {
+            this.bloom = bloom;
+            this.version = version;
+            this.falsePositiveRate = falsePositiveRate;
+            this.scope = scope;
+        }
+    }
+}
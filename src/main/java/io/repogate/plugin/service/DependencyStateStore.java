@@ -0,0 +1,220 @@
+package io.repogate.plugin.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.model.DependencyState;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versioned view of the approval state of every dependency validated in a project.
+ * Transitions are CAS operations on each dependency's immutable state and replace
+ * one entry of a concurrent map, so they cost the same with 10 or 10,000 tracked
+ * packages. Readers (UI, exporters) get an immutable snapshot, copied at most once
+ * per version when they ask for it, and transition listeners are notified.
+ * <p>
+ * Packages leave the store when they are no longer declared ({@link #untrack}), and
+ * beyond {@link #MAX_SETTLED} final verdicts the oldest ones are dropped, so a long
+ * session with many branch switches doesn't grow it without bound.
+ */
+@Service(Service.Level.PROJECT)
+public final class DependencyStateStore {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(DependencyStateStore.class);
+
+    static final int MAX_SETTLED = 10_000;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // Entries that reached a final verdict, oldest first; some may have been replaced since
+    private final ConcurrentLinkedQueue<Entry> settled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger settledCount = new AtomicInteger();
+    private final List<TransitionListener> listeners = new CopyOnWriteArrayList<>();
+
+    public static DependencyStateStore getInstance(Project project) {
+        return project.getService(DependencyStateStore.class);
+    }
+
+    /**
+     * Start tracking a dependency, replacing an earlier instance of the same package
+     */
+    public void track(DependencyInfo dependency) {
+        Entry existing = entries.get(dependency.getKey());
+        if (existing != null && existing.dependency == dependency) {
+            return;
+        }
+        // Reads the state inside compute so a concurrent publish for the same package is not undone
+        entries.compute(dependency.getKey(), (key, current) -> current != null && current.dependency == dependency
+                ? current : new Entry(dependency, dependency.getState()));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Stop tracking a package ("name:manager"), e.g. once no manifest declares it any more
+     */
+    public void untrack(String key) {
+        if (entries.remove(key) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Move a dependency to a new status; listeners are only called if the state actually changed
+     * @return true if the transition happened
+     */
+    public boolean transition(DependencyInfo dependency, DependencyInfo.ApprovalStatus target, String message) {
+        DependencyState previous = dependency.transitionTo(target, message);
+        if (previous == null) {
+            return false;
+        }
+        publish(dependency, previous);
+        return true;
+    }
+
+    /**
+     * Take back a final verdict because the server answered that the package is not
+     * decided: a false positive of a local answer, or an approval revoked since.
+     * Publishes and notifies like a transition.
+     * @return true if the dependency had a final verdict
+     */
+    public boolean overturn(DependencyInfo dependency, DependencyInfo.ApprovalStatus target, String message) {
+        DependencyState previous = dependency.reopen(target, message);
+        if (previous == null) {
+            return false;
+        }
+        publish(dependency, previous);
+        return true;
+    }
+
+    private void publish(DependencyInfo dependency, DependencyState previous) {
+        DependencyState state = dependency.getState();
+        // Skipped for a superseded instance, or if a concurrent transition already published a newer state
+        Entry published = entries.computeIfPresent(dependency.getKey(), (key, existing) ->
+                existing.dependency == dependency && existing.state.getRevision() < state.getRevision()
+                        ? new Entry(dependency, state) : existing);
+        if (published != null && published.state == state) {
+            version.incrementAndGet();
+            if (state.isFinal()) {
+                settle(published);
+            }
+        }
+
+        for (TransitionListener listener : listeners) {
+            try {
+                listener.onTransition(dependency, previous, state);
+            } catch (Exception e) {
+                LOG.warn("State listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drop the oldest final verdicts beyond {@link #MAX_SETTLED}; undecided packages are never dropped
+     */
+    private void settle(Entry entry) {
+        settled.add(entry);
+        if (settledCount.incrementAndGet() <= MAX_SETTLED) {
+            return;
+        }
+        Entry oldest = settled.poll();
+        if (oldest != null) {
+            settledCount.decrementAndGet();
+            // Only if it was not replaced (re-validated or reopened) since
+            if (entries.remove(oldest.dependency.getKey(), oldest)) {
+                version.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * The tracked dependencies as of now; copied only when something changed since the last call
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        // Read before copying: a change racing with the copy may already be in it, and
+        // the next call sees a newer version and copies again
+        long latest = version.get();
+        if (current.version == latest) {
+            return current;
+        }
+        // Racing callers may both copy; either result is correct for its version
+        current = new Snapshot(latest, Collections.unmodifiableMap(new HashMap<>(entries)));
+        snapshot = current;
+        return current;
+    }
+
+
+    public void addListener(TransitionListener listener, Disposable parentDisposable) {
+        listeners.add(listener);
+        Disposer.register(parentDisposable, () -> listeners.remove(listener));
+    }
+
+    public interface TransitionListener {
+        /**
+         * Called on the thread that made the transition
+         */
+        void onTransition(DependencyInfo dependency, DependencyState from, DependencyState to);
+    }
+
+    /**
+     * A tracked dependency together with the state it had at snapshot time
+     */
+    public static final class Entry {
+        private final DependencyInfo dependency;
+        private final DependencyState state;
+
+        Entry(DependencyInfo dependency, DependencyState state) {
+            this.dependency = dependency;
+            this.state = state;
+        }
+
+        public DependencyInfo getDependency() {
+            return dependency;
+        }
+
+        public DependencyState getState() {
+            return state;
+        }
+    }
+
+    /**
+     * Immutable view of all tracked dependencies at one version
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, Collections.emptyMap());
+
+        private final long version;
+        private final Map<String, Entry> entries;
+
+        private Snapshot(long version, Map<String, Entry> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+
+        /**
+         * Increases with every published change; readers can skip work when it is unchanged
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Entries keyed by "name:manager"
+         */
+        public Map<String, Entry> getEntries() {
+            return entries;
+        }
+    }
+}
@@ -1,36 +1,108 @@
 package io.repogate.plugin.service;
 
 import com.intellij.notification.*;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import io.repogate.plugin.api.RepoGateApiClient;
+import io.repogate.plugin.api.UnauthorizedException;
 import io.repogate.plugin.auth.AuthManager;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.metrics.Counter;
+import io.repogate.plugin.metrics.Metrics;
 import io.repogate.plugin.model.DependencyInfo;
 import io.repogate.plugin.settings.RepoGateSettings;
+import io.repogate.plugin.tracing.Span;
+import io.repogate.plugin.tracing.Tracer;
 import io.repogate.plugin.utils.GitDetector;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Validates dependencies of one project and polls for pending verdicts.
+ * Lives as long as the project: polling stops on close and pending packages
+ * are saved so polling resumes when the project is reopened.
+ */
+@Service(Service.Level.PROJECT)
+public final class DependencyValidator implements Disposable {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(DependencyValidator.class);
+
+    // Across all open projects
+    private static final Counter ACTIVE_POLLS = Metrics.counter("validator.pollTasks.active");
+    private static final long POLL_INTERVAL_MS = 10_000;
+    private static final int MAX_CONNECT_RETRIES = 30; // 5 minutes at the poll interval
 
-public class DependencyValidator {
     private final Project project;
     private final ConcurrentHashMap<String, DependencyInfo> pendingDependencies = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, ScheduledFuture<?>> pollingTasks = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
-    private boolean isConnected = false;
+    private final ConcurrentHashMap<String, DependencyInfo> offlineConfirmations = new ConcurrentHashMap<>();
+    private final VerdictPoller poller = new VerdictPoller(AppExecutorUtil.getAppScheduledExecutorService(), ACTIVE_POLLS);
+    private final AtomicBoolean isConnected = new AtomicBoolean(false);
+    private final DependencyStateStore stateStore;
+    private final PendingValidationState pendingState;
+    private volatile List<PendingValidationState.Entry> unrestored;
 
     public DependencyValidator(Project project) {
         this.project = project;
+        this.stateStore = DependencyStateStore.getInstance(project);
+        this.pendingState = PendingValidationState.getInstance(project);
+        // Saves now take the live list (plus anything not restored yet)
+        this.unrestored = pendingState.take();
+        pendingState.setSource(this::collectPending);
+    }
+
+    public static DependencyValidator getInstance(Project project) {
+        return project.getService(DependencyValidator.class);
+    }
+
+    /**
+     * Resume polling for packages that were still pending when the project was last closed
+     */
+    public void restorePending() {
+        // Checked first so an empty restore never loads credentials from secure storage
+        if (unrestored.isEmpty()) {
+            return;
+        }
+        if (!RepoGateSettings.getInstance().isEnabled() || !AuthManager.getInstance().isAuthenticated()) {
+            return;
+        }
+
+        List<PendingValidationState.Entry> restored = unrestored;
+        unrestored = new ArrayList<>();
+        for (PendingValidationState.Entry entry : restored) {
+            DependencyInfo dependency = new DependencyInfo(
+                    entry.packageName, entry.packageManager, entry.version, entry.filePath);
+            String key = dependency.getKey();
+            if (pendingDependencies.putIfAbsent(key, dependency) == null) {
+                stateStore.track(dependency);
+                Span flow = Tracer.startTrace("dependency.restore");
+                flow.setAttribute("repogate.package.name", dependency.getPackageName());
+                try (Tracer.Scope ignored = flow.makeCurrent()) {
+                    startPolling(dependency);
+                } finally {
+                    flow.end();
+                }
+            }
+        }
     }
 
     /**
-     * Validate a newly detected dependency
+     * Validate a newly detected dependency found outside the editor (scans, restores)
      */
     public void validateDependency(DependencyInfo dependency) {
+        validateDependency(dependency, ValidationDispatcher.Priority.BACKGROUND);
+    }
+
+    /**
+     * Validate a newly detected dependency; server round trips are queued at the given priority
+     */
+    public void validateDependency(DependencyInfo dependency, ValidationDispatcher.Priority priority) {
         RepoGateSettings settings = RepoGateSettings.getInstance();
         
         if (!settings.isEnabled()) {
@@ -53,8 +125,64 @@ public class DependencyValidator {
             return;
         }
 
-        String key = dependency.getPackageName() + ":" + dependency.getPackageManager();
+        // One trace per flow: detection, the /request or local answer, polls and the verdict
+        Span flow = Tracer.startTrace("dependency.validate");
+        if (flow.isRecording()) {
+            flow.setAttribute("repogate.package.name", dependency.getPackageName())
+                    .setAttribute("repogate.package.manager", dependency.getPackageManager())
+                    .setAttribute("repogate.package.version", dependency.getVersion())
+                    .setAttribute("repogate.priority", priority.name().toLowerCase());
+        }
+        try (Tracer.Scope ignored = flow.makeCurrent()) {
+            startValidation(dependency, priority, settings, apiToken, flow);
+        } finally {
+            flow.end();
+        }
+    }
+
+    private void startValidation(DependencyInfo dependency, ValidationDispatcher.Priority priority,
+                                 RepoGateSettings settings, String apiToken, Span flow) {
+        String key = dependency.getKey();
         pendingDependencies.put(key, dependency);
+        stateStore.track(dependency);
+
+        // Answer from the local policy snapshot when the package is explicitly listed,
+        // then let the server record the request (or queue it while offline)
+        PolicySnapshot.Decision decision = PolicySnapshotService.getInstance().lookup(
+                dependency.getPackageManager(), dependency.getPackageName(), dependency.getVersion());
+        if (decision != PolicySnapshot.Decision.UNKNOWN) {
+            flow.setAttribute("repogate.answer", "policy");
+            handleDependencyResponse(dependency, toResponse(decision));
+            dispatch(priority, () -> confirmWithServer(dependency, false));
+            return;
+        }
+
+        // Answer from the shared status cache when this coordinate was seen recently
+        ApprovalStatusCache.CachedStatus cached = ApprovalStatusCache.getInstance().get(
+                dependency.getPackageManager(), dependency.getPackageName(), dependency.getVersion());
+        if (cached != null) {
+            flow.setAttribute("repogate.answer", "cache");
+            handleDependencyResponse(dependency, toResponse(cached));
+            if (cached.getStatus() != DependencyInfo.ApprovalStatus.SCANNING &&
+                    cached.needsRevalidation(System.currentTimeMillis())) {
+                dispatch(ValidationDispatcher.Priority.BACKGROUND, () -> revalidate(dependency, cached));
+            }
+            return;
+        }
+
+        // Most additions are already on the allowlist: on a filter hit answer optimistically
+        // and confirm lazily; a miss is definite and takes the full server path below
+        if (ApprovedFilterService.getInstance().mightBeApproved(
+                dependency.getPackageManager(), dependency.getPackageName(), dependency.getVersion())) {
+            RepoGateApiClient.DependencyResponse likelyApproved = toResponse(PolicySnapshot.Decision.APPROVED);
+            likelyApproved.setMessage("On the organization allowlist");
+            flow.setAttribute("repogate.answer", "allowlist");
+            handleDependencyResponse(dependency, likelyApproved);
+            dispatch(priority, () -> confirmWithServer(dependency, true));
+            return;
+        }
+
+        flow.setAttribute("repogate.answer", "server");
 
         // Show waiting message
         showNotification("⏳ RepoGate",
@@ -62,7 +190,7 @@ public class DependencyValidator {
                 NotificationType.INFORMATION);
 
         // Request validation
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+        boolean queued = dispatch(priority, () -> {
             try {
                 RepoGateApiClient client = new RepoGateApiClient(settings.getApiUrl(), apiToken);
                 String projectName = project.getName();
@@ -79,19 +207,18 @@ public class DependencyValidator {
                 );
 
                 // Connection successful!
-                if (!isConnected) {
-                    isConnected = true;
-                    showNotification("✓ RepoGate",
-                            "Connected successfully to RepoGate service",
-                            NotificationType.INFORMATION);
-                }
+                markConnected();
 
                 // Handle response based on new status values
-                handleDependencyResponse(dependency, response);
+                rememberStatus(dependency, response);
+                handleServerResponse(dependency, response);
 
+            } catch (UnauthorizedException e) {
+                // The transport already refreshed the token and asked the user to sign in again
+                transition(dependency, DependencyInfo.ApprovalStatus.ERROR, "Not signed in");
             } catch (Exception e) {
                 // Connection failed
-                isConnected = false;
+                isConnected.set(false);
                 String errorMsg = e.getMessage();
                 
                 if (errorMsg != null && (errorMsg.contains("Connection refused") || 
@@ -101,16 +228,27 @@ public class DependencyValidator {
                             "Waiting for RepoGate service to start... Will retry automatically.",
                             NotificationType.WARNING);
                     
-                    dependency.setStatus(DependencyInfo.ApprovalStatus.PENDING);
+                    transition(dependency, DependencyInfo.ApprovalStatus.PENDING, "Waiting for RepoGate service");
                     retryConnection(dependency);
                 } else {
                     showNotification("RepoGate: Connection Error",
                             "Unable to connect - " + errorMsg,
                             NotificationType.ERROR);
-                    dependency.setStatus(DependencyInfo.ApprovalStatus.ERROR);
+                    transition(dependency, DependencyInfo.ApprovalStatus.ERROR, errorMsg);
                 }
             }
         });
+        if (!queued) {
+            // The listener already counts this name as known, so nothing else would ask again;
+            // request it from the poll schedule instead, which does not go through the queue
+            transition(dependency, DependencyInfo.ApprovalStatus.PENDING, "Validation queue full, retrying");
+            retryConnection(dependency);
+        }
+    }
+
+    private boolean dispatch(ValidationDispatcher.Priority priority, Runnable work) {
+        // Runs in the caller's trace, if any
+        return ValidationDispatcher.getInstance().submit(project, priority, Tracer.wrap(work));
     }
 
     private void handleDependencyResponse(DependencyInfo dependency, RepoGateApiClient.DependencyResponse response) {
@@ -119,252 +257,432 @@ public class DependencyValidator {
             status = response.isApproved() ? "approved" : "pending";
         }
 
+        // Notifications only fire when the state actually changes, so repeated answers stay quiet
         switch (status.toLowerCase()) {
             case "approved":
-                dependency.setStatus(DependencyInfo.ApprovalStatus.APPROVED);
-                showNotification("✓ RepoGate",
-                        String.format("%s - Package '%s' can be used.", 
-                                response.getMessage(), dependency.getPackageName()),
-                        NotificationType.INFORMATION);
+                // Final verdicts leave the pending list (the state store still shows them)
+                // and end any polling started before the verdict came in
+                pendingDependencies.remove(dependency.getKey(), dependency);
+                poller.stop(dependency.getKey());
+                traceVerdict(dependency, DependencyInfo.ApprovalStatus.APPROVED);
+                if (transition(dependency, DependencyInfo.ApprovalStatus.APPROVED, response.getMessage())) {
+                    showNotification("✓ RepoGate",
+                            String.format("%s - Package '%s' can be used.", 
+                                    response.getMessage(), dependency.getPackageName()),
+                            NotificationType.INFORMATION);
+                }
                 break;
 
             case "denied":
-                dependency.setStatus(DependencyInfo.ApprovalStatus.DENIED);
-                showNotification("✗ RepoGate",
-                        String.format("%s - Package '%s' should not be used.", 
-                                response.getMessage(), dependency.getPackageName()),
-                        NotificationType.ERROR);
+                pendingDependencies.remove(dependency.getKey(), dependency);
+                poller.stop(dependency.getKey());
+                traceVerdict(dependency, DependencyInfo.ApprovalStatus.DENIED);
+                if (transition(dependency, DependencyInfo.ApprovalStatus.DENIED, response.getMessage())) {
+                    showNotification("✗ RepoGate",
+                            String.format("%s - Package '%s' should not be used.", 
+                                    response.getMessage(), dependency.getPackageName()),
+                            NotificationType.ERROR);
+                }
                 break;
 
             case "pending":
-                dependency.setStatus(DependencyInfo.ApprovalStatus.PENDING);
-                showNotification("⏳ RepoGate",
-                        response.getMessage(),
-                        NotificationType.WARNING);
+                if (transition(dependency, DependencyInfo.ApprovalStatus.PENDING, response.getMessage())) {
+                    showNotification("⏳ RepoGate",
+                            response.getMessage(),
+                            NotificationType.WARNING);
+                }
                 // Start polling for approval status
                 startPolling(dependency);
                 break;
 
             case "scanning":
-                dependency.setStatus(DependencyInfo.ApprovalStatus.SCANNING);
-                showNotification("🔍 RepoGate",
-                        response.getMessage(),
-                        NotificationType.INFORMATION);
+                if (transition(dependency, DependencyInfo.ApprovalStatus.SCANNING, response.getMessage())) {
+                    showNotification("🔍 RepoGate",
+                            response.getMessage(),
+                            NotificationType.INFORMATION);
+                }
                 // Start polling to check when scanning completes
                 startPolling(dependency);
                 break;
 
             case "not_found":
-                dependency.setStatus(DependencyInfo.ApprovalStatus.NOT_FOUND);
-                showNotification("❓ RepoGate",
-                        response.getMessage(),
-                        NotificationType.WARNING);
+                if (transition(dependency, DependencyInfo.ApprovalStatus.NOT_FOUND, response.getMessage())) {
+                    showNotification("❓ RepoGate",
+                            response.getMessage(),
+                            NotificationType.WARNING);
+                }
                 // Start polling in case it gets added
                 startPolling(dependency);
                 break;
 
             default:
                 // Fallback for unknown status
-                dependency.setStatus(DependencyInfo.ApprovalStatus.PENDING);
-                showNotification("⏳ RepoGate",
-                        response.getMessage() != null ? response.getMessage() : "Package status unknown",
-                        NotificationType.WARNING);
+                String message = response.getMessage() != null ? response.getMessage() : "Package status unknown";
+                if (transition(dependency, DependencyInfo.ApprovalStatus.PENDING, message)) {
+                    showNotification("⏳ RepoGate",
+                            message,
+                            NotificationType.WARNING);
+                }
                 startPolling(dependency);
                 break;
         }
     }
 
-    private void retryConnection(DependencyInfo dependency) {
-        String key = dependency.getPackageName() + ":" + dependency.getPackageManager();
-        
-        // Cancel any existing polling
-        ScheduledFuture<?> existingTask = pollingTasks.get(key);
-        if (existingTask != null) {
-            existingTask.cancel(false);
+    /**
+     * Apply an answer from the server. Unlike a local answer it may take back a final
+     * verdict: an allowlist false positive, a policy snapshot or cached verdict that is
+     * out of date, or an approval revoked since. The package then shows as undecided
+     * again and is polled until the server decides.
+     */
+    private void handleServerResponse(DependencyInfo dependency, RepoGateApiClient.DependencyResponse response) {
+        DependencyInfo.ApprovalStatus status = response.getApprovalStatus();
+        DependencyInfo.ApprovalStatus previous = dependency.getStatus();
+        if (status == DependencyInfo.ApprovalStatus.APPROVED || status == DependencyInfo.ApprovalStatus.DENIED ||
+                !stateStore.overturn(dependency, status, response.getMessage())) {
+            handleDependencyResponse(dependency, response);
+            return;
         }
 
-        final int[] retryCount = {0};
-        final int maxRetries = 30; // 5 minutes (30 * 10 seconds)
+        traceVerdict(dependency, status, previous);
+        showNotification("⚠ RepoGate",
+                String.format(previous == DependencyInfo.ApprovalStatus.APPROVED
+                                ? "%s - Package '%s' is not approved yet, wait before using it."
+                                : "%s - Package '%s' is being reviewed again.",
+                        response.getMessage(), dependency.getPackageName()),
+                NotificationType.WARNING);
+        startPolling(dependency);
+    }
 
-        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(() -> {
-            retryCount[0]++;
-            
-            if (retryCount[0] > maxRetries) {
-                ScheduledFuture<?> currentTask = pollingTasks.remove(key);
-                if (currentTask != null) {
-                    currentTask.cancel(false);
-                }
-                showNotification("RepoGate: Connection Timeout",
-                        String.format("Could not connect to service after %d attempts. Please check if the service is running.", maxRetries),
-                        NotificationType.WARNING);
-                return;
+    /**
+     * Record a verdict, or a verdict taken back, in the current trace (the flow's, carried through dispatch and polls)
+     */
+    private static void traceVerdict(DependencyInfo dependency, DependencyInfo.ApprovalStatus verdict) {
+        traceVerdict(dependency, verdict, dependency.getStatus());
+    }
+
+    private static void traceVerdict(DependencyInfo dependency, DependencyInfo.ApprovalStatus verdict,
+                                     DependencyInfo.ApprovalStatus previous) {
+        Span span = Tracer.startSpan("dependency.verdict", Span.Kind.INTERNAL);
+        if (span.isRecording()) {
+            span.setAttribute("repogate.package.name", dependency.getPackageName())
+                    .setAttribute("repogate.verdict", verdict.name().toLowerCase())
+                    .setAttribute("repogate.previous", previous.name().toLowerCase());
+            span.end();
+        }
+    }
+
+    private boolean transition(DependencyInfo dependency, DependencyInfo.ApprovalStatus status, String message) {
+        return stateStore.transition(dependency, status, message);
+    }
+
+    /**
+     * Confirm a cached verdict with the server; only notify if it changed
+     */
+    private void revalidate(DependencyInfo dependency, ApprovalStatusCache.CachedStatus cached) {
+        try {
+            RepoGateSettings settings = RepoGateSettings.getInstance();
+            String token = AuthManager.getInstance().getToken();
+            if (token == null) return;
+
+            RepoGateApiClient client = new RepoGateApiClient(settings.getApiUrl(), token);
+            RepoGateApiClient.DependencyResponse response = client.checkDependency(
+                    dependency.getPackageName(),
+                    dependency.getPackageManager(),
+                    dependency.getVersion(),
+                    project.getName(),
+                    GitDetector.isGitRepository(project)
+            );
+
+            rememberStatus(dependency, response);
+            if (response.getApprovalStatus() != cached.getStatus()) {
+                handleServerResponse(dependency, response);
             }
+        } catch (Exception e) {
+            // Keep serving the cached verdict until the server is reachable again
+        }
+    }
 
-            try {
-                RepoGateSettings settings = RepoGateSettings.getInstance();
-                AuthManager authManager = AuthManager.getInstance();
-                String token = authManager.getToken();
-                if (token == null) return;
-                
-                RepoGateApiClient client = new RepoGateApiClient(settings.getApiUrl(), token);
-                String projectName = project.getName();
-                String filePath = dependency.getFilePath() != null ? dependency.getFilePath() : "";
-                boolean isGitRepo = GitDetector.isGitRepository(project);
-                
-                RepoGateApiClient.DependencyResponse response = client.requestDependency(
-                        dependency.getPackageName(),
-                        dependency.getPackageManager(),
-                        dependency.getVersion(),
-                        projectName,
-                        filePath,
-                        isGitRepo
-                );
+    /**
+     * Send a locally decided request to the server; queue it if the server is unreachable
+     */
+    private void confirmWithServer(DependencyInfo dependency, boolean optimistic) {
+        String key = dependency.getKey();
+        try {
+            RepoGateSettings settings = RepoGateSettings.getInstance();
+            String token = AuthManager.getInstance().getToken();
+            if (token == null) {
+                offlineConfirmations.put(key, dependency);
+                return;
+            }
 
-                // Connection successful!
-                if (!isConnected) {
-                    isConnected = true;
-                    showNotification("✓ RepoGate",
-                            "Connected successfully to RepoGate service",
-                            NotificationType.INFORMATION);
+            RepoGateApiClient client = new RepoGateApiClient(settings.getApiUrl(), token);
+            RepoGateApiClient.DependencyResponse response = client.requestDependency(
+                    dependency.getPackageName(),
+                    dependency.getPackageManager(),
+                    dependency.getVersion(),
+                    project.getName(),
+                    dependency.getFilePath() != null ? dependency.getFilePath() : "",
+                    GitDetector.isGitRepository(project)
+            );
+
+            offlineConfirmations.remove(key);
+            markConnected();
+            rememberStatus(dependency, response);
+            if (response.getApprovalStatus() != dependency.getStatus()) {
+                // The snapshot was behind the server, or the allowlist filter gave a false positive
+                if (optimistic) {
+                    ApprovedFilterService.getInstance().recordOverturned();
                 }
+                handleServerResponse(dependency, response);
+            }
+        } catch (Exception e) {
+            isConnected.set(false);
+            offlineConfirmations.put(key, dependency);
+        }
+    }
 
-                // Stop retrying
-                ScheduledFuture<?> currentTask = pollingTasks.remove(key);
-                if (currentTask != null) {
-                    currentTask.cancel(false);
-                }
+    /**
+     * Record a successful server round trip; on reconnect, sync everything decided offline
+     */
+    private void markConnected() {
+        if (!isConnected.compareAndSet(false, true)) {
+            return;
+        }
+        showNotification("✓ RepoGate",
+                "Connected successfully to RepoGate service",
+                NotificationType.INFORMATION);
 
-                // Handle response
-                handleDependencyResponse(dependency, response);
+        PolicySnapshotService.getInstance().refreshAsync();
+        for (DependencyInfo queued : offlineConfirmations.values()) {
+            dispatch(ValidationDispatcher.Priority.BACKGROUND, () -> confirmWithServer(queued, false));
+        }
+    }
 
-            } catch (Exception e) {
-                // Still can't connect, will retry on next interval
-                System.out.println(String.format("RepoGate: Retry %d/%d - still waiting for service...", retryCount[0], maxRetries));
+    private void rememberStatus(DependencyInfo dependency, RepoGateApiClient.DependencyResponse response) {
+        ApprovalStatusCache.getInstance().put(
+                dependency.getPackageManager(),
+                dependency.getPackageName(),
+                dependency.getVersion(),
+                response.getApprovalStatus(),
+                response.getMessage()
+        );
+    }
+
+    private static RepoGateApiClient.DependencyResponse toResponse(ApprovalStatusCache.CachedStatus cached) {
+        RepoGateApiClient.DependencyResponse response = new RepoGateApiClient.DependencyResponse();
+        response.setStatus(cached.getStatus().name().toLowerCase());
+        response.setApproved(cached.getStatus() == DependencyInfo.ApprovalStatus.APPROVED);
+        response.setMessage(cached.getMessage() != null ? cached.getMessage() : "Cached RepoGate verdict");
+        return response;
+    }
+
+    private static RepoGateApiClient.DependencyResponse toResponse(PolicySnapshot.Decision decision) {
+        RepoGateApiClient.DependencyResponse response = new RepoGateApiClient.DependencyResponse();
+        boolean approved = decision == PolicySnapshot.Decision.APPROVED;
+        response.setStatus(approved ? "approved" : decision == PolicySnapshot.Decision.DENIED ? "denied" : "pending");
+        response.setApproved(approved);
+        response.setMessage(approved ? "Allowed by organization policy" : "Blocked by organization policy");
+        return response;
+    }
+
+    private void retryConnection(DependencyInfo dependency) {
+        String key = dependency.getKey();
+        int[] failures = {0};
+
+        // Replaces any polling for this package
+        poller.start(key, POLL_INTERVAL_MS, () -> {
+            String token = AuthManager.getInstance().getToken();
+            if (token == null) return null;
+
+            RepoGateApiClient client = new RepoGateApiClient(RepoGateSettings.getInstance().getApiUrl(), token);
+            String filePath = dependency.getFilePath() != null ? dependency.getFilePath() : "";
+            return client.requestDependency(
+                    dependency.getPackageName(),
+                    dependency.getPackageManager(),
+                    dependency.getVersion(),
+                    project.getName(),
+                    filePath,
+                    GitDetector.isGitRepository(project)
+            );
+        }, new VerdictPoller.Handler() {
+            @Override
+            public boolean onResponse(RepoGateApiClient.DependencyResponse response) {
+                // Connection successful! Stop retrying and handle the answer (which may start polling)
+                markConnected();
+                rememberStatus(dependency, response);
+                handleServerResponse(dependency, response);
+                return true;
             }
-        }, 10, 10, TimeUnit.SECONDS);
 
-        pollingTasks.put(key, task);
+            @Override
+            public boolean onFailure(Exception e) {
+                if (++failures[0] >= MAX_CONNECT_RETRIES) {
+                    showNotification("RepoGate: Connection Timeout",
+                            String.format("Could not connect to service after %d attempts. Please check if the service is running.", MAX_CONNECT_RETRIES),
+                            NotificationType.WARNING);
+                    return true;
+                }
+                // Still can't connect, will retry on next interval
+                LOG.debug(() -> String.format("Retry %d/%d - still waiting for service...", failures[0], MAX_CONNECT_RETRIES));
+                return false;
+            }
+        });
     }
 
     private void startPolling(DependencyInfo dependency) {
-        String key = dependency.getPackageName() + ":" + dependency.getPackageManager();
-        
-        // Cancel any existing polling
-        ScheduledFuture<?> existingTask = pollingTasks.get(key);
-        if (existingTask != null) {
-            existingTask.cancel(false);
-        }
+        String key = dependency.getKey();
+        // Back on the pending list if a local verdict was overturned
+        pendingDependencies.put(key, dependency);
 
-        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(() -> {
-            try {
-                RepoGateSettings settings = RepoGateSettings.getInstance();
-                AuthManager authManager = AuthManager.getInstance();
-                String token = authManager.getToken();
-                if (token == null) return;
-                
-                RepoGateApiClient client = new RepoGateApiClient(settings.getApiUrl(), token);
-                String projectName = project.getName();
-                boolean isGitRepo = GitDetector.isGitRepository(project);
-                
-                RepoGateApiClient.DependencyResponse response = client.checkDependency(
-                        dependency.getPackageName(),
-                        dependency.getPackageManager(),
-                        dependency.getVersion(),
-                        projectName,
-                        isGitRepo
-                );
+        // Replaces any polling for this package
+        poller.start(key, POLL_INTERVAL_MS, () -> {
+            String token = AuthManager.getInstance().getToken();
+            if (token == null) return null;
+
+            RepoGateApiClient client = new RepoGateApiClient(RepoGateSettings.getInstance().getApiUrl(), token);
+            return client.checkDependency(
+                    dependency.getPackageName(),
+                    dependency.getPackageManager(),
+                    dependency.getVersion(),
+                    project.getName(),
+                    GitDetector.isGitRepository(project)
+            );
+        }, new VerdictPoller.Handler() {
+            @Override
+            public boolean onResponse(RepoGateApiClient.DependencyResponse response) {
+                rememberStatus(dependency, response);
+                return handlePollResponse(dependency, key, response);
+            }
 
-                String status = response.getStatus();
-                if (status == null) {
-                    status = response.isApproved() ? "approved" : "pending";
+            @Override
+            public boolean onFailure(Exception e) {
+                if (!isConnected.get()) {
+                    LOG.warn("Lost connection during polling");
                 }
+                return false;
+            }
+        });
+    }
 
-                switch (status.toLowerCase()) {
-                    case "approved":
-                        dependency.setStatus(DependencyInfo.ApprovalStatus.APPROVED);
-                        pendingDependencies.remove(key);
-                        
-                        ScheduledFuture<?> currentTask = pollingTasks.remove(key);
-                        if (currentTask != null) {
-                            currentTask.cancel(false);
-                        }
-
-                        showNotification("✓ RepoGate",
-                                String.format("%s - Package '%s' can now be used.", 
-                                        response.getMessage(), dependency.getPackageName()),
-                                NotificationType.INFORMATION);
-                        break;
-
-                    case "denied":
-                        dependency.setStatus(DependencyInfo.ApprovalStatus.DENIED);
-                        pendingDependencies.remove(key);
-                        
-                        currentTask = pollingTasks.remove(key);
-                        if (currentTask != null) {
-                            currentTask.cancel(false);
-                        }
-
-                        ApplicationManager.getApplication().invokeLater(() -> {
-                            int result = Messages.showYesNoDialog(
-                                    project,
-                                    String.format("%s\n\nPackage '%s' should not be used in production code.",
-                                            response.getMessage(), dependency.getPackageName()),
-                                    "✗ RepoGate: Package Denied",
-                                    "I Understand",
-                                    "Remove It",
-                                    Messages.getErrorIcon()
-                            );
-                            
-                            if (result == Messages.NO) {
-                                showNotification("RepoGate",
-                                        "Please manually remove the dependency from your configuration file.",
-                                        NotificationType.INFORMATION);
-                            }
-                        });
-                        break;
-
-                    case "pending":
-                        // Still pending, continue polling
-                        dependency.setStatus(DependencyInfo.ApprovalStatus.PENDING);
-                        break;
-
-                    case "scanning":
-                        // Still scanning, continue polling
-                        dependency.setStatus(DependencyInfo.ApprovalStatus.SCANNING);
-                        break;
-
-                    case "not_found":
-                        // Package not found, continue polling in case it gets added
-                        dependency.setStatus(DependencyInfo.ApprovalStatus.NOT_FOUND);
-                        break;
+    /**
+     * @return true once the package has a final verdict
+     */
+    private boolean handlePollResponse(DependencyInfo dependency, String key, RepoGateApiClient.DependencyResponse response) {
+        switch (response.getApprovalStatus()) {
+            case APPROVED:
+                pendingDependencies.remove(key);
+                traceVerdict(dependency, DependencyInfo.ApprovalStatus.APPROVED);
+
+                if (transition(dependency, DependencyInfo.ApprovalStatus.APPROVED, response.getMessage())) {
+                    showNotification("✓ RepoGate",
+                            String.format("%s - Package '%s' can now be used.", 
+                                    response.getMessage(), dependency.getPackageName()),
+                            NotificationType.INFORMATION);
                 }
+                return true;
 
-            } catch (Exception e) {
-                if (!isConnected) {
-                    System.err.println("RepoGate: Lost connection during polling");
+            case DENIED:
+                pendingDependencies.remove(key);
+                traceVerdict(dependency, DependencyInfo.ApprovalStatus.DENIED);
+
+                if (!transition(dependency, DependencyInfo.ApprovalStatus.DENIED, response.getMessage())) {
+                    return true;
                 }
-            }
-        }, 10, 10, TimeUnit.SECONDS);
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    int result = Messages.showYesNoDialog(
+                            project,
+                            String.format("%s\n\nPackage '%s' should not be used in production code.",
+                                    response.getMessage(), dependency.getPackageName()),
+                            "✗ RepoGate: Package Denied",
+                            "I Understand",
+                            "Remove It",
+                            Messages.getErrorIcon()
+                    );
+                    
+                    if (result == Messages.NO) {
+                        showNotification("RepoGate",
+                                "Please manually remove the dependency from your configuration file.",
+                                NotificationType.INFORMATION);
+                    }
+                });
+                return true;
+
+            case SCANNING:
+                // Still scanning, continue polling
+                transition(dependency, DependencyInfo.ApprovalStatus.SCANNING, response.getMessage());
+                return false;
+
+            case NOT_FOUND:
+                // Package not found, continue polling in case it gets added
+                transition(dependency, DependencyInfo.ApprovalStatus.NOT_FOUND, response.getMessage());
+                return false;
+
+            default:
+                // Still pending, continue polling
+                transition(dependency, DependencyInfo.ApprovalStatus.PENDING, response.getMessage());
+                return false;
+        }
+    }
+
+    /**
+     * Stop following a package that is no longer declared: its polling, queued
+     * confirmation and state store entry go away
+     */
+    public void forget(String packageName, String packageManager) {
+        String key = DependencyInfo.keyOf(packageName, packageManager);
+        poller.stop(key);
+        pendingDependencies.remove(key);
+        offlineConfirmations.remove(key);
+        stateStore.untrack(key);
+    }
+
+    /**
+     * When each polled package ("name:manager") is checked next, as epoch millis
+     */
+    public Map<String, Long> getNextPollTimes() {
+        return poller.getNextPollTimes();
+    }
+
+    /**
+     * Whether the last server round trip succeeded
+     */
+    public boolean isConnected() {
+        return isConnected.get();
+    }
 
-        pollingTasks.put(key, task);
+    /**
+     * Locally decided requests waiting to be sent once the server is reachable
+     */
+    public int getOfflineQueueSize() {
+        return offlineConfirmations.size();
     }
 
     private void showNotification(String title, String content, NotificationType type) {
-        ApplicationManager.getApplication().invokeLater(() -> {
-            Notification notification = NotificationGroupManager.getInstance()
-                    .getNotificationGroup("RepoGate Notifications")
-                    .createNotification(title, content, type);
-            Notifications.Bus.notify(notification, project);
-        });
+        // Batched per project so bulk changes don't flood the EDT with balloons
+        NotificationAggregator.getInstance(project).post(title, content, type);
     }
 
-    public void dispose() {
-        // Cancel all polling tasks
-        for (ScheduledFuture<?> task : pollingTasks.values()) {
-            task.cancel(false);
+    private List<PendingValidationState.Entry> collectPending() {
+        List<PendingValidationState.Entry> pending = new ArrayList<>(unrestored);
+        for (DependencyInfo dependency : pendingDependencies.values()) {
+            DependencyInfo.ApprovalStatus status = dependency.getStatus();
+            if (status != DependencyInfo.ApprovalStatus.APPROVED && status != DependencyInfo.ApprovalStatus.DENIED) {
+                pending.add(new PendingValidationState.Entry(dependency.getPackageName(),
+                        dependency.getPackageManager(), dependency.getVersion(), dependency.getFilePath()));
+            }
         }
-        pollingTasks.clear();
+        return pending;
+    }
+
+    @Override
+    public void dispose() {
+        // The workspace was saved (with the pending list) before services are disposed
+        pendingState.setSource(null);
+
+        // Cancel all polling tasks; the scheduler itself is shared and stays up
+        poller.stopAll();
+        ValidationDispatcher.getInstance().cancel(project);
         pendingDependencies.clear();
-        scheduler.shutdown();
+        offlineConfirmations.clear();
     }
 }
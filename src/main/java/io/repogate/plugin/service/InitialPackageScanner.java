@@ -12,18 +12,22 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.search.FilenameIndex;
 import com.intellij.psi.search.GlobalSearchScope;
 import io.repogate.plugin.api.RepoGateApiClient;
+import io.repogate.plugin.logging.RepoGateLogger;
 import io.repogate.plugin.model.DependencyInfo;
 import io.repogate.plugin.parser.*;
 import io.repogate.plugin.settings.RepoGateSettings;
+import io.repogate.plugin.utils.ManifestReader;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class InitialPackageScanner {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(InitialPackageScanner.class);
+
     private static final String SCAN_COMPLETED_KEY = "repogate.initialScanCompleted";
     private final Project project;
     private final List<DependencyParser> parsers;
+    private volatile ScanMetrics lastScanMetrics;
 
     public InitialPackageScanner(Project project) {
         this.project = project;
@@ -40,7 +44,7 @@ public class InitialPackageScanner {
         boolean scanCompleted = props.getBoolean(SCAN_COMPLETED_KEY, false);
         
         if (scanCompleted) {
-            System.out.println("RepoGate: Initial scan already completed, skipping...");
+            LOG.info("Initial scan already completed, skipping...");
             return;
         }
 
@@ -48,17 +52,17 @@ public class InitialPackageScanner {
         io.repogate.plugin.auth.AuthManager authManager = io.repogate.plugin.auth.AuthManager.getInstance();
         
         if (!settings.isEnabled() || !authManager.isAuthenticated()) {
-            System.out.println("RepoGate: Skipping initial scan - not authenticated");
+            LOG.info("Skipping initial scan - not authenticated");
             return;
         }
         
         String apiToken = authManager.getToken();
         if (apiToken == null || apiToken.isEmpty()) {
-            System.out.println("RepoGate: Skipping initial scan - no valid token");
+            LOG.info("Skipping initial scan - no valid token");
             return;
         }
 
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+        ScanScheduler.getInstance().submit(project, "initial-scan", () -> {
             try {
                 showNotification("RepoGate: Scanning existing packages...", NotificationType.INFORMATION);
                 
@@ -72,22 +76,25 @@ public class InitialPackageScanner {
                             NotificationType.INFORMATION
                     );
                 } else {
-                    System.out.println("RepoGate: No packages found during initial scan");
+                    LOG.info("No packages found during initial scan");
                 }
                 
                 // Mark scan as completed
                 props.setValue(SCAN_COMPLETED_KEY, true);
                 
             } catch (Exception e) {
-                System.err.println("RepoGate: Error during initial scan: " + e.getMessage());
-                e.printStackTrace();
+                LOG.error("Error during initial scan: " + e.getMessage(), e);
             }
         });
     }
 
     private List<RepoGateApiClient.PackageInfo> collectAllPackages() {
-        List<RepoGateApiClient.PackageInfo> allPackages = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
         String projectName = project.getName();
+        PackageDeduplicator deduplicator = new PackageDeduplicator();
+        int manifestCount = 0;
+        // Skip build output, vendored trees, excluded roots and ignored files before reading anything
+        ScanPathFilterService pathFilter = ScanPathFilterService.getInstance(project);
 
         // Find all package.json files
         Collection<VirtualFile> packageJsonFiles = FilenameIndex.getVirtualFilesByName(
@@ -95,11 +102,11 @@ public class InitialPackageScanner {
                 GlobalSearchScope.projectScope(project)
         );
         for (VirtualFile file : packageJsonFiles) {
-            // Skip node_modules
-            if (file.getPath().contains("node_modules")) {
+            if (pathFilter.isExcluded(file)) {
                 continue;
             }
-            allPackages.addAll(parsePackages(file, new NpmDependencyParser(), projectName));
+            parsePackages(file, new NpmDependencyParser(), deduplicator);
+            manifestCount++;
         }
 
         // Find all pom.xml files
@@ -108,7 +115,11 @@ public class InitialPackageScanner {
                 GlobalSearchScope.projectScope(project)
         );
         for (VirtualFile file : pomFiles) {
-            allPackages.addAll(parsePackages(file, new MavenDependencyParser(), projectName));
+            if (pathFilter.isExcluded(file)) {
+                continue;
+            }
+            parsePackages(file, new MavenDependencyParser(), deduplicator);
+            manifestCount++;
         }
 
         // Find all build.gradle files
@@ -117,7 +128,11 @@ public class InitialPackageScanner {
                 GlobalSearchScope.projectScope(project)
         );
         for (VirtualFile file : gradleFiles) {
-            allPackages.addAll(parsePackages(file, new GradleDependencyParser(), projectName));
+            if (pathFilter.isExcluded(file)) {
+                continue;
+            }
+            parsePackages(file, new GradleDependencyParser(), deduplicator);
+            manifestCount++;
         }
 
         // Find all build.gradle.kts files
@@ -126,34 +141,65 @@ public class InitialPackageScanner {
                 GlobalSearchScope.projectScope(project)
         );
         for (VirtualFile file : gradleKtsFiles) {
-            allPackages.addAll(parsePackages(file, new GradleDependencyParser(), projectName));
+            if (pathFilter.isExcluded(file)) {
+                continue;
+            }
+            parsePackages(file, new GradleDependencyParser(), deduplicator);
+            manifestCount++;
+        }
+
+        // Upload each coordinate once, with every manifest that declares it
+        List<RepoGateApiClient.PackageInfo> allPackages = new ArrayList<>(deduplicator.getUniqueCount());
+        for (PackageDeduplicator.Entry entry : deduplicator.getEntries()) {
+            allPackages.add(new RepoGateApiClient.PackageInfo(
+                    entry.getPackageName(),
+                    entry.getVersion(),
+                    entry.getPackageManager(),
+                    projectName,
+                    entry.getSourcePaths()
+            ));
         }
 
+        lastScanMetrics = new ScanMetrics(
+                manifestCount,
+                deduplicator.getRawCount(),
+                deduplicator.getUniqueCount(),
+                System.currentTimeMillis() - startTime
+        );
+        LOG.info("Initial scan metrics - " + lastScanMetrics);
+
         return allPackages;
     }
 
-    private List<RepoGateApiClient.PackageInfo> parsePackages(VirtualFile file, DependencyParser parser, String projectName) {
-        List<RepoGateApiClient.PackageInfo> packages = new ArrayList<>();
-        
+    private void parsePackages(VirtualFile file, DependencyParser parser, PackageDeduplicator deduplicator) {
         try {
-            String content = new String(file.contentsToByteArray(), StandardCharsets.UTF_8);
-            List<DependencyInfo> deps = parser.parseNewDependencies(content, "");
+            List<DependencyInfo> deps = parser.parseDependencies(ManifestReader.read(file));
+            String sourcePath = getProjectRelativePath(file);
             
             for (DependencyInfo dep : deps) {
-                packages.add(new RepoGateApiClient.PackageInfo(
-                        dep.getPackageName(),
-                        dep.getVersion(),
-                        dep.getPackageManager(),
-                        projectName
-                ));
+                deduplicator.add(dep, sourcePath);
             }
             
-            System.out.println("RepoGate: Found " + deps.size() + " packages in " + file.getName());
+            LOG.debug(() -> "Found " + deps.size() + " packages in " + file.getName());
         } catch (IOException e) {
-            System.err.println("RepoGate: Error reading file " + file.getPath() + ": " + e.getMessage());
+            LOG.warn("Error reading file " + file.getPath() + ": " + e.getMessage());
         }
-        
-        return packages;
+    }
+
+    private String getProjectRelativePath(VirtualFile file) {
+        String path = file.getPath();
+        String basePath = project.getBasePath();
+        if (basePath != null && path.startsWith(basePath + "/")) {
+            return path.substring(basePath.length() + 1);
+        }
+        return path;
+    }
+
+    /**
+     * Metrics of the most recent scan, or null if no scan has run
+     */
+    public ScanMetrics getLastScanMetrics() {
+        return lastScanMetrics;
     }
 
     private void queuePackages(List<RepoGateApiClient.PackageInfo> packages) {
@@ -170,10 +216,9 @@ public class InitialPackageScanner {
         try {
             RepoGateApiClient client = new RepoGateApiClient(apiUrl, apiToken);
             client.queuePackages(packages);
-            System.out.println("RepoGate: Successfully queued " + packages.size() + " packages");
+            LOG.info("Successfully queued " + packages.size() + " packages");
         } catch (Exception e) {
-            System.err.println("RepoGate: Failed to queue packages: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Failed to queue packages: " + e.getMessage(), e);
         }
     }
 
@@ -1,69 +1,220 @@
 package io.repogate.plugin.service;
 
-import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.search.FilenameIndex;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import io.repogate.plugin.api.RepoGateApiClient;
+import io.repogate.plugin.logging.RepoGateLogger;
 import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.model.InventoryChange;
+import io.repogate.plugin.model.InventoryDigestResponse;
+import io.repogate.plugin.model.InventoryEntry;
 import io.repogate.plugin.parser.*;
 import io.repogate.plugin.settings.RepoGateSettings;
+import io.repogate.plugin.utils.ManifestReader;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically reports the project's dependency inventory to RepoGate.
+ * The last inventory acknowledged by the server is kept in {@link InventoryState};
+ * each run exchanges digests first and only uploads what changed since then,
+ * falling back to a full snapshot when the server's digest does not match.
+ */
+@Service(Service.Level.PROJECT)
+public final class InventoryReporter implements Disposable {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(InventoryReporter.class);
 
-public class InventoryReporter {
     private final Project project;
-    private final List<DependencyParser> parsers;
-    private boolean inventoryReported = false;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile ScheduledFuture<?> reportTask;
 
     public InventoryReporter(Project project) {
         this.project = project;
-        this.parsers = Arrays.asList(
-                new NpmDependencyParser(),
-                new MavenDependencyParser(),
-                new GradleDependencyParser()
-        );
     }
 
+    public static InventoryReporter getInstance(Project project) {
+        return project.getService(InventoryReporter.class);
+    }
+
+    /**
+     * Start periodic inventory reporting for this project (only the first call has an effect)
+     */
     public void reportInventoryIfNeeded() {
-        if (inventoryReported) {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        int intervalMinutes = RepoGateSettings.getInstance().getInventoryIntervalMinutes();
+        reportTask = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                () -> ScanScheduler.getInstance().submit(project, "inventory", this::reportInventory),
+                0, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    private void reportInventory() {
+        if (project.isDisposed() || !running.compareAndSet(false, true)) {
             return;
         }
 
-        RepoGateSettings settings = RepoGateSettings.getInstance();
-        io.repogate.plugin.auth.AuthManager authManager = io.repogate.plugin.auth.AuthManager.getInstance();
-        
-        if (!settings.isEnabled() || !authManager.isAuthenticated()) {
+        try {
+            RepoGateSettings settings = RepoGateSettings.getInstance();
+            io.repogate.plugin.auth.AuthManager authManager = io.repogate.plugin.auth.AuthManager.getInstance();
+
+            if (!settings.isEnabled() || !authManager.isAuthenticated()) {
+                return;
+            }
+
+            String apiUrl = settings.getApiUrl();
+            String apiToken = authManager.getToken();
+            if (apiUrl == null || apiUrl.isEmpty() || apiToken == null || apiToken.isEmpty()) {
+                return;
+            }
+
+            // Collect dependencies in read action
+            List<InventoryEntry> entries = ReadAction.compute(() -> collectAllDependencies());
+            if (entries == null) {
+                // A manifest is mid-edit; reporting now would send its packages as removed
+                LOG.debug("Inventory skipped, a manifest could not be parsed; retrying next interval");
+                return;
+            }
+            if (entries.isEmpty()) {
+                return;
+            }
+
+            syncInventory(new RepoGateApiClient(apiUrl, apiToken), entries);
+        } catch (Exception e) {
+            LOG.warn("Failed to report inventory: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void syncInventory(RepoGateApiClient client, List<InventoryEntry> entries) throws IOException {
+        InventoryState state = InventoryState.getInstance(project);
+        String projectName = project.getName();
+        String digest = computeDigest(entries);
+        String acknowledgedDigest = state.getAcknowledgedDigest();
+
+        InventoryDigestResponse handshake = client.checkInventoryDigest(projectName, digest);
+        if (handshake == null) {
+            // Server without digest support: only send when the inventory changed locally
+            if (!digest.equals(acknowledgedDigest)) {
+                client.reportInventory(projectName, digest, entries, getDeveloperInfo());
+                state.acknowledge(digest, entries);
+                LOG.info("Reported full inventory of " + entries.size() + " dependencies");
+            }
             return;
         }
-        
-        String apiToken = authManager.getToken();
-        if (apiToken == null || apiToken.isEmpty()) {
+
+        if (handshake.isUpToDate() || digest.equals(handshake.getDigest())) {
+            state.acknowledge(digest, entries);
             return;
         }
 
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
-            try {
-                // Collect dependencies in read action
-                List<DependencyInfo> allDependencies = ReadAction.compute(() -> collectAllDependencies());
-                
-                if (!allDependencies.isEmpty()) {
-                    reportInventory(allDependencies);
-                    inventoryReported = true;
+        if (!acknowledgedDigest.isEmpty() && acknowledgedDigest.equals(handshake.getDigest())) {
+            List<InventoryEntry> added = new ArrayList<>();
+            List<InventoryEntry> removed = new ArrayList<>();
+            List<InventoryChange> changed = new ArrayList<>();
+            diff(state.getAcknowledgedEntries(), entries, added, removed, changed);
+
+            if (client.reportInventoryDelta(projectName, acknowledgedDigest, digest,
+                    added, removed, changed, getDeveloperInfo())) {
+                state.acknowledge(digest, entries);
+                LOG.info(() -> String.format("Reported inventory delta (%d added, %d removed, %d changed)",
+                        added.size(), removed.size(), changed.size()));
+                return;
+            }
+        }
+
+        // Server digest does not match what we last sent - resend everything
+        client.reportInventory(projectName, digest, entries, getDeveloperInfo());
+        state.acknowledge(digest, entries);
+        LOG.info("Reported full inventory of " + entries.size() + " dependencies");
+    }
+
+    /**
+     * Compare two inventories package by package ("manager:name"). A package can be declared
+     * at several versions across manifests: entries of the same version are matched first,
+     * then the remaining ones are paired in version order, so a version bump is reported as
+     * a change. Only what is left unpaired is added or removed.
+     */
+    static void diff(List<InventoryEntry> previous, List<InventoryEntry> current,
+                     List<InventoryEntry> added, List<InventoryEntry> removed, List<InventoryChange> changed) {
+        Map<String, List<InventoryEntry>> previousByKey = groupByKey(previous);
+        for (Map.Entry<String, List<InventoryEntry>> group : groupByKey(current).entrySet()) {
+            List<InventoryEntry> olds = previousByKey.remove(group.getKey());
+            if (olds == null) {
+                added.addAll(group.getValue());
+                continue;
+            }
+
+            List<InventoryEntry> news = new ArrayList<>();
+            for (InventoryEntry entry : group.getValue()) {
+                InventoryEntry sameVersion = removeVersion(olds, entry.version);
+                if (sameVersion == null) {
+                    news.add(entry);
+                } else if (!sameVersion.equals(entry)) {
+                    changed.add(new InventoryChange(sameVersion, entry));
                 }
-            } catch (Exception e) {
-                System.err.println("RepoGate: Error collecting inventory: " + e.getMessage());
-                e.printStackTrace();
             }
-        });
+
+            Comparator<InventoryEntry> byVersion = Comparator.comparing(entry -> entry.version);
+            olds.sort(byVersion);
+            news.sort(byVersion);
+            int paired = Math.min(olds.size(), news.size());
+            for (int i = 0; i < paired; i++) {
+                changed.add(new InventoryChange(olds.get(i), news.get(i)));
+            }
+            added.addAll(news.subList(paired, news.size()));
+            removed.addAll(olds.subList(paired, olds.size()));
+        }
+        for (List<InventoryEntry> olds : previousByKey.values()) {
+            removed.addAll(olds);
+        }
     }
 
-    private List<DependencyInfo> collectAllDependencies() {
-        List<DependencyInfo> allDeps = new ArrayList<>();
+    private static Map<String, List<InventoryEntry>> groupByKey(List<InventoryEntry> entries) {
+        Map<String, List<InventoryEntry>> groups = new LinkedHashMap<>();
+        for (InventoryEntry entry : entries) {
+            groups.computeIfAbsent(entry.getKey(), key -> new ArrayList<>(1)).add(entry);
+        }
+        return groups;
+    }
+
+    private static InventoryEntry removeVersion(List<InventoryEntry> entries, String version) {
+        for (Iterator<InventoryEntry> it = entries.iterator(); it.hasNext(); ) {
+            InventoryEntry entry = it.next();
+            if (entry.version.equals(version)) {
+                it.remove();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return every declared dependency, or null if a manifest could not be parsed
+     */
+    private List<InventoryEntry> collectAllDependencies() {
+        long startTime = System.currentTimeMillis();
+        PackageDeduplicator deduplicator = new PackageDeduplicator();
+        int manifestCount = 0;
+        boolean complete = true;
+        // Skip build output, vendored trees, excluded roots and ignored files before reading anything
+        ScanPathFilterService pathFilter = ScanPathFilterService.getInstance(project);
 
         // Find all package.json files
         Collection<VirtualFile> packageJsonFiles = FilenameIndex.getVirtualFilesByName(
@@ -71,11 +222,11 @@ public class InventoryReporter {
                 GlobalSearchScope.projectScope(project)
         );
         for (VirtualFile file : packageJsonFiles) {
-            // Skip node_modules
-            if (file.getPath().contains("node_modules")) {
+            if (pathFilter.isExcluded(file)) {
                 continue;
             }
-            allDeps.addAll(parseDependencies(file, new NpmDependencyParser()));
+            complete &= parseDependencies(file, new NpmDependencyParser(), deduplicator);
+            manifestCount++;
         }
 
         // Find all pom.xml files
@@ -84,7 +235,11 @@ public class InventoryReporter {
                 GlobalSearchScope.projectScope(project)
         );
         for (VirtualFile file : pomFiles) {
-            allDeps.addAll(parseDependencies(file, new MavenDependencyParser()));
+            if (pathFilter.isExcluded(file)) {
+                continue;
+            }
+            complete &= parseDependencies(file, new MavenDependencyParser(), deduplicator);
+            manifestCount++;
         }
 
         // Find all build.gradle files
@@ -93,7 +248,11 @@ public class InventoryReporter {
                 GlobalSearchScope.projectScope(project)
         );
         for (VirtualFile file : gradleFiles) {
-            allDeps.addAll(parseDependencies(file, new GradleDependencyParser()));
+            if (pathFilter.isExcluded(file)) {
+                continue;
+            }
+            complete &= parseDependencies(file, new GradleDependencyParser(), deduplicator);
+            manifestCount++;
         }
 
         // Find all build.gradle.kts files
@@ -102,48 +261,104 @@ public class InventoryReporter {
                 GlobalSearchScope.projectScope(project)
         );
         for (VirtualFile file : gradleKtsFiles) {
-            allDeps.addAll(parseDependencies(file, new GradleDependencyParser()));
+            if (pathFilter.isExcluded(file)) {
+                continue;
+            }
+            complete &= parseDependencies(file, new GradleDependencyParser(), deduplicator);
+            manifestCount++;
         }
 
-        return allDeps;
+        List<InventoryEntry> allDeps = new ArrayList<>(deduplicator.getUniqueCount());
+        for (PackageDeduplicator.Entry entry : deduplicator.getEntries()) {
+            allDeps.add(new InventoryEntry(
+                    entry.getPackageName(),
+                    entry.getPackageManager(),
+                    entry.getVersion(),
+                    entry.getSourcePaths()
+            ));
+        }
+
+        ScanMetrics metrics = new ScanMetrics(
+                manifestCount,
+                deduplicator.getRawCount(),
+                deduplicator.getUniqueCount(),
+                System.currentTimeMillis() - startTime
+        );
+        LOG.info("Inventory scan metrics - " + metrics);
+
+        return complete ? allDeps : null;
     }
 
-    private List<DependencyInfo> parseDependencies(VirtualFile file, DependencyParser parser) {
+    /**
+     * @return false if the manifest could not be parsed
+     */
+    private boolean parseDependencies(VirtualFile file, DependencyParser parser, PackageDeduplicator deduplicator) {
         try {
-            String content = new String(file.contentsToByteArray(), StandardCharsets.UTF_8);
-            return parser.parseNewDependencies(content, "");
+            String sourcePath = getProjectRelativePath(file);
+            for (DependencyInfo dep : parser.parseDependencies(ManifestReader.read(file))) {
+                deduplicator.add(dep, sourcePath);
+            }
+        } catch (ManifestParseException e) {
+            LOG.debug(() -> "Error parsing " + file.getPath() + ": " + e.getMessage());
+            return false;
         } catch (IOException e) {
-            System.err.println("RepoGate: Error reading file " + file.getPath() + ": " + e.getMessage());
-            return Collections.emptyList();
+            LOG.warn("Error reading file " + file.getPath() + ": " + e.getMessage());
         }
+        return true;
     }
 
-    private void reportInventory(List<DependencyInfo> dependencies) {
-        RepoGateSettings settings = RepoGateSettings.getInstance();
-        io.repogate.plugin.auth.AuthManager authManager = io.repogate.plugin.auth.AuthManager.getInstance();
-        
-        String apiUrl = settings.getApiUrl();
-        String apiToken = authManager.getToken();
+    private String getProjectRelativePath(VirtualFile file) {
+        String path = file.getPath();
+        String basePath = project.getBasePath();
+        if (basePath != null && path.startsWith(basePath + "/")) {
+            return path.substring(basePath.length() + 1);
+        }
+        return path;
+    }
 
-        if (apiUrl == null || apiUrl.isEmpty() || apiToken == null || apiToken.isEmpty()) {
-            return;
+    private Map<String, String> getDeveloperInfo() throws IOException {
+        Map<String, String> developerInfo = new HashMap<>();
+        developerInfo.put("username", System.getProperty("user.name"));
+        developerInfo.put("hostname", java.net.InetAddress.getLocalHost().getHostName());
+        developerInfo.put("os", System.getProperty("os.name"));
+        developerInfo.put("projectName", project.getName());
+        developerInfo.put("ideVersion", com.intellij.openapi.application.ApplicationInfo.getInstance().getFullVersion());
+        return developerInfo;
+    }
+
+    /**
+     * Order-independent SHA-256 digest of an inventory
+     */
+    static String computeDigest(List<InventoryEntry> entries) {
+        List<String> lines = new ArrayList<>(entries.size());
+        for (InventoryEntry entry : entries) {
+            List<String> paths = new ArrayList<>(entry.paths);
+            Collections.sort(paths);
+            lines.add(entry.getKey() + "@" + entry.version + "\t" + String.join(",", paths));
         }
+        Collections.sort(lines);
 
         try {
-            RepoGateApiClient client = new RepoGateApiClient(apiUrl, apiToken);
-            
-            Map<String, String> developerInfo = new HashMap<>();
-            developerInfo.put("username", System.getProperty("user.name"));
-            developerInfo.put("hostname", java.net.InetAddress.getLocalHost().getHostName());
-            developerInfo.put("os", System.getProperty("os.name"));
-            developerInfo.put("projectName", project.getName());
-            developerInfo.put("ideVersion", com.intellij.openapi.application.ApplicationInfo.getInstance().getFullVersion());
-            
-            client.reportInventory(dependencies, developerInfo);
-            System.out.println("RepoGate: Reported inventory of " + dependencies.size() + " dependencies");
-        } catch (Exception e) {
-            System.err.println("RepoGate: Failed to report inventory: " + e.getMessage());
-            e.printStackTrace();
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (String line : lines) {
+                sha256.update(line.getBytes(StandardCharsets.UTF_8));
+                sha256.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : sha256.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        ScheduledFuture<?> task = reportTask;
+        if (task != null) {
+            task.cancel(false);
         }
     }
 }
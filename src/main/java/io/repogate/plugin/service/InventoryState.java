@@ -0,0 +1,55 @@
+package io.repogate.plugin.service;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import io.repogate.plugin.model.InventoryEntry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Last inventory acknowledged by the RepoGate server for a project.
+ * Stored in the workspace file so deltas survive IDE restarts.
+ */
+@Service(Service.Level.PROJECT)
+@State(
+        name = "io.repogate.plugin.service.InventoryState",
+        storages = @Storage(StoragePathMacros.WORKSPACE_FILE)
+)
+public final class InventoryState implements PersistentStateComponent<InventoryState> {
+    public String acknowledgedDigest = "";
+    public List<InventoryEntry> acknowledgedEntries = new ArrayList<>();
+
+    public static InventoryState getInstance(Project project) {
+        return project.getService(InventoryState.class);
+    }
+
+    @Override
+    public InventoryState getState() {
+        return this;
+    }
+
+    @Override
+    public void loadState(@NotNull InventoryState state) {
+        XmlSerializerUtil.copyBean(state, this);
+    }
+
+    public synchronized String getAcknowledgedDigest() {
+        return acknowledgedDigest;
+    }
+
+    public synchronized List<InventoryEntry> getAcknowledgedEntries() {
+        return new ArrayList<>(acknowledgedEntries);
+    }
+
+    public synchronized void acknowledge(String digest, List<InventoryEntry> entries) {
+        this.acknowledgedDigest = digest;
+        this.acknowledgedEntries = new ArrayList<>(entries);
+    }
+}
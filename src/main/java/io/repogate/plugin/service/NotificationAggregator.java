@@ -0,0 +1,195 @@
+package io.repogate.plugin.service;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationAction;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.repogate.plugin.metrics.Counter;
+import io.repogate.plugin.metrics.LatencyHistogram;
+import io.repogate.plugin.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batches per-dependency notifications of a project into short time windows.
+ * A window with only a few events shows them as-is; a larger burst (pasting many
+ * dependencies, switching branches) collapses into one summary balloon with a
+ * "Show details" action. Each window costs at most one EDT dispatch.
+ */
+@Service(Service.Level.PROJECT)
+public final class NotificationAggregator implements Disposable {
+    private static final long WINDOW_MS = 1500;
+    private static final int MAX_INDIVIDUAL = 3;
+    private static final Counter POSTED = Metrics.counter("notifications.posted");
+    private static final Counter SHOWN = Metrics.counter("notifications.shown");
+    private static final LatencyHistogram EDT_TIME = Metrics.histogram("notifications.edt");
+
+    private final Project project;
+    private final ConcurrentLinkedQueue<Event> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final AtomicLong eventCount = new AtomicLong();
+    private final AtomicLong dispatchCount = new AtomicLong();
+    private final AtomicLong edtNanos = new AtomicLong();
+    private volatile ScheduledFuture<?> flushTask;
+    private volatile boolean disposed = false;
+
+    public NotificationAggregator(Project project) {
+        this.project = project;
+    }
+
+    public static NotificationAggregator getInstance(Project project) {
+        return project.getService(NotificationAggregator.class);
+    }
+
+    /**
+     * Queue a notification; it is shown (or summarized) when the current window closes
+     */
+    public void post(String title, String content, NotificationType type) {
+        if (disposed) {
+            return;
+        }
+        queue.add(new Event(title, content, type));
+        eventCount.incrementAndGet();
+        POSTED.increment();
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushTask = AppExecutorUtil.getAppScheduledExecutorService().schedule(
+                    this::flush, WINDOW_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<Event> events = new ArrayList<>();
+        Event event;
+        while ((event = queue.poll()) != null) {
+            events.add(event);
+        }
+        if (events.isEmpty() || disposed) {
+            return;
+        }
+
+        // Build everything off the EDT; the dispatched runnable only hands notifications to the bus
+        List<Notification> notifications = events.size() <= MAX_INDIVIDUAL
+                ? createIndividual(events)
+                : List.of(createSummary(events));
+
+        dispatchCount.incrementAndGet();
+        ApplicationManager.getApplication().invokeLater(() -> {
+            long start = System.nanoTime();
+            for (Notification notification : notifications) {
+                Notifications.Bus.notify(notification, project);
+            }
+            long elapsed = System.nanoTime() - start;
+            edtNanos.addAndGet(elapsed);
+            EDT_TIME.recordNanos(elapsed);
+            SHOWN.add(notifications.size());
+        }, project.getDisposed());
+    }
+
+    private List<Notification> createIndividual(List<Event> events) {
+        List<Notification> notifications = new ArrayList<>(events.size());
+        for (Event event : events) {
+            notifications.add(group().createNotification(event.title, event.content, event.type));
+        }
+        return notifications;
+    }
+
+    private Notification createSummary(List<Event> events) {
+        // Count by headline, e.g. "✓ RepoGate" x 12, "✗ RepoGate" x 2
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        NotificationType worst = NotificationType.INFORMATION;
+        StringBuilder details = new StringBuilder();
+        for (Event event : events) {
+            counts.merge(event.title, 1, Integer::sum);
+            worst = worse(worst, event.type);
+            details.append(event.title).append(": ").append(event.content).append('\n');
+        }
+
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(entry.getValue()).append(" × ").append(entry.getKey());
+        }
+
+        String title = "RepoGate: " + events.size() + " dependency updates";
+        Notification notification = group().createNotification(title, summary.toString(), worst);
+        String detailsText = details.toString();
+        notification.addAction(NotificationAction.createSimple("Show details",
+                () -> Messages.showInfoMessage(project, detailsText, title)));
+        return notification;
+    }
+
+    private static NotificationType worse(NotificationType a, NotificationType b) {
+        if (a == NotificationType.ERROR || b == NotificationType.ERROR) {
+            return NotificationType.ERROR;
+        }
+        if (a == NotificationType.WARNING || b == NotificationType.WARNING) {
+            return NotificationType.WARNING;
+        }
+        return NotificationType.INFORMATION;
+    }
+
+    private static com.intellij.notification.NotificationGroup group() {
+        return NotificationGroupManager.getInstance().getNotificationGroup("RepoGate Notifications");
+    }
+
+    /**
+     * Notifications posted so far
+     */
+    public long getEventCount() {
+        return eventCount.get();
+    }
+
+    /**
+     * EDT runnables scheduled so far (at most one per window)
+     */
+    public long getDispatchCount() {
+        return dispatchCount.get();
+    }
+
+    /**
+     * Total time spent on the EDT delivering notifications, in nanoseconds
+     */
+    public long getEdtNanos() {
+        return edtNanos.get();
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        ScheduledFuture<?> task = flushTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+        queue.clear();
+    }
+
+    private static final class Event {
+        final String title;
+        final String content;
+        final NotificationType type;
+
+        Event(String title, String content, NotificationType type) {
+            this.title = title;
+            this.content = content != null ? content : "";
+            this.type = type;
+        }
+    }
+}
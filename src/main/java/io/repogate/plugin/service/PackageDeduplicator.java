@@ -0,0 +1,159 @@
+package io.repogate.plugin.service;
+
+import io.repogate.plugin.model.DependencyInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges duplicate package coordinates collected from many manifests
+ * (Maven reactor modules, npm workspaces, multi-project Gradle builds)
+ * so that each (ecosystem, name, version) is uploaded only once, together
+ * with the list of manifests it was found in.
+ */
+public class PackageDeduplicator {
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<Coordinate, Entry> entries = new LinkedHashMap<>();
+    private int rawCount = 0;
+
+    /**
+     * Add a parsed dependency found in the given manifest
+     */
+    public void add(DependencyInfo dependency, String sourcePath) {
+        rawCount++;
+
+        Coordinate coordinate = new Coordinate(
+                intern(dependency.getPackageManager()),
+                intern(dependency.getPackageName()),
+                intern(dependency.getVersion())
+        );
+
+        Entry entry = entries.get(coordinate);
+        if (entry == null) {
+            entry = new Entry(coordinate);
+            entries.put(coordinate, entry);
+        }
+        entry.addSourcePath(intern(sourcePath));
+    }
+
+    /**
+     * Unique packages in first-seen order
+     */
+    public List<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    public int getRawCount() {
+        return rawCount;
+    }
+
+    public int getUniqueCount() {
+        return entries.size();
+    }
+
+    /**
+     * Share of collected coordinates removed as duplicates (0.0 - 1.0)
+     */
+    public double getReductionRatio() {
+        return rawCount == 0 ? 0.0 : 1.0 - ((double) entries.size() / rawCount);
+    }
+
+    private String intern(String value) {
+        if (value == null) {
+            value = "";
+        }
+        String existing = strings.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Package coordinate built from interned strings, so equality checks are
+     * reference comparisons and the hash is computed once.
+     */
+    private static final class Coordinate {
+        private final String packageManager;
+        private final String packageName;
+        private final String version;
+        private final int hash;
+
+        Coordinate(String packageManager, String packageName, String version) {
+            this.packageManager = packageManager;
+            this.packageName = packageName;
+            this.version = version;
+            int h = packageManager.hashCode();
+            h = 31 * h + packageName.hashCode();
+            h = 31 * h + version.hashCode();
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Coordinate)) return false;
+            Coordinate that = (Coordinate) o;
+            return hash == that.hash &&
+                    packageManager == that.packageManager &&
+                    packageName == that.packageName &&
+                    version == that.version;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A unique package and the manifests that declare it
+     */
+    public static final class Entry {
+        private static final String[] NO_PATHS = new String[0];
+
+        private final Coordinate coordinate;
+        private String[] sourcePaths = NO_PATHS;
+        private int sourcePathCount = 0;
+
+        private Entry(Coordinate coordinate) {
+            this.coordinate = coordinate;
+        }
+
+        private void addSourcePath(String path) {
+            if (path.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < sourcePathCount; i++) {
+                if (sourcePaths[i] == path) {
+                    return;
+                }
+            }
+            if (sourcePathCount == sourcePaths.length) {
+                sourcePaths = Arrays.copyOf(sourcePaths, Math.max(2, sourcePathCount * 2));
+            }
+            sourcePaths[sourcePathCount++] = path;
+        }
+
+        public String getPackageName() {
+            return coordinate.packageName;
+        }
+
+        public String getPackageManager() {
+            return coordinate.packageManager;
+        }
+
+        public String getVersion() {
+            return coordinate.version;
+        }
+
+        public List<String> getSourcePaths() {
+            if (sourcePathCount == 0) {
+                return Collections.emptyList();
+            }
+            return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(sourcePaths, sourcePathCount)));
+        }
+    }
+}
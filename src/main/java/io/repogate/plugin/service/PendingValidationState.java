@@ -0,0 +1,86 @@
+package io.repogate.plugin.service;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.xmlb.XmlSerializerUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Dependencies still awaiting a verdict when the project was closed, so polling
+ * resumes when it is reopened. Stored in the workspace file.
+ */
+@Service(Service.Level.PROJECT)
+@State(
+        name = "io.repogate.plugin.service.PendingValidationState",
+        storages = @Storage(StoragePathMacros.WORKSPACE_FILE)
+)
+public final class PendingValidationState implements PersistentStateComponent<PendingValidationState> {
+    public List<Entry> entries = new ArrayList<>();
+    private transient Supplier<List<Entry>> source;
+
+    public static PendingValidationState getInstance(Project project) {
+        return project.getService(PendingValidationState.class);
+    }
+
+    @Override
+    public synchronized PendingValidationState getState() {
+        // Pull the live list on every save, including the one made when the project closes
+        if (source != null) {
+            entries = new ArrayList<>(source.get());
+        }
+        return this;
+    }
+
+    @Override
+    public void loadState(@NotNull PendingValidationState state) {
+        XmlSerializerUtil.copyBean(state, this);
+    }
+
+    /**
+     * Provide the pending entries at save time; pass null to stop
+     */
+    public synchronized void setSource(Supplier<List<Entry>> source) {
+        this.source = source;
+    }
+
+    /**
+     * Whether anything was saved that has not been taken yet
+     */
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Return the saved entries and forget them
+     */
+    public synchronized List<Entry> take() {
+        List<Entry> taken = entries;
+        entries = new ArrayList<>();
+        return taken;
+    }
+
+    public static class Entry {
+        public String packageName;
+        public String packageManager;
+        public String version;
+        public String filePath;
+
+        public Entry() {
+        }
+
+        public Entry(String packageName, String packageManager, String version, String filePath) {
+            this.packageName = packageName;
+            this.packageManager = packageManager;
+            this.version = version;
+            this.filePath = filePath;
+        }
+    }
+}
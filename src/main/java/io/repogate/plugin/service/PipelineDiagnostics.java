@@ -0,0 +1,86 @@
+package io.repogate.plugin.service;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import io.repogate.plugin.auth.AuthManager;
+import io.repogate.plugin.auth.SignInPrompt;
+import io.repogate.plugin.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Low-overhead snapshot API behind the diagnostics view. Reads only cheap state
+ * (the state store snapshot, poll schedules, counters, queue sizes); the sorted entry
+ * list is rebuilt only when the state store version changes, so polling this
+ * every second costs next to nothing with thousands of tracked packages.
+ * Looking does not start anything: a project whose validator was never created
+ * is captured as idle.
+ */
+@Service(Service.Level.PROJECT)
+public final class PipelineDiagnostics {
+    private final Project project;
+    private volatile Sorted sorted = new Sorted(-1, Collections.emptyList());
+
+    public PipelineDiagnostics(Project project) {
+        this.project = project;
+    }
+
+    public static PipelineDiagnostics getInstance(Project project) {
+        return project.getService(PipelineDiagnostics.class);
+    }
+
+    /**
+     * Capture the current state; safe to call from any thread, never blocks
+     */
+    public PipelineSnapshot capture() {
+        // Nothing was validated in this project yet (no manifest change, scan or restore)
+        DependencyValidator validator = project.getServiceIfCreated(DependencyValidator.class);
+        DependencyStateStore store = project.getServiceIfCreated(DependencyStateStore.class);
+        ValidationDispatcher dispatcher = ApplicationManager.getApplication().getServiceIfCreated(ValidationDispatcher.class);
+        ScanScheduler scanScheduler = ApplicationManager.getApplication().getServiceIfCreated(ScanScheduler.class);
+        AuthManager authManager = AuthManager.getInstance();
+
+        DependencyStateStore.Snapshot state = store != null ? store.getSnapshot() : null;
+        return new PipelineSnapshot(
+                validator != null,
+                state != null ? state.getVersion() : 0,
+                state != null ? sortedEntries(state) : Collections.emptyList(),
+                validator != null ? validator.getNextPollTimes() : Collections.emptyMap(),
+                validator != null && validator.isConnected(),
+                validator != null ? validator.getOfflineQueueSize() : 0,
+                SignInPrompt.isPending(),
+                authManager.getTokenExpiresAt(),
+                dispatcher != null ? dispatcher.getQueuedCount() : 0,
+                scanScheduler != null ? scanScheduler.getActiveScanCount() : 0,
+                Metrics.snapshot()
+        );
+    }
+
+    private List<DependencyStateStore.Entry> sortedEntries(DependencyStateStore.Snapshot state) {
+        Sorted current = sorted;
+        if (state.getVersion() == current.version) {
+            return current.entries;
+        }
+        List<DependencyStateStore.Entry> entries = new ArrayList<>(state.getEntries().values());
+        entries.sort(Comparator.comparing((DependencyStateStore.Entry entry) -> entry.getDependency().getPackageName())
+                .thenComparing(entry -> entry.getDependency().getPackageManager()));
+        // Racing callers may both sort; either result is correct for its version
+        current = new Sorted(state.getVersion(), Collections.unmodifiableList(entries));
+        sorted = current;
+        return current.entries;
+    }
+
+    private static final class Sorted {
+        private final long version;
+        private final List<DependencyStateStore.Entry> entries;
+
+        Sorted(long version, List<DependencyStateStore.Entry> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+}
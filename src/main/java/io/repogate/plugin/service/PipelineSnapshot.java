@@ -0,0 +1,110 @@
+package io.repogate.plugin.service;
+
+import io.repogate.plugin.metrics.MetricsSnapshot;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable picture of a project's validation pipeline at one moment, for the
+ * diagnostics view. Built off the EDT by {@link PipelineDiagnostics}.
+ */
+public final class PipelineSnapshot {
+    private final boolean active;
+    private final long stateVersion;
+    private final List<DependencyStateStore.Entry> entries;
+    private final Map<String, Long> nextPollTimes;
+    private final boolean connected;
+    private final int offlineQueueSize;
+    private final boolean signInRequired;
+    private final long tokenExpiresAt;
+    private final int queuedValidations;
+    private final int activeScans;
+    private final MetricsSnapshot metrics;
+
+    PipelineSnapshot(boolean active, long stateVersion, List<DependencyStateStore.Entry> entries,
+                     Map<String, Long> nextPollTimes, boolean connected, int offlineQueueSize, boolean signInRequired,
+                     long tokenExpiresAt, int queuedValidations, int activeScans, MetricsSnapshot metrics) {
+        this.active = active;
+        this.stateVersion = stateVersion;
+        this.entries = entries;
+        this.nextPollTimes = nextPollTimes;
+        this.connected = connected;
+        this.offlineQueueSize = offlineQueueSize;
+        this.signInRequired = signInRequired;
+        this.tokenExpiresAt = tokenExpiresAt;
+        this.queuedValidations = queuedValidations;
+        this.activeScans = activeScans;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Whether the project's validator has started; if not, nothing was validated
+     * here yet and the per-project fields are empty
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Version of the state store the entries were taken from; the entry list is
+     * the same instance as long as this does not change
+     */
+    public long getStateVersion() {
+        return stateVersion;
+    }
+
+    /**
+     * Every tracked dependency, sorted by package name
+     */
+    public List<DependencyStateStore.Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Next check per polled package, keyed by "name:manager", as epoch millis
+     */
+    public Map<String, Long> getNextPollTimes() {
+        return nextPollTimes;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public int getOfflineQueueSize() {
+        return offlineQueueSize;
+    }
+
+    public boolean isSignInRequired() {
+        return signInRequired;
+    }
+
+    /**
+     * Epoch millis, or 0 if the token does not expire or nobody is signed in
+     */
+    public long getTokenExpiresAt() {
+        return tokenExpiresAt;
+    }
+
+    /**
+     * Validation round trips waiting in the dispatcher, all projects
+     */
+    public int getQueuedValidations() {
+        return queuedValidations;
+    }
+
+    /**
+     * Scans queued or running, all projects
+     */
+    public int getActiveScans() {
+        return activeScans;
+    }
+
+    /**
+     * Process-wide metrics: API latencies, in-flight calls, poll tasks
+     */
+    public MetricsSnapshot getMetrics() {
+        return metrics;
+    }
+}
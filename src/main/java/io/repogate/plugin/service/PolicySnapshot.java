@@ -0,0 +1,160 @@
+package io.repogate.plugin.service;
+
+import io.repogate.plugin.model.PolicySnapshotResponse;
+import io.repogate.plugin.utils.BloomFilter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable local copy of the organization's approve/deny policy.
+ * Exact coordinates are held in sorted arrays behind a Bloom filter, so the
+ * common "not listed" answer costs one hash and a few bit checks, and a hit
+ * is confirmed with a binary search. Denied entries win over approved ones.
+ */
+public final class PolicySnapshot {
+    public static final PolicySnapshot EMPTY = new PolicySnapshot(0, new ArrayList<>(), new ArrayList<>(),
+            new ArrayList<>(), new ArrayList<>());
+
+    public enum Decision {
+        APPROVED,
+        DENIED,
+        UNKNOWN
+    }
+
+    private final long version;
+    private final String[] approved;
+    private final String[] denied;
+    private final List<String> approvedPatternSources;
+    private final List<String> deniedPatternSources;
+    private final Pattern[] approvedPatterns;
+    private final Pattern[] deniedPatterns;
+    private final BloomFilter front;
+
+    private PolicySnapshot(long version, Collection<String> approved, Collection<String> denied,
+                           List<String> approvedPatterns, List<String> deniedPatterns) {
+        this.version = version;
+        this.approved = sorted(approved);
+        this.denied = sorted(denied);
+        this.approvedPatternSources = new ArrayList<>(approvedPatterns);
+        this.deniedPatternSources = new ArrayList<>(deniedPatterns);
+        this.approvedPatterns = compile(approvedPatterns);
+        this.deniedPatterns = compile(deniedPatterns);
+        this.front = BloomFilter.create(this.approved.length + this.denied.length, 0.01);
+        for (String coordinate : this.approved) {
+            front.put(coordinate);
+        }
+        for (String coordinate : this.denied) {
+            front.put(coordinate);
+        }
+    }
+
+    public static PolicySnapshot fromResponse(PolicySnapshotResponse response) {
+        return new PolicySnapshot(response.getVersion(), response.getApproved(), response.getDenied(),
+                response.getApprovedPatterns(), response.getDeniedPatterns());
+    }
+
+    /**
+     * Apply a server response: full snapshots replace this one, diffs are merged into it
+     */
+    public PolicySnapshot apply(PolicySnapshotResponse response) {
+        if (response.isFull()) {
+            return fromResponse(response);
+        }
+
+        Set<String> removed = new LinkedHashSet<>(response.getRemoved());
+        Set<String> newApproved = merge(Arrays.asList(approved), response.getApproved(), removed);
+        Set<String> newDenied = merge(Arrays.asList(denied), response.getDenied(), removed);
+        Set<String> newApprovedPatterns = merge(approvedPatternSources, response.getApprovedPatterns(), removed);
+        Set<String> newDeniedPatterns = merge(deniedPatternSources, response.getDeniedPatterns(), removed);
+
+        return new PolicySnapshot(response.getVersion(), newApproved, newDenied,
+                new ArrayList<>(newApprovedPatterns), new ArrayList<>(newDeniedPatterns));
+    }
+
+    /**
+     * Decide a package from the snapshot alone
+     */
+    public Decision lookup(String ecosystem, String name, String version) {
+        String coordinate = ecosystem + ":" + name;
+        String versioned = version != null && !version.isEmpty() ? coordinate + "@" + version : null;
+
+        if (contains(denied, versioned) || contains(denied, coordinate) || matchesAny(deniedPatterns, coordinate)) {
+            return Decision.DENIED;
+        }
+        if (contains(approved, versioned) || contains(approved, coordinate) || matchesAny(approvedPatterns, coordinate)) {
+            return Decision.APPROVED;
+        }
+        return Decision.UNKNOWN;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return approved.length == 0 && denied.length == 0 &&
+                approvedPatterns.length == 0 && deniedPatterns.length == 0;
+    }
+
+    /**
+     * Convert back to a full response, for persisting
+     */
+    public PolicySnapshotResponse toResponse() {
+        PolicySnapshotResponse response = new PolicySnapshotResponse();
+        response.setVersion(version);
+        response.setFull(true);
+        response.setApproved(new ArrayList<>(Arrays.asList(approved)));
+        response.setDenied(new ArrayList<>(Arrays.asList(denied)));
+        response.setApprovedPatterns(new ArrayList<>(approvedPatternSources));
+        response.setDeniedPatterns(new ArrayList<>(deniedPatternSources));
+        return response;
+    }
+
+    private boolean contains(String[] sortedCoordinates, String coordinate) {
+        return coordinate != null && front.mightContain(coordinate) &&
+                Arrays.binarySearch(sortedCoordinates, coordinate) >= 0;
+    }
+
+    private static boolean matchesAny(Pattern[] patterns, String coordinate) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(coordinate).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> merge(Collection<String> current, Collection<String> added, Set<String> removed) {
+        Set<String> merged = new LinkedHashSet<>(current);
+        merged.removeAll(removed);
+        merged.addAll(added);
+        return merged;
+    }
+
+    private static String[] sorted(Collection<String> values) {
+        String[] array = values.toArray(new String[0]);
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static Pattern[] compile(List<String> globs) {
+        Pattern[] patterns = new Pattern[globs.size()];
+        for (int i = 0; i < globs.size(); i++) {
+            StringBuilder regex = new StringBuilder();
+            for (String part : globs.get(i).split("\\*", -1)) {
+                if (regex.length() > 0) {
+                    regex.append(".*");
+                }
+                regex.append(Pattern.quote(part));
+            }
+            patterns[i] = Pattern.compile(regex.toString());
+        }
+        return patterns;
+    }
+}
@@ -0,0 +1,219 @@
+package io.repogate.plugin.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.repogate.plugin.api.RepoGateApiClient;
+import io.repogate.plugin.auth.AuthManager;
+import io.repogate.plugin.auth.CacheScope;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.metrics.Counter;
+import io.repogate.plugin.metrics.Metrics;
+import io.repogate.plugin.model.PolicySnapshotResponse;
+import io.repogate.plugin.settings.RepoGateSettings;
+import io.repogate.plugin.utils.Json;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps a local copy of the organization policy so approve/deny decisions can be
+ * made without a network round trip, including while offline. The snapshot is
+ * persisted to the IDE system directory and refreshed periodically by diff.
+ * <p>
+ * The snapshot is kept together with the {@link CacheScope} it was fetched for and
+ * only answers lookups for that scope, so another account or API URL never sees it.
+ */
+@Service
+public final class PolicySnapshotService implements Disposable {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(PolicySnapshotService.class);
+
+    private static final long REFRESH_INTERVAL_MINUTES = 15;
+    private static final String FILE_NAME = "policy-snapshot.json";
+    private static final Counter HIT = Metrics.counter("cache.policySnapshot.hit");
+    private static final Counter MISS = Metrics.counter("cache.policySnapshot.miss");
+
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final ScheduledFuture<?> refreshTask;
+    private volatile Held held;
+    // Last scope a lookup asked for, so a scope change schedules one refresh, not one per lookup
+    private volatile String requestedScope;
+
+    public PolicySnapshotService() {
+        ApplicationManager.getApplication().getMessageBus().connect(this)
+                .subscribe(CacheScope.TOPIC, this::forgetScope);
+        this.refreshTask = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                this::refresh, 0, REFRESH_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        AppExecutorUtil.getAppExecutorService().execute(() -> CacheScope.deleteUnscoped(FILE_NAME));
+    }
+
+    public static PolicySnapshotService getInstance() {
+        return ApplicationManager.getApplication().getService(PolicySnapshotService.class);
+    }
+
+    /**
+     * Decide a package from the local snapshot; never blocks
+     */
+    public PolicySnapshot.Decision lookup(String ecosystem, String name, String version) {
+        PolicySnapshot snapshot = snapshotFor(AuthManager.getInstance().getCacheScope());
+        PolicySnapshot.Decision decision = snapshot.lookup(ecosystem, name, version);
+        (decision != PolicySnapshot.Decision.UNKNOWN ? HIT : MISS).increment();
+        return decision;
+    }
+
+    public long getVersion() {
+        Held current = held;
+        return current != null ? current.snapshot.getVersion() : 0;
+    }
+
+    /**
+     * The snapshot of the scope, empty (and a refresh scheduled) if the one held is another scope's
+     */
+    private PolicySnapshot snapshotFor(@Nullable String scope) {
+        if (scope == null) {
+            return PolicySnapshot.EMPTY;
+        }
+        Held current = held;
+        if (current != null && current.scope.equals(scope)) {
+            return current.snapshot;
+        }
+        if (!scope.equals(requestedScope)) {
+            requestedScope = scope;
+            refreshAsync();
+        }
+        return PolicySnapshot.EMPTY;
+    }
+
+    /**
+     * The account signed out or was replaced; its file is being deleted
+     */
+    private void forgetScope(String cleared) {
+        Held current = held;
+        if (current != null && current.scope.equals(cleared)) {
+            held = null;
+        }
+        requestedScope = null;
+    }
+
+    /**
+     * Schedule a refresh now, e.g. after connectivity was restored
+     */
+    public void refreshAsync() {
+        AppExecutorUtil.getAppExecutorService().execute(this::refresh);
+    }
+
+    private void refresh() {
+        if (!RepoGateSettings.getInstance().isEnabled() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        String scope = null;
+        try {
+            String token = AuthManager.getInstance().getToken();
+            scope = AuthManager.getInstance().getCacheScope();
+            if (token == null || scope == null) {
+                return;
+            }
+
+            Held current = held;
+            if (current == null || !current.scope.equals(scope)) {
+                // Start from the persisted copy of this scope so the first refresh can be a diff
+                current = new Held(scope, load(scope));
+                held = current;
+            }
+
+            RepoGateApiClient client = new RepoGateApiClient(RepoGateSettings.getInstance().getApiUrl(), token);
+            PolicySnapshotResponse response = client.fetchPolicySnapshot(current.snapshot.getVersion());
+            if (response == null || (!response.isFull() && response.getVersion() == current.snapshot.getVersion())) {
+                return;
+            }
+
+            PolicySnapshot updated = current.snapshot.apply(response);
+            if (held != current) {
+                // Signed out or switched accounts meanwhile
+                return;
+            }
+            held = new Held(scope, updated);
+            save(scope, updated);
+            LOG.info("Policy snapshot updated to version " + updated.getVersion());
+        } catch (Exception e) {
+            // Keep answering from the current snapshot; the next refresh will retry
+            LOG.warn("Failed to refresh policy snapshot: " + e.getMessage());
+        } finally {
+            refreshing.set(false);
+            String requested = requestedScope;
+            if (requested != null && !requested.equals(scope)) {
+                // A lookup asked for another scope while this refresh was running
+                refreshAsync();
+            }
+        }
+    }
+
+    private static Path snapshotFile(String scope) {
+        return CacheScope.directory(scope).resolve(FILE_NAME);
+    }
+
+    private PolicySnapshot load(String scope) {
+        Path snapshotFile = snapshotFile(scope);
+        if (!Files.isRegularFile(snapshotFile)) {
+            return PolicySnapshot.EMPTY;
+        }
+
+        try (Reader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+            PolicySnapshotResponse persisted = Json.gson().fromJson(reader, PolicySnapshotResponse.class);
+            if (persisted != null) {
+                return PolicySnapshot.fromResponse(persisted);
+            }
+        } catch (Exception e) {
+            LOG.warn("Failed to load policy snapshot: " + e.getMessage());
+        }
+        return PolicySnapshot.EMPTY;
+    }
+
+    private void save(String scope, PolicySnapshot toSave) {
+        Path snapshotFile = snapshotFile(scope);
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+            Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                Json.gson().toJson(toSave.toResponse(), writer);
+            }
+            if (!scope.equals(AuthManager.getInstance().getCacheScope())) {
+                // Signed out or switched accounts while writing; don't bring the scope back
+                Files.deleteIfExists(tempFile);
+                return;
+            }
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOG.warn("Failed to save policy snapshot: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void dispose() {
+        refreshTask.cancel(false);
+    }
+
+    /**
+     * A snapshot together with the scope it belongs to
+     */
+    private static final class Held {
+        final String scope;
+        final PolicySnapshot snapshot;
+
+        Held(String scope, PolicySnapshot snapshot) {
+            this.scope = scope;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.repogate.plugin.service;
+
+/**
+ * Summary of a single manifest scan
+ */
+public class ScanMetrics {
+    private final int manifestsScanned;
+    private final int packagesFound;
+    private final int uniquePackages;
+    private final long durationMs;
+
+    public ScanMetrics(int manifestsScanned, int packagesFound, int uniquePackages, long durationMs) {
+        this.manifestsScanned = manifestsScanned;
+        this.packagesFound = packagesFound;
+        this.uniquePackages = uniquePackages;
+        this.durationMs = durationMs;
+    }
+
+    public int getManifestsScanned() {
+        return manifestsScanned;
+    }
+
+    public int getPackagesFound() {
+        return packagesFound;
+    }
+
+    public int getUniquePackages() {
+        return uniquePackages;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * Share of collected packages removed as duplicates (0.0 - 1.0)
+     */
+    public double getReductionRatio() {
+        return packagesFound == 0 ? 0.0 : 1.0 - ((double) uniquePackages / packagesFound);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d manifests, %d packages found, %d unique (%.1f%% duplicates removed) in %d ms",
+                manifestsScanned, packagesFound, uniquePackages, getReductionRatio() * 100, durationMs);
+    }
+}
@@ -0,0 +1,283 @@
+package io.repogate.plugin.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.messages.MessageBusConnection;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.settings.RepoGateSettings;
+import io.repogate.plugin.utils.PathFilter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-project {@link PathFilter} shared by the file listener and both scanners.
+ * Built from the project's excluded roots, every .gitignore in the project and the
+ * exclude patterns in {@link RepoGateSettings}, and rebuilt only when one of those
+ * changes. .gitignore edits are picked up from VFS events, so a cache hit touches
+ * neither the disk nor the index.
+ * <p>
+ * Rebuilding looks up and reads every .gitignore, so it never happens on the EDT: the
+ * file listener runs there, inside the VFS write action, and keeps getting answers
+ * from the previous filter while a non-blocking read action builds the new one.
+ */
+@Service(Service.Level.PROJECT)
+public final class ScanPathFilterService implements Disposable {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(ScanPathFilterService.class);
+    private static final String GITIGNORE = ".gitignore";
+
+    private final Project project;
+    // Bumped for every VFS event that may add, change or drop a .gitignore
+    private final AtomicLong gitignoreStamp = new AtomicLong();
+    private volatile CachedFilter cached;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+
+    public ScanPathFilterService(Project project) {
+        this.project = project;
+        MessageBusConnection connection = project.getMessageBus().connect(this);
+        connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                for (VFileEvent event : events) {
+                    if (affectsGitignore(event)) {
+                        gitignoreStamp.incrementAndGet();
+                        scheduleRebuild();
+                        return;
+                    }
+                }
+            }
+        });
+        connection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull ModuleRootEvent event) {
+                scheduleRebuild();
+            }
+        });
+        // Nested .gitignore files can only be found once indexing is done
+        connection.subscribe(DumbService.DUMB_MODE, new DumbService.DumbModeListener() {
+            @Override
+            public void exitDumbMode() {
+                scheduleRebuild();
+            }
+        });
+    }
+
+    public static ScanPathFilterService getInstance(Project project) {
+        return project.getService(ScanPathFilterService.class);
+    }
+
+    /**
+     * Check whether a manifest should be skipped, without reading its content.
+     * On the EDT this answers from the last filter built; scanners get an up-to-date one.
+     */
+    public boolean isExcluded(VirtualFile file) {
+        PathFilter filter = ApplicationManager.getApplication().isDispatchThread() ? getLastFilter() : getFilter();
+        return filter.isExcluded(file.getPath());
+    }
+
+    /**
+     * The filter for the current roots, .gitignore files and settings, built on the
+     * calling thread if needed; don't call on the EDT
+     */
+    public PathFilter getFilter() {
+        CachedFilter current = cached;
+        if (current != null && current.isUpToDate(this)) {
+            return current.filter;
+        }
+        current = ReadAction.compute(this::build);
+        cached = current;
+        return current.filter;
+    }
+
+    /**
+     * The last filter built, scheduling a rebuild if it is out of date. Before the first
+     * build only the settings patterns apply.
+     */
+    private PathFilter getLastFilter() {
+        CachedFilter current = cached;
+        if (current != null && current.isUpToDate(this)) {
+            return current.filter;
+        }
+        scheduleRebuild();
+        if (current != null) {
+            return current.filter;
+        }
+        PathFilter bootstrap = new PathFilter(project.getBasePath());
+        addPatterns(bootstrap, RepoGateSettings.getInstance().getExcludePatterns());
+        return bootstrap;
+    }
+
+    private void scheduleRebuild() {
+        if (project.isDisposed() || !rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        // Restarted if a write action comes in, so it never holds one up
+        ReadAction.nonBlocking(this::build)
+                .expireWith(this)
+                .submit(AppExecutorUtil.getAppExecutorService())
+                .onProcessed(built -> {
+                    rebuildScheduled.set(false);
+                    if (built == null) {
+                        return;
+                    }
+                    cached = built;
+                    if (!built.isUpToDate(this)) {
+                        // Something changed again while building
+                        scheduleRebuild();
+                    }
+                });
+    }
+
+    /**
+     * Must be called in a read action
+     */
+    private CachedFilter build() {
+        // Stamps first: a change racing with the build makes the result look stale, never current
+        long rootsStamp = ProjectRootManager.getInstance(project).getModificationCount();
+        long ignoreStamp = gitignoreStamp.get();
+        String patterns = RepoGateSettings.getInstance().getExcludePatterns();
+        boolean dumb = DumbService.isDumb(project);
+
+        PathFilter filter = new PathFilter(project.getBasePath());
+        boolean complete = addProjectRules(filter, dumb);
+        addPatterns(filter, patterns);
+        return new CachedFilter(filter, rootsStamp, ignoreStamp, patterns, complete);
+    }
+
+    private static void addPatterns(PathFilter filter, String patterns) {
+        for (String pattern : patterns.split("[,\\n]")) {
+            filter.addPattern(pattern);
+        }
+    }
+
+    /**
+     * Add the excluded roots and .gitignore rules
+     * @return false if nested .gitignore files could not be looked up because indexing is running
+     */
+    private boolean addProjectRules(PathFilter filter, boolean dumb) {
+        if (project.isDisposed()) {
+            return false;
+        }
+        for (Module module : ModuleManager.getInstance(project).getModules()) {
+            for (String url : ModuleRootManager.getInstance(module).getExcludeRootUrls()) {
+                filter.addExcludedRoot(VfsUtilCore.urlToPath(url));
+            }
+        }
+
+        List<VirtualFile> gitignores = new ArrayList<>();
+        if (dumb) {
+            String basePath = project.getBasePath();
+            VirtualFile root = basePath != null
+                    ? LocalFileSystem.getInstance().findFileByPath(basePath + "/" + GITIGNORE) : null;
+            if (root != null) {
+                gitignores.add(root);
+            }
+        } else {
+            Collection<VirtualFile> found = FilenameIndex.getVirtualFilesByName(
+                    GITIGNORE, GlobalSearchScope.projectScope(project));
+            gitignores.addAll(found);
+            // A directory sorts before everything below it, so deeper files add their rules
+            // later and win, as in git
+            gitignores.sort(Comparator.comparing(VirtualFile::getPath));
+        }
+
+        for (VirtualFile gitignore : gitignores) {
+            ProgressManager.checkCanceled();
+            VirtualFile directory = gitignore.getParent();
+            if (directory == null || gitignore.isDirectory()) {
+                continue;
+            }
+            try {
+                filter.addIgnoreRules(directory.getPath(),
+                        new String(gitignore.contentsToByteArray(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOG.warn("Error reading " + gitignore.getPath() + ": " + e.getMessage());
+            }
+        }
+        return !dumb;
+    }
+
+    /**
+     * A .gitignore was created, edited, deleted, moved or renamed, or a directory that may hold one moved or went away
+     */
+    private static boolean affectsGitignore(VFileEvent event) {
+        if (isGitignorePath(event.getPath())) {
+            return true;
+        }
+        if (event instanceof VFilePropertyChangeEvent) {
+            VFilePropertyChangeEvent change = (VFilePropertyChangeEvent) event;
+            return change.isRename() && (isGitignorePath(change.getOldPath()) || isDirectory(event));
+        }
+        if (event instanceof VFileMoveEvent) {
+            return isGitignorePath(((VFileMoveEvent) event).getOldPath()) || isDirectory(event);
+        }
+        return event instanceof VFileDeleteEvent && isDirectory(event);
+    }
+
+    private static boolean isGitignorePath(String path) {
+        return path != null && path.endsWith("/" + GITIGNORE);
+    }
+
+    private static boolean isDirectory(VFileEvent event) {
+        VirtualFile file = event.getFile();
+        return file != null && file.isDirectory();
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    private static final class CachedFilter {
+        private final PathFilter filter;
+        private final long rootsStamp;
+        private final long gitignoreStamp;
+        private final String patterns;
+        private final boolean complete;
+
+        CachedFilter(PathFilter filter, long rootsStamp, long gitignoreStamp, String patterns, boolean complete) {
+            this.filter = filter;
+            this.rootsStamp = rootsStamp;
+            this.gitignoreStamp = gitignoreStamp;
+            this.patterns = patterns;
+            this.complete = complete;
+        }
+
+        boolean isUpToDate(ScanPathFilterService service) {
+            // A filter built while indexing only knows the root .gitignore; keep it until indexing ends
+            return rootsStamp == ProjectRootManager.getInstance(service.project).getModificationCount() &&
+                    gitignoreStamp == service.gitignoreStamp.get() &&
+                    patterns.equals(RepoGateSettings.getInstance().getExcludePatterns()) &&
+                    (complete || DumbService.isDumb(service.project));
+        }
+    }
+}
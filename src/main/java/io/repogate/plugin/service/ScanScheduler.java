@@ -0,0 +1,168 @@
+package io.repogate.plugin.service;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.IdeFocusManager;
+import com.intellij.openapi.wm.IdeFrame;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.settings.RepoGateSettings;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Application-wide queue for project scans.
+ * When several projects open at once, their scans are run a few at a time
+ * (see {@link RepoGateSettings#getMaxConcurrentScans()}), projects that are
+ * still indexing are deferred until they leave dumb mode, and the focused
+ * project is always served first. A project's queued scans are dropped when it
+ * closes, so a project closed while indexing is not held until the next dispatch.
+ */
+@Service
+public final class ScanScheduler {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(ScanScheduler.class);
+
+    private final List<ScanRequest> queue = new ArrayList<>();
+    private final Set<Project> waitingForSmartMode = Collections.newSetFromMap(new IdentityHashMap<>());
+    private int runningScans = 0;
+
+    public static ScanScheduler getInstance() {
+        return ApplicationManager.getApplication().getService(ScanScheduler.class);
+    }
+
+    /**
+     * Queue a scan for the project. A scan with the same id that is still
+     * waiting for the project is replaced rather than queued twice.
+     */
+    public void submit(Project project, String scanId, Runnable scan) {
+        synchronized (this) {
+            queue.removeIf(request -> request.project == project && request.scanId.equals(scanId));
+            queue.add(new ScanRequest(project, scanId, scan));
+        }
+        dispatch();
+    }
+
+    /**
+     * Forget the scans still queued for a project, e.g. when it closes; a running scan
+     * finishes on its own
+     */
+    public synchronized void cancel(Project project) {
+        queue.removeIf(request -> request.project == project);
+        waitingForSmartMode.remove(project);
+    }
+
+    /**
+     * Number of scans queued or running
+     */
+    public synchronized int getActiveScanCount() {
+        return queue.size() + runningScans;
+    }
+
+    private void dispatch() {
+        List<ScanRequest> toRun = new ArrayList<>();
+        List<Project> toDefer = new ArrayList<>();
+        Project focusedProject = getFocusedProject();
+
+        synchronized (this) {
+            int budget = RepoGateSettings.getInstance().getMaxConcurrentScans();
+            while (runningScans < budget) {
+                ScanRequest next = pollNext(focusedProject, toDefer);
+                if (next == null) {
+                    break;
+                }
+                runningScans++;
+                toRun.add(next);
+            }
+        }
+
+        for (Project project : toDefer) {
+            DumbService.getInstance(project).runWhenSmart(() -> {
+                synchronized (this) {
+                    waitingForSmartMode.remove(project);
+                }
+                dispatch();
+            });
+        }
+
+        for (ScanRequest request : toRun) {
+            AppExecutorUtil.getAppExecutorService().execute(() -> run(request));
+        }
+    }
+
+    /**
+     * Pick the next runnable request: the focused project's scans first, then
+     * the others in arrival order. Requests of projects that are indexing stay queued.
+     * Must be called while holding the lock.
+     */
+    @Nullable
+    private ScanRequest pollNext(@Nullable Project focusedProject, List<Project> toDefer) {
+        ScanRequest candidate = null;
+        Iterator<ScanRequest> it = queue.iterator();
+        while (it.hasNext()) {
+            ScanRequest request = it.next();
+            if (request.project.isDisposed()) {
+                waitingForSmartMode.remove(request.project);
+                it.remove();
+                continue;
+            }
+            if (DumbService.isDumb(request.project)) {
+                if (waitingForSmartMode.add(request.project)) {
+                    toDefer.add(request.project);
+                }
+                continue;
+            }
+            if (request.project == focusedProject) {
+                candidate = request;
+                break;
+            }
+            if (candidate == null) {
+                candidate = request;
+            }
+        }
+        if (candidate != null) {
+            queue.remove(candidate);
+        }
+        return candidate;
+    }
+
+    private void run(ScanRequest request) {
+        try {
+            if (!request.project.isDisposed()) {
+                request.scan.run();
+            }
+        } catch (Exception e) {
+            LOG.warn("Scan '" + request.scanId + "' failed: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                runningScans--;
+            }
+            dispatch();
+        }
+    }
+
+    @Nullable
+    private static Project getFocusedProject() {
+        IdeFrame frame = IdeFocusManager.getGlobalInstance().getLastFocusedFrame();
+        return frame != null ? frame.getProject() : null;
+    }
+
+    private static final class ScanRequest {
+        private final Project project;
+        private final String scanId;
+        private final Runnable scan;
+
+        ScanRequest(Project project, String scanId, Runnable scan) {
+            this.project = project;
+            this.scanId = scanId;
+            this.scan = scan;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.repogate.plugin.service;
+
+import com.google.gson.JsonObject;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.utils.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records the dependencies a developer adds, for replay by the load generator
+ * (src/loadtest, {@code SessionReplay}). Off unless the IDE is started with
+ * {@code -Drepogate.recordSession=/path/to/session.jsonl}; each addition is then
+ * appended as one JSON line:
+ * <pre>
+ * {"atMs":1718000000000,"manager":"npm","name":"left-pad","version":"1.3.0","file":"package.json"}
+ * </pre>
+ * Only coordinates and the manifest's file name are written, never its content.
+ */
+public final class SessionRecorder {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(SessionRecorder.class);
+    private static final String PROPERTY = "repogate.recordSession";
+
+    private static final Path TARGET = target();
+
+    private SessionRecorder() {
+    }
+
+    private static Path target() {
+        String value = System.getProperty(PROPERTY);
+        return value == null || value.isBlank() ? null : Paths.get(value);
+    }
+
+    public static boolean isEnabled() {
+        return TARGET != null;
+    }
+
+    public static void record(DependencyInfo dependency) {
+        if (TARGET == null) {
+            return;
+        }
+        JsonObject line = new JsonObject();
+        line.addProperty("atMs", System.currentTimeMillis());
+        line.addProperty("manager", dependency.getPackageManager());
+        line.addProperty("name", dependency.getPackageName());
+        line.addProperty("version", dependency.getVersion());
+        String filePath = dependency.getFilePath();
+        if (filePath != null && !filePath.isEmpty()) {
+            line.addProperty("file", filePath.substring(filePath.lastIndexOf('/') + 1));
+        }
+        byte[] bytes = (Json.gson().toJson(line) + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (SessionRecorder.class) {
+            try {
+                Files.write(TARGET, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                LOG.warn("Failed to record session event: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package io.repogate.plugin.service;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.IdeFocusManager;
+import com.intellij.openapi.wm.IdeFrame;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.Nullable;
+import io.repogate.plugin.logging.RepoGateLogger;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-wide queue for validation round trips.
+ * Work is served by priority (the manifest being edited in the focused editor,
+ * then other open manifests, then background scans), round-robin across projects
+ * within a priority so one busy project cannot crowd out the others. Work that
+ * has waited longer than {@link #AGING_MS} is served ahead of its priority, so a
+ * steady stream of edits never starves a background scan. Queues are bounded per
+ * project and priority. Edits are never dropped: beyond the bound they spill to the
+ * next lower priority. Only background work beyond its bound is refused, and the
+ * caller keeps it to retry.
+ */
+@Service
+public final class ValidationDispatcher {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(ValidationDispatcher.class);
+
+    private static final int MAX_WORKERS = 4;
+    private static final long AGING_MS = TimeUnit.SECONDS.toMillis(5);
+
+    public enum Priority {
+        /** A dependency just typed into the manifest in the focused editor */
+        INTERACTIVE(64),
+        /** A manifest open in an editor tab but not the one being edited */
+        OPEN_FILE(256),
+        /** Scans, branch switches, reconnect syncs and revalidations */
+        BACKGROUND(2048);
+
+        private final int capacity;
+
+        Priority(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    // Per priority, each project's queue; map order is the round-robin order
+    private final Map<Priority, LinkedHashMap<Project, ArrayDeque<Task>>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, AtomicLong> waitNanos = new EnumMap<>(Priority.class);
+    private final Map<Priority, AtomicLong> started = new EnumMap<>(Priority.class);
+    private final AtomicLong dropped = new AtomicLong();
+    private int activeWorkers = 0;
+
+    public ValidationDispatcher() {
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+            waitNanos.put(priority, new AtomicLong());
+            started.put(priority, new AtomicLong());
+        }
+    }
+
+    public static ValidationDispatcher getInstance() {
+        return ApplicationManager.getApplication().getService(ValidationDispatcher.class);
+    }
+
+    /**
+     * Priority for a dependency found in the given manifest: interactive if it is the
+     * selected editor of the focused project, open-file if it is open anywhere.
+     * Call on the EDT (where VFS listeners run).
+     */
+    public static Priority priorityFor(Project project, @Nullable VirtualFile file) {
+        if (file == null || project.isDisposed()) {
+            return Priority.BACKGROUND;
+        }
+        FileEditorManager editorManager = FileEditorManager.getInstance(project);
+        if (!editorManager.isFileOpen(file)) {
+            return Priority.BACKGROUND;
+        }
+        if (project == getFocusedProject()) {
+            for (VirtualFile selected : editorManager.getSelectedFiles()) {
+                if (file.equals(selected)) {
+                    return Priority.INTERACTIVE;
+                }
+            }
+        }
+        return Priority.OPEN_FILE;
+    }
+
+    /**
+     * Queue a validation round trip; if the queue of this priority is full, at the next
+     * lower priority that has room
+     * @return false if even the background queue of this project is full and the work was not queued
+     */
+    public boolean submit(Project project, Priority priority, Runnable work) {
+        boolean startWorker;
+        synchronized (this) {
+            Priority target = priority;
+            ArrayDeque<Task> queue = queues.get(target).computeIfAbsent(project, p -> new ArrayDeque<>());
+            while (queue.size() >= target.capacity && target != Priority.BACKGROUND) {
+                // Served later, but still served: a dropped edit would never be retried
+                target = Priority.values()[target.ordinal() + 1];
+                queue = queues.get(target).computeIfAbsent(project, p -> new ArrayDeque<>());
+            }
+            if (queue.size() >= target.capacity) {
+                dropped.incrementAndGet();
+                LOG.warn("Validation queue full (" + priority + "), refusing work for " + project.getName());
+                return false;
+            }
+            queue.addLast(new Task(project, target, work));
+            startWorker = activeWorkers < MAX_WORKERS;
+            if (startWorker) {
+                activeWorkers++;
+            }
+        }
+        if (startWorker) {
+            AppExecutorUtil.getAppExecutorService().execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * Forget everything still queued for a project, e.g. when it closes
+     */
+    public synchronized void cancel(Project project) {
+        for (LinkedHashMap<Project, ArrayDeque<Task>> byProject : queues.values()) {
+            byProject.remove(project);
+        }
+    }
+
+    private void drain() {
+        Task task;
+        while ((task = pollNext()) != null) {
+            long waited = System.nanoTime() - task.enqueuedAt;
+            waitNanos.get(task.priority).addAndGet(waited);
+            started.get(task.priority).incrementAndGet();
+            try {
+                if (!task.project.isDisposed()) {
+                    task.work.run();
+                }
+            } catch (Exception e) {
+                LOG.warn("Validation task failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Next task to run, or null (releasing the worker) when every queue is empty
+     */
+    @Nullable
+    private synchronized Task pollNext() {
+        Task task = pollStarving(System.nanoTime());
+        if (task == null) {
+            for (Priority priority : Priority.values()) {
+                task = pollRoundRobin(queues.get(priority));
+                if (task != null) {
+                    break;
+                }
+            }
+        }
+        if (task == null) {
+            activeWorkers--;
+        }
+        return task;
+    }
+
+    /**
+     * The oldest lower-priority task that has waited past the aging limit, if any.
+     * Must be called while holding the lock.
+     */
+    @Nullable
+    private Task pollStarving(long now) {
+        long agingNanos = TimeUnit.MILLISECONDS.toNanos(AGING_MS);
+        ArrayDeque<Task> oldest = null;
+        for (Priority priority : Priority.values()) {
+            if (priority == Priority.INTERACTIVE) {
+                continue;
+            }
+            for (ArrayDeque<Task> queue : queues.get(priority).values()) {
+                Task head = queue.peekFirst();
+                if (head != null && now - head.enqueuedAt > agingNanos &&
+                        (oldest == null || head.enqueuedAt < oldest.peekFirst().enqueuedAt)) {
+                    oldest = queue;
+                }
+            }
+        }
+        if (oldest == null) {
+            return null;
+        }
+        Task task = oldest.pollFirst();
+        rotate(queues.get(task.priority), task.project, oldest);
+        return task;
+    }
+
+    /**
+     * Take from the project at the front of the rotation and move it to the back.
+     * Must be called while holding the lock.
+     */
+    @Nullable
+    private Task pollRoundRobin(LinkedHashMap<Project, ArrayDeque<Task>> byProject) {
+        Iterator<Map.Entry<Project, ArrayDeque<Task>>> it = byProject.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Project, ArrayDeque<Task>> entry = it.next();
+            Task task = entry.getValue().pollFirst();
+            if (task == null) {
+                it.remove();
+                continue;
+            }
+            rotate(byProject, entry.getKey(), entry.getValue());
+            return task;
+        }
+        return null;
+    }
+
+    private static void rotate(LinkedHashMap<Project, ArrayDeque<Task>> byProject, Project project, ArrayDeque<Task> queue) {
+        byProject.remove(project);
+        if (!queue.isEmpty()) {
+            byProject.put(project, queue);
+        }
+    }
+
+    /**
+     * Average time work of the given priority waited before it started, in milliseconds
+     */
+    public double getAverageWaitMillis(Priority priority) {
+        long count = started.get(priority).get();
+        return count == 0 ? 0 : waitNanos.get(priority).get() / (count * 1_000_000.0);
+    }
+
+    /**
+     * Work refused because the background queue was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Tasks queued (not yet running) across all projects and priorities
+     */
+    public synchronized int getQueuedCount() {
+        int count = 0;
+        for (LinkedHashMap<Project, ArrayDeque<Task>> byProject : queues.values()) {
+            for (ArrayDeque<Task> queue : byProject.values()) {
+                count += queue.size();
+            }
+        }
+        return count;
+    }
+
+    @Nullable
+    private static Project getFocusedProject() {
+        IdeFrame frame = IdeFocusManager.getGlobalInstance().getLastFocusedFrame();
+        return frame != null ? frame.getProject() : null;
+    }
+
+    private static final class Task {
+        private final Project project;
+        private final Priority priority;
+        private final Runnable work;
+        private final long enqueuedAt = System.nanoTime();
+
+        Task(Project project, Priority priority, Runnable work) {
+            this.project = project;
+            this.priority = priority;
+            this.work = work;
+        }
+    }
+}
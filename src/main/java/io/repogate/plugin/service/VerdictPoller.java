@@ -0,0 +1,164 @@
+package io.repogate.plugin.service;
+
+import io.repogate.plugin.api.RepoGateApiClient;
+import io.repogate.plugin.metrics.Counter;
+import io.repogate.plugin.tracing.TraceContext;
+import io.repogate.plugin.tracing.Tracer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeats a server round trip for each package ("name:manager") until its handler
+ * reports a final answer: the /check polling and the wait-for-service retries of
+ * {@link DependencyValidator}. Has no IDE dependencies, so the load generator
+ * drives the same scheduling code headlessly.
+ * <p>
+ * Starting a key replaces its current poll. A poll that finishes only removes
+ * itself, so a handler may start a new poll for the same key. Each round trip runs
+ * in the trace that was current when the poll was started.
+ */
+public final class VerdictPoller {
+    private final ScheduledExecutorService scheduler;
+    private final Counter activePolls;
+    private final ConcurrentHashMap<String, Poll> polls = new ConcurrentHashMap<>();
+
+    /**
+     * @param activePolls gauge of running polls, shared with other pollers
+     */
+    public VerdictPoller(ScheduledExecutorService scheduler, Counter activePolls) {
+        this.scheduler = scheduler;
+        this.activePolls = activePolls;
+    }
+
+    /**
+     * One round trip; null means no answer this time (e.g. no token) and is skipped
+     */
+    public interface Call {
+        RepoGateApiClient.DependencyResponse call() throws Exception;
+    }
+
+    public interface Handler {
+        /**
+         * @return true if the answer is final and polling should stop
+         */
+        boolean onResponse(RepoGateApiClient.DependencyResponse response);
+
+        /**
+         * @return true to give up
+         */
+        default boolean onFailure(Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Run {@code call} every {@code intervalMs}, first after one interval, until the handler stops it
+     */
+    public void start(String key, long intervalMs, Call call, Handler handler) {
+        Poll poll = new Poll(key, call, handler);
+        Poll previous = polls.put(key, poll);
+        if (previous != null) {
+            previous.cancel();
+        } else {
+            activePolls.increment();
+        }
+        poll.future = scheduler.scheduleAtFixedRate(poll, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        if (poll.finished) {
+            // Finished before its future was assigned
+            poll.cancel();
+        }
+    }
+
+    public void stop(String key) {
+        Poll poll = polls.remove(key);
+        if (poll != null) {
+            activePolls.decrement();
+            poll.cancel();
+        }
+    }
+
+    public void stopAll() {
+        for (String key : new ArrayList<>(polls.keySet())) {
+            stop(key);
+        }
+    }
+
+    public boolean isPolling(String key) {
+        return polls.containsKey(key);
+    }
+
+    public int size() {
+        return polls.size();
+    }
+
+    /**
+     * When each key is polled next, as epoch millis
+     */
+    public Map<String, Long> getNextPollTimes() {
+        long now = System.currentTimeMillis();
+        Map<String, Long> times = new HashMap<>(polls.size() * 2);
+        for (Map.Entry<String, Poll> entry : polls.entrySet()) {
+            ScheduledFuture<?> future = entry.getValue().future;
+            if (future != null) {
+                times.put(entry.getKey(), now + Math.max(0, future.getDelay(TimeUnit.MILLISECONDS)));
+            }
+        }
+        return times;
+    }
+
+    private final class Poll implements Runnable {
+        private final String key;
+        private final Call call;
+        private final Handler handler;
+        private final TraceContext trace = Tracer.current();
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean finished;
+
+        Poll(String key, Call call, Handler handler) {
+            this.key = key;
+            this.call = call;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            if (finished) {
+                return;
+            }
+            boolean done;
+            try (Tracer.Scope ignored = Tracer.withContext(trace)) {
+                try {
+                    RepoGateApiClient.DependencyResponse response = call.call();
+                    done = response != null && handler.onResponse(response);
+                } catch (Exception e) {
+                    done = handler.onFailure(e);
+                }
+            }
+            if (done) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            finished = true;
+            if (polls.remove(key, this)) {
+                activePolls.decrement();
+            }
+            cancel();
+        }
+
+        void cancel() {
+            finished = true;
+            ScheduledFuture<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.repogate.plugin.settings;
 
 import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.options.ConfigurationException;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
@@ -29,13 +30,33 @@ public class RepoGateConfigurable implements Configurable {
     public boolean isModified() {
         RepoGateSettings settings = RepoGateSettings.getInstance();
         return !settingsComponent.getApiUrl().equals(settings.getApiUrl()) ||
+                !settingsComponent.getExcludePatterns().equals(settings.getExcludePatterns()) ||
+                !settingsComponent.getAllowlistErrorRatePercent().equals(formatPercent(settings.getAllowlistFilterErrorRate())) ||
+                !settingsComponent.getTraceExport().equals(settings.getTraceExport()) ||
+                !settingsComponent.getTraceSampleRatePercent().equals(formatPercent(settings.getTraceSampleRate())) ||
                 settingsComponent.isEnabled() != settings.isEnabled();
     }
 
     @Override
-    public void apply() {
+    public void apply() throws ConfigurationException {
         RepoGateSettings settings = RepoGateSettings.getInstance();
+        double errorRatePercent;
+        try {
+            errorRatePercent = Double.parseDouble(settingsComponent.getAllowlistErrorRatePercent());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Allowlist filter error rate must be a number between 0.01 and 10");
+        }
+        double sampleRatePercent;
+        try {
+            sampleRatePercent = Double.parseDouble(settingsComponent.getTraceSampleRatePercent());
+        } catch (NumberFormatException e) {
+            throw new ConfigurationException("Trace sample rate must be a number between 0 and 100");
+        }
         settings.setApiUrl(settingsComponent.getApiUrl());
+        settings.setExcludePatterns(settingsComponent.getExcludePatterns());
+        settings.setAllowlistFilterErrorRate(errorRatePercent / 100);
+        settings.setTraceSampleRate(sampleRatePercent / 100);
+        settings.setTraceExport(settingsComponent.getTraceExport());
         settings.setEnabled(settingsComponent.isEnabled());
     }
 
@@ -43,10 +64,18 @@ public class RepoGateConfigurable implements Configurable {
     public void reset() {
         RepoGateSettings settings = RepoGateSettings.getInstance();
         settingsComponent.setApiUrl(settings.getApiUrl());
+        settingsComponent.setExcludePatterns(settings.getExcludePatterns());
+        settingsComponent.setAllowlistErrorRatePercent(formatPercent(settings.getAllowlistFilterErrorRate()));
+        settingsComponent.setTraceExport(settings.getTraceExport());
+        settingsComponent.setTraceSampleRatePercent(formatPercent(settings.getTraceSampleRate()));
         settingsComponent.setEnabled(settings.isEnabled());
         settingsComponent.reset(); // Update auth status
     }
 
+    private static String formatPercent(double rate) {
+        return java.math.BigDecimal.valueOf(rate * 100).stripTrailingZeros().toPlainString();
+    }
+
     @Override
     public void disposeUIResources() {
         settingsComponent = null;
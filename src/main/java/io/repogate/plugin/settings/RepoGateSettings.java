@@ -6,6 +6,9 @@ import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
 import com.intellij.util.xmlb.XmlSerializerUtil;
 import io.repogate.plugin.auth.AuthMode;
+import io.repogate.plugin.logging.LogLevel;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.tracing.Tracer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -21,6 +24,12 @@ public class RepoGateSettings implements PersistentStateComponent<RepoGateSettin
     private int pollIntervalMs = 10000;
     private boolean includeDevDependencies = false;
     private String logLevel = "error";
+    private int inventoryIntervalMinutes = 60;
+    private int maxConcurrentScans = 2;
+    private String excludePatterns = "node_modules, bower_components, target, build, dist, vendor, .gradle";
+    private double allowlistFilterErrorRate = 0.01;
+    private String traceExport = "";
+    private double traceSampleRate = 0.1;
 
     public static RepoGateSettings getInstance() {
         return ApplicationManager.getApplication().getService(RepoGateSettings.class);
@@ -34,6 +43,8 @@ public class RepoGateSettings implements PersistentStateComponent<RepoGateSettin
     @Override
     public void loadState(@NotNull RepoGateSettings state) {
         XmlSerializerUtil.copyBean(state, this);
+        RepoGateLogger.setLevel(LogLevel.parse(logLevel));
+        Tracer.configure(traceExport, getTraceSampleRate());
     }
 
     public AuthMode getAuthMode() {
@@ -64,12 +75,70 @@ public class RepoGateSettings implements PersistentStateComponent<RepoGateSettin
         this.includeDevDependencies = includeDevDependencies;
     }
 
+    public int getInventoryIntervalMinutes() {
+        return Math.max(inventoryIntervalMinutes, 5); // Minimum 5 minutes
+    }
+
+    public void setInventoryIntervalMinutes(int inventoryIntervalMinutes) {
+        this.inventoryIntervalMinutes = Math.max(inventoryIntervalMinutes, 5);
+    }
+
+    public int getMaxConcurrentScans() {
+        return Math.max(maxConcurrentScans, 1);
+    }
+
+    public void setMaxConcurrentScans(int maxConcurrentScans) {
+        this.maxConcurrentScans = Math.max(maxConcurrentScans, 1);
+    }
+
+    public String getExcludePatterns() {
+        return excludePatterns != null ? excludePatterns : "";
+    }
+
+    public void setExcludePatterns(String excludePatterns) {
+        this.excludePatterns = excludePatterns;
+    }
+
+    public double getAllowlistFilterErrorRate() {
+        return clampErrorRate(allowlistFilterErrorRate);
+    }
+
+    public void setAllowlistFilterErrorRate(double allowlistFilterErrorRate) {
+        this.allowlistFilterErrorRate = clampErrorRate(allowlistFilterErrorRate);
+    }
+
+    private static double clampErrorRate(double rate) {
+        return Math.min(Math.max(rate, 0.0001), 0.1); // Between 0.01% and 10%
+    }
+
+    /**
+     * OTLP/HTTP collector URL or file path for validation traces; empty when tracing is off
+     */
+    public String getTraceExport() {
+        return traceExport != null ? traceExport : "";
+    }
+
+    public void setTraceExport(String traceExport) {
+        this.traceExport = traceExport;
+        Tracer.configure(traceExport, getTraceSampleRate());
+    }
+
+    public double getTraceSampleRate() {
+        return Math.min(Math.max(traceSampleRate, 0.0), 1.0);
+    }
+
+    public void setTraceSampleRate(double traceSampleRate) {
+        this.traceSampleRate = Math.min(Math.max(traceSampleRate, 0.0), 1.0);
+        Tracer.configure(traceExport, this.traceSampleRate);
+    }
+
     public String getLogLevel() {
         return logLevel;
     }
 
     public void setLogLevel(String logLevel) {
         this.logLevel = logLevel;
+        RepoGateLogger.setLevel(LogLevel.parse(logLevel));
     }
 
     public String getApiUrl() {
@@ -13,6 +13,10 @@ public class RepoGateSettingsComponent {
     private final JPanel mainPanel;
     private final JBCheckBox enabledCheckBox = new JBCheckBox("Enable RepoGate");
     private final JBTextField apiUrlField = new JBTextField();
+    private final JBTextField excludePatternsField = new JBTextField();
+    private final JBTextField allowlistErrorRateField = new JBTextField();
+    private final JBTextField traceExportField = new JBTextField();
+    private final JBTextField traceSampleRateField = new JBTextField();
     private final JLabel authStatusLabel = new JLabel();
     private final JButton signInEntraIdButton = new JButton("Sign In with EntraID");
     private final JButton signInApiTokenButton = new JButton("Sign In with API Token");
@@ -60,6 +64,14 @@ public class RepoGateSettingsComponent {
         mainPanel = FormBuilder.createFormBuilder()
                 .addComponent(enabledCheckBox, 1)
                 .addLabeledComponent(new JBLabel("API URL:"), apiUrlField, 1, false)
+                .addLabeledComponent(new JBLabel("Exclude patterns:"), excludePatternsField, 1, false)
+                .addComponentToRightColumn(new JBLabel("<html><small>Comma-separated globs skipped during scans, in addition to excluded folders and .gitignore</small></html>"), 0)
+                .addLabeledComponent(new JBLabel("Allowlist filter error rate (%):"), allowlistErrorRateField, 1, false)
+                .addComponentToRightColumn(new JBLabel("<html><small>Share of unlisted packages that may be shown as approved until the server answers (0.01 - 10)</small></html>"), 0)
+                .addLabeledComponent(new JBLabel("Trace export:"), traceExportField, 1, false)
+                .addComponentToRightColumn(new JBLabel("<html><small>OpenTelemetry collector URL (e.g. http://localhost:4318) or a file path for OTLP JSON; empty to turn tracing off</small></html>"), 0)
+                .addLabeledComponent(new JBLabel("Trace sample rate (%):"), traceSampleRateField, 1, false)
+                .addComponentToRightColumn(new JBLabel("<html><small>Share of dependency validations traced (0 - 100)</small></html>"), 0)
                 .addSeparator()
                 .addComponent(new JBLabel("<html><b>Authentication</b></html>"), 1)
                 .addComponent(authPanel, 1)
@@ -137,6 +149,42 @@ public class RepoGateSettingsComponent {
         apiUrlField.setText(newText);
     }
 
+    @NotNull
+    public String getExcludePatterns() {
+        return excludePatternsField.getText();
+    }
+
+    public void setExcludePatterns(@NotNull String patterns) {
+        excludePatternsField.setText(patterns);
+    }
+
+    @NotNull
+    public String getAllowlistErrorRatePercent() {
+        return allowlistErrorRateField.getText().trim();
+    }
+
+    public void setAllowlistErrorRatePercent(@NotNull String percent) {
+        allowlistErrorRateField.setText(percent);
+    }
+
+    @NotNull
+    public String getTraceExport() {
+        return traceExportField.getText().trim();
+    }
+
+    public void setTraceExport(@NotNull String target) {
+        traceExportField.setText(target);
+    }
+
+    @NotNull
+    public String getTraceSampleRatePercent() {
+        return traceSampleRateField.getText().trim();
+    }
+
+    public void setTraceSampleRatePercent(@NotNull String percent) {
+        traceSampleRateField.setText(percent);
+    }
+
     public boolean isEnabled() {
         return enabledCheckBox.isSelected();
     }
@@ -0,0 +1,25 @@
+package io.repogate.plugin.startup;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.startup.StartupActivity;
+import io.repogate.plugin.service.DependencyValidator;
+import io.repogate.plugin.service.PendingValidationState;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Resumes polling for dependencies that were still pending when the project was closed
+ */
+public class RestorePendingValidationsActivity implements StartupActivity.Background {
+
+    @Override
+    public void runActivity(@NotNull Project project) {
+        try (StartupTrace ignored = StartupTrace.begin("restorePendingActivity")) {
+            DependencyValidator validator = project.getServiceIfCreated(DependencyValidator.class);
+            if (validator == null && PendingValidationState.getInstance(project).isEmpty()) {
+                // Nothing to resume: leave the validator and everything behind it uncreated
+                return;
+            }
+            (validator != null ? validator : DependencyValidator.getInstance(project)).restorePending();
+        }
+    }
+}
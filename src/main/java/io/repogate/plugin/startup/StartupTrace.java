@@ -0,0 +1,36 @@
+package io.repogate.plugin.startup;
+
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.metrics.Metrics;
+
+/**
+ * Times one-off initialization (services, providers, clients, startup activities)
+ * so the plugin's share of IDE open time can be checked. Each phase is recorded
+ * in the "startup.&lt;phase&gt;" histogram, which shows up in the diagnostics tool
+ * window and in exported metrics, and is logged at debug level.
+ * <pre>
+ * try (StartupTrace ignored = StartupTrace.begin("authProvider")) { ... }
+ * </pre>
+ */
+public final class StartupTrace implements AutoCloseable {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(StartupTrace.class);
+
+    private final String phase;
+    private final long startNanos;
+
+    private StartupTrace(String phase) {
+        this.phase = phase;
+        this.startNanos = System.nanoTime();
+    }
+
+    public static StartupTrace begin(String phase) {
+        return new StartupTrace(phase);
+    }
+
+    @Override
+    public void close() {
+        long nanos = System.nanoTime() - startNanos;
+        Metrics.histogram("startup." + phase).recordNanos(nanos);
+        LOG.debug(() -> String.format("Initialized %s in %.2f ms on %s", phase, nanos / 1_000_000.0, Thread.currentThread().getName()));
+    }
+}
@@ -0,0 +1,92 @@
+package io.repogate.plugin.toolwindow;
+
+import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.model.DependencyState;
+import io.repogate.plugin.service.DependencyStateStore;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows of the diagnostics view: one per tracked dependency. Backed directly by the
+ * snapshot's immutable list, so an update is a reference swap and JBTable only
+ * renders the visible rows, which keeps 10k+ packages cheap.
+ */
+class DependencyTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Package", "Manager", "Version", "Status", "Next check", "Updated", "Message"};
+
+    private List<DependencyStateStore.Entry> entries = Collections.emptyList();
+    private Map<String, Long> nextPollTimes = Collections.emptyMap();
+    private long now = System.currentTimeMillis();
+
+    /**
+     * @return true if the rows changed (as opposed to only the poll times)
+     */
+    boolean update(List<DependencyStateStore.Entry> entries, Map<String, Long> nextPollTimes) {
+        this.now = System.currentTimeMillis();
+        this.nextPollTimes = nextPollTimes;
+        if (entries == this.entries) {
+            if (!entries.isEmpty()) {
+                fireTableRowsUpdated(0, entries.size() - 1);
+            }
+            return false;
+        }
+        this.entries = entries;
+        fireTableDataChanged();
+        return true;
+    }
+
+    @Override
+    public int getRowCount() {
+        return entries.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        DependencyStateStore.Entry entry = entries.get(row);
+        DependencyInfo dependency = entry.getDependency();
+        DependencyState state = entry.getState();
+        switch (column) {
+            case 0:
+                return dependency.getPackageName();
+            case 1:
+                return dependency.getPackageManager();
+            case 2:
+                return dependency.getVersion();
+            case 3:
+                return state.getStatus().name();
+            case 4:
+                Long nextPoll = nextPollTimes.get(dependency.getKey());
+                return nextPoll == null ? "" : "in " + Math.max(0, (nextPoll - now) / 1000) + " s";
+            case 5:
+                return state.getUpdatedAt() == 0 ? "" : ago(now - state.getUpdatedAt());
+            case 6:
+                return state.getMessage() != null ? state.getMessage() : "";
+            default:
+                return "";
+        }
+    }
+
+    private static String ago(long millis) {
+        long seconds = Math.max(0, millis / 1000);
+        if (seconds < 60) {
+            return seconds + " s ago";
+        }
+        if (seconds < 3600) {
+            return seconds / 60 + " min ago";
+        }
+        return seconds / 3600 + " h ago";
+    }
+}
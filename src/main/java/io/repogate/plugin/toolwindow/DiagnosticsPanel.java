@@ -0,0 +1,212 @@
+package io.repogate.plugin.toolwindow;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.JBSplitter;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.openapi.wm.ex.ToolWindowManagerListener;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.ui.JBUI;
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.metrics.MetricsSnapshot;
+import io.repogate.plugin.service.PipelineDiagnostics;
+import io.repogate.plugin.service.PipelineSnapshot;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live view of a project's validation pipeline: a status line (connection, sign-in,
+ * token expiry, queues), every tracked package with its state and next check, and
+ * recent API latencies. A background timer captures a {@link PipelineSnapshot}; the
+ * EDT only swaps table data, and at most one update is queued at a time. Nothing
+ * is captured while the tool window is hidden.
+ */
+class DiagnosticsPanel implements Disposable {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(DiagnosticsPanel.class);
+
+    private static final long REFRESH_MS = 1000;
+
+    private final Project project;
+    private final JPanel root = new JPanel(new BorderLayout());
+    private final JBLabel statusLine = new JBLabel();
+    private final JBLabel countLine = new JBLabel();
+    private final DependencyTableModel dependencyModel = new DependencyTableModel();
+    private final LatencyTableModel latencyModel = new LatencyTableModel();
+    private final AtomicBoolean updateQueued = new AtomicBoolean(false);
+    private final ScheduledFuture<?> refreshTask;
+    private volatile boolean disposed = false;
+    // Written on the EDT by the tool window listener, read by the timer thread
+    private volatile boolean visible;
+
+    DiagnosticsPanel(Project project, ToolWindow toolWindow) {
+        this.project = project;
+        this.visible = toolWindow.isVisible();
+
+        JPanel header = new JPanel(new GridLayout(2, 1));
+        header.setBorder(JBUI.Borders.empty(4, 8));
+        header.add(statusLine);
+        header.add(countLine);
+
+        JBTable dependencyTable = new JBTable(dependencyModel);
+        dependencyTable.setAutoCreateRowSorter(true);
+        dependencyTable.getEmptyText().setText("No dependencies validated in this project yet");
+        JBTable latencyTable = new JBTable(latencyModel);
+        latencyTable.getEmptyText().setText("No API calls yet");
+
+        JBSplitter splitter = new JBSplitter(true, 0.75f);
+        splitter.setFirstComponent(new JBScrollPane(dependencyTable));
+        splitter.setSecondComponent(new JBScrollPane(latencyTable));
+
+        root.add(header, BorderLayout.NORTH);
+        root.add(splitter, BorderLayout.CENTER);
+
+        project.getMessageBus().connect(this).subscribe(ToolWindowManagerListener.TOPIC, new ToolWindowManagerListener() {
+            @Override
+            public void stateChanged(ToolWindowManager toolWindowManager) {
+                visible = !toolWindow.isDisposed() && toolWindow.isVisible();
+            }
+        });
+        refreshTask = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                this::refresh, 0, REFRESH_MS, TimeUnit.MILLISECONDS);
+    }
+
+    JComponent getComponent() {
+        return root;
+    }
+
+    /**
+     * Runs on the timer thread: capture, then hand the result to the EDT unless an
+     * update is still waiting there
+     */
+    private void refresh() {
+        if (disposed || project.isDisposed() || !visible) {
+            return;
+        }
+        if (!updateQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            PipelineSnapshot snapshot = PipelineDiagnostics.getInstance(project).capture();
+            ApplicationManager.getApplication().invokeLater(() -> {
+                updateQueued.set(false);
+                if (!disposed) {
+                    apply(snapshot);
+                }
+            }, ModalityState.any(), project.getDisposed());
+        } catch (Exception e) {
+            updateQueued.set(false);
+            LOG.warn("Diagnostics refresh failed: " + e.getMessage());
+        }
+    }
+
+    private void apply(PipelineSnapshot snapshot) {
+        if (!snapshot.isActive()) {
+            dependencyModel.update(snapshot.getEntries(), snapshot.getNextPollTimes());
+            latencyModel.update(snapshot.getMetrics());
+            statusLine.setText("Idle: no dependency changes seen in this project yet");
+            countLine.setText(String.format("%d validations queued  ·  %d scans active",
+                    snapshot.getQueuedValidations(), snapshot.getActiveScans()));
+            return;
+        }
+        dependencyModel.update(snapshot.getEntries(), snapshot.getNextPollTimes());
+        latencyModel.update(snapshot.getMetrics());
+
+        StringBuilder status = new StringBuilder();
+        status.append(snapshot.isConnected() ? "Connected" : "Offline");
+        if (snapshot.getOfflineQueueSize() > 0) {
+            status.append(" (").append(snapshot.getOfflineQueueSize()).append(" decisions waiting to sync)");
+        }
+        if (snapshot.isSignInRequired()) {
+            status.append("  ·  Sign-in required");
+        }
+        long expiresAt = snapshot.getTokenExpiresAt();
+        if (expiresAt > 0) {
+            long minutes = (expiresAt - System.currentTimeMillis()) / 60_000;
+            status.append("  ·  Token ").append(minutes >= 0 ? "expires in " + minutes + " min" : "expired");
+        }
+        statusLine.setText(status.toString());
+
+        Map<String, Long> counters = snapshot.getMetrics().getCounters();
+        countLine.setText(String.format(
+                "%d tracked  ·  %d polling  ·  %d HTTP in flight  ·  %d validations queued  ·  %d scans active",
+                snapshot.getEntries().size(),
+                snapshot.getNextPollTimes().size(),
+                counters.getOrDefault("api.inFlight", 0L),
+                snapshot.getQueuedValidations(),
+                snapshot.getActiveScans()));
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        refreshTask.cancel(false);
+    }
+
+    /**
+     * One row per API endpoint, from the "api.*" histograms
+     */
+    private static final class LatencyTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Endpoint", "Calls", "Errors", "p50 ms", "p90 ms", "p99 ms", "Max ms"};
+
+        private List<Object[]> rows = new ArrayList<>();
+
+        void update(MetricsSnapshot metrics) {
+            List<Object[]> updated = new ArrayList<>();
+            for (Map.Entry<String, MetricsSnapshot.HistogramSnapshot> entry : metrics.getHistograms().entrySet()) {
+                if (!entry.getKey().startsWith("api.")) {
+                    continue;
+                }
+                MetricsSnapshot.HistogramSnapshot histogram = entry.getValue();
+                updated.add(new Object[]{
+                        entry.getKey().substring("api.".length()),
+                        histogram.getCount(),
+                        metrics.getCounters().getOrDefault(entry.getKey() + ".errors", 0L),
+                        millis(histogram.getP50Micros()),
+                        millis(histogram.getP90Micros()),
+                        millis(histogram.getP99Micros()),
+                        millis(histogram.getMaxMicros())
+                });
+            }
+            rows = updated;
+            fireTableDataChanged();
+        }
+
+        private static String millis(long micros) {
+            return String.format("%.1f", micros / 1000.0);
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return rows.get(row)[column];
+        }
+    }
+}
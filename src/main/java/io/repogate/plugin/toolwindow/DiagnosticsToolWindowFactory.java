@@ -0,0 +1,24 @@
+package io.repogate.plugin.toolwindow;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The "RepoGate" tool window with the live pipeline view of the project
+ */
+public class DiagnosticsToolWindowFactory implements ToolWindowFactory, DumbAware {
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        DiagnosticsPanel panel = new DiagnosticsPanel(project, toolWindow);
+        Content content = ContentFactory.getInstance().createContent(panel.getComponent(), "Pipeline", false);
+        // Stops the refresh timer when the tool window content goes away
+        content.setDisposer(panel);
+        toolWindow.getContentManager().addContent(content);
+    }
+}
@@ -0,0 +1,90 @@
+package io.repogate.plugin.tracing;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * Encodes finished spans as an OTLP/JSON ExportTraceServiceRequest, the body of
+ * {@code POST /v1/traces} and the line format of the collector's otlpjsonfile receiver.
+ * Ids are hex, 64-bit integers are decimal strings and enums are numbers, as the
+ * OTLP/JSON mapping requires.
+ */
+final class OtlpJson {
+    static final String SERVICE_NAME = "repogate-intellij";
+    private static final String SCOPE_NAME = "io.repogate.plugin";
+
+    private OtlpJson() {
+    }
+
+    static String encode(List<Span> spans) throws IOException {
+        StringWriter out = new StringWriter(256 * spans.size() + 256);
+        try (JsonWriter json = new JsonWriter(out)) {
+            json.beginObject().name("resourceSpans").beginArray().beginObject();
+
+            json.name("resource").beginObject().name("attributes").beginArray();
+            stringAttribute(json, "service.name", SERVICE_NAME);
+            stringAttribute(json, "telemetry.sdk.language", "java");
+            json.endArray().endObject();
+
+            json.name("scopeSpans").beginArray().beginObject();
+            json.name("scope").beginObject().name("name").value(SCOPE_NAME).endObject();
+            json.name("spans").beginArray();
+            for (Span span : spans) {
+                writeSpan(json, span);
+            }
+            json.endArray();
+            json.endObject().endArray();
+
+            json.endObject().endArray().endObject();
+        }
+        return out.toString();
+    }
+
+    private static void writeSpan(JsonWriter json, Span span) throws IOException {
+        TraceContext context = span.getContext();
+        json.beginObject();
+        json.name("traceId").value(context.getTraceId());
+        json.name("spanId").value(context.getSpanId());
+        if (span.getParentSpanId() != 0) {
+            json.name("parentSpanId").value(TraceContext.hex(span.getParentSpanId()));
+        }
+        json.name("name").value(span.getName());
+        json.name("kind").value(span.getKind().otlpValue);
+        json.name("startTimeUnixNano").value(Long.toString(Tracer.toEpochNanos(span.getStartNanoTime())));
+        json.name("endTimeUnixNano").value(Long.toString(Tracer.toEpochNanos(span.getEndNanoTime())));
+
+        json.name("attributes").beginArray();
+        for (int i = 0; i < span.getAttributeCount(); i++) {
+            Object value = span.getAttributeValue(i);
+            json.beginObject().name("key").value(span.getAttributeKey(i)).name("value").beginObject();
+            if (value instanceof Long) {
+                json.name("intValue").value(value.toString());
+            } else if (value instanceof Boolean) {
+                json.name("boolValue").value((Boolean) value);
+            } else {
+                json.name("stringValue").value(value.toString());
+            }
+            json.endObject().endObject();
+        }
+        json.endArray();
+
+        // Status codes: 0 unset, 2 error
+        json.name("status").beginObject();
+        if (span.getError() != null) {
+            json.name("code").value(2).name("message").value(span.getError());
+        } else {
+            json.name("code").value(0);
+        }
+        json.endObject();
+        json.endObject();
+    }
+
+    private static void stringAttribute(JsonWriter json, String key, String value) throws IOException {
+        json.beginObject().name("key").value(key)
+                .name("value").beginObject().name("stringValue").value(value).endObject()
+                .endObject();
+    }
+}
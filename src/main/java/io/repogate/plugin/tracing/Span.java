@@ -0,0 +1,157 @@
+package io.repogate.plugin.tracing;
+
+import java.util.Arrays;
+
+/**
+ * One timed operation of a trace. Spans of unsampled (or disabled) tracing are the
+ * shared {@link #NOOP}, on which every call does nothing, so instrumented code needs
+ * no checks and allocates nothing when it is not traced; use {@link #isRecording()}
+ * to skip building expensive attribute values.
+ * <pre>
+ * Span span = Tracer.startSpan("dependency.verdict", Span.Kind.INTERNAL);
+ * try (Tracer.Scope ignored = span.makeCurrent()) { ... } finally { span.end(); }
+ * </pre>
+ */
+public final class Span {
+    public static final Span NOOP = new Span(null, 0, "", Kind.INTERNAL, 0);
+
+    public enum Kind {
+        // Numbering of the OTLP SpanKind enum
+        INTERNAL(1),
+        CLIENT(3);
+
+        final int otlpValue;
+
+        Kind(int otlpValue) {
+            this.otlpValue = otlpValue;
+        }
+    }
+
+    private final TraceContext context;
+    private final long parentSpanId;
+    private final String name;
+    private final Kind kind;
+    private final long startNanoTime;
+    private long endNanoTime;
+    // Alternating keys and values (String, Long or Boolean)
+    private Object[] attributes;
+    private int attributeCount;
+    private String error;
+    private boolean ended;
+
+    Span(TraceContext context, long parentSpanId, String name, Kind kind, long startNanoTime) {
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startNanoTime = startNanoTime;
+    }
+
+    public boolean isRecording() {
+        return context != null;
+    }
+
+    /**
+     * @return null for {@link #NOOP}
+     */
+    public TraceContext getContext() {
+        return context;
+    }
+
+    public Span setAttribute(String key, String value) {
+        return context != null ? put(key, value) : this;
+    }
+
+    public Span setAttribute(String key, long value) {
+        return context != null ? put(key, value) : this;
+    }
+
+    public Span setAttribute(String key, boolean value) {
+        return context != null ? put(key, value) : this;
+    }
+
+    /**
+     * Mark the operation as failed; the message should not contain tokens or URLs
+     */
+    public Span setError(String message) {
+        if (context != null) {
+            error = message != null ? message : "";
+        }
+        return this;
+    }
+
+    /**
+     * Make this span the parent of spans started on this thread until the scope is closed
+     */
+    public Tracer.Scope makeCurrent() {
+        return Tracer.withContext(context);
+    }
+
+    /**
+     * Finish and hand over for export; later calls are ignored
+     */
+    public void end() {
+        if (context == null) {
+            return;
+        }
+        synchronized (this) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            endNanoTime = System.nanoTime();
+        }
+        SpanBatcher.enqueue(this);
+    }
+
+    private synchronized Span put(String key, Object value) {
+        if (ended || value == null) {
+            return this;
+        }
+        if (attributes == null) {
+            attributes = new Object[8];
+        } else if (attributeCount * 2 == attributes.length) {
+            attributes = Arrays.copyOf(attributes, attributes.length * 2);
+        }
+        attributes[attributeCount * 2] = key;
+        attributes[attributeCount * 2 + 1] = value;
+        attributeCount++;
+        return this;
+    }
+
+    long getParentSpanId() {
+        return parentSpanId;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    long getStartNanoTime() {
+        return startNanoTime;
+    }
+
+    long getEndNanoTime() {
+        return endNanoTime;
+    }
+
+    int getAttributeCount() {
+        return attributeCount;
+    }
+
+    String getAttributeKey(int index) {
+        return (String) attributes[index * 2];
+    }
+
+    Object getAttributeValue(int index) {
+        return attributes[index * 2 + 1];
+    }
+
+    String getError() {
+        return error;
+    }
+}
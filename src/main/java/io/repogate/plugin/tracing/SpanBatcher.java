@@ -0,0 +1,136 @@
+package io.repogate.plugin.tracing;
+
+import io.repogate.plugin.logging.RepoGateLogger;
+import io.repogate.plugin.metrics.Counter;
+import io.repogate.plugin.metrics.Metrics;
+import io.repogate.plugin.utils.PluginDisposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects finished spans and exports them in batches from a single daemon thread,
+ * when a batch is full or every few seconds. Ending a span only enqueues it; when the
+ * buffer is full (collector down or far behind) spans are dropped and counted.
+ * Failed exports are not retried.
+ * <p>
+ * The thread is tied to {@link PluginDisposable}: when the plugin is unloaded it is
+ * interrupted and exports what is still buffered before it exits. Spans ending after
+ * that are dropped.
+ */
+final class SpanBatcher {
+    private static final RepoGateLogger LOG = RepoGateLogger.getInstance(SpanBatcher.class);
+
+    private static final int CAPACITY = 2048;
+    private static final int BATCH = 512;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long SHUTDOWN_TIMEOUT_MS = 2000;
+    private static final Counter EXPORTED = Metrics.counter("tracing.spans.exported");
+    private static final Counter DROPPED = Metrics.counter("tracing.spans.dropped");
+    private static final Counter EXPORT_ERRORS = Metrics.counter("tracing.export.errors");
+
+    private static final BlockingQueue<Span> QUEUE = new ArrayBlockingQueue<>(CAPACITY);
+    private static volatile Thread exporter;
+    private static volatile boolean stopped = false;
+
+    private SpanBatcher() {
+    }
+
+    static void enqueue(Span span) {
+        if (!ensureStarted() || !QUEUE.offer(span)) {
+            DROPPED.increment();
+        }
+    }
+
+    /**
+     * @return false if there is no exporter thread and none may be started
+     */
+    private static boolean ensureStarted() {
+        if (exporter != null) {
+            return true;
+        }
+        synchronized (SpanBatcher.class) {
+            if (exporter == null) {
+                if (stopped || !PluginDisposable.register(SpanBatcher::shutdown)) {
+                    return false;
+                }
+                Thread thread = new Thread(SpanBatcher::drain, "RepoGate Trace Exporter");
+                thread.setDaemon(true);
+                thread.start();
+                exporter = thread;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stop the exporter and wait (briefly) for it to export what is buffered
+     */
+    private static void shutdown() {
+        Thread thread;
+        synchronized (SpanBatcher.class) {
+            stopped = true;
+            thread = exporter;
+            exporter = null;
+        }
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drain() {
+        List<Span> batch = new ArrayList<>(BATCH);
+        long nextFlush = System.nanoTime() + FLUSH_INTERVAL_NANOS;
+        while (true) {
+            try {
+                Span first = QUEUE.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    QUEUE.drainTo(batch, BATCH - batch.size());
+                }
+                if (batch.size() >= BATCH || (!batch.isEmpty() && System.nanoTime() - nextFlush >= 0)) {
+                    export(batch);
+                    batch.clear();
+                    nextFlush = System.nanoTime() + FLUSH_INTERVAL_NANOS;
+                }
+            } catch (InterruptedException e) {
+                // Export what is left before exiting; the flag is already clear, so the HTTP call isn't cut short
+                QUEUE.drainTo(batch, BATCH - batch.size());
+                while (!batch.isEmpty()) {
+                    export(batch);
+                    batch.clear();
+                    QUEUE.drainTo(batch, BATCH);
+                }
+                return;
+            } catch (RuntimeException e) {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void export(List<Span> batch) {
+        SpanExporter target = Tracer.getExporter();
+        if (target == null) {
+            // Tracing was turned off after these spans ended
+            return;
+        }
+        int size = batch.size();
+        try {
+            target.export(batch);
+            EXPORTED.add(size);
+        } catch (Exception e) {
+            EXPORT_ERRORS.increment();
+            DROPPED.add(size);
+            LOG.debug(() -> "Trace export failed, dropped " + size + " spans: " + e.getMessage());
+        }
+    }
+}
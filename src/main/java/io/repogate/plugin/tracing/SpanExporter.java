@@ -0,0 +1,100 @@
+package io.repogate.plugin.tracing;
+
+import io.repogate.plugin.api.HttpClientProvider;
+import okhttp3.Authenticator;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Where batches of finished spans go. Called only from the batcher's thread.
+ */
+interface SpanExporter {
+
+    void export(List<Span> spans) throws IOException;
+
+    /**
+     * An http(s) URL is an OTLP/HTTP collector (the /v1/traces path is added unless
+     * present); anything else is a file path, optionally prefixed with "file:"
+     */
+    static SpanExporter forTarget(String target) {
+        if (target.startsWith("http://") || target.startsWith("https://")) {
+            String base = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+            return new Otlp(base.endsWith("/v1/traces") ? base : base + "/v1/traces");
+        }
+        return new JsonLines(Paths.get(target.startsWith("file:") ? target.substring("file:".length()) : target));
+    }
+
+    /**
+     * OTLP/HTTP with JSON encoding, e.g. to a collector on localhost:4318
+     */
+    final class Otlp implements SpanExporter {
+        private static final MediaType JSON = MediaType.get("application/json");
+
+        private final String url;
+        private volatile OkHttpClient client;
+
+        Otlp(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public void export(List<Span> spans) throws IOException {
+            Request request = new Request.Builder()
+                    .url(url)
+                    .post(RequestBody.create(OtlpJson.encode(spans), JSON))
+                    .build();
+            try (Response response = client().newCall(request).execute()) {
+                if (!response.isSuccessful()) {
+                    throw new IOException("Collector answered " + response.code());
+                }
+            }
+        }
+
+        /**
+         * The shared pool and dispatcher, without the API client's metrics, tracing and token handling
+         */
+        private OkHttpClient client() {
+            OkHttpClient current = client;
+            if (current == null) {
+                OkHttpClient.Builder builder = HttpClientProvider.getClient().newBuilder()
+                        .authenticator(Authenticator.NONE);
+                builder.interceptors().clear();
+                current = builder.build();
+                client = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * One ExportTraceServiceRequest per line, readable by the collector's otlpjsonfile receiver
+     */
+    final class JsonLines implements SpanExporter {
+        private final Path file;
+
+        JsonLines(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public void export(List<Span> spans) throws IOException {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            byte[] line = (OtlpJson.encode(spans) + "\n").getBytes(StandardCharsets.UTF_8);
+            Files.write(file, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.repogate.plugin.tracing;
+
+/**
+ * Identity of a sampled span: 128-bit trace id and 64-bit span id. Unsampled work
+ * has no context at all, so every context here is propagated with the sampled flag.
+ */
+public final class TraceContext {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long traceIdHigh;
+    private final long traceIdLow;
+    private final long spanId;
+
+    TraceContext(long traceIdHigh, long traceIdLow, long spanId) {
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.spanId = spanId;
+    }
+
+    long getTraceIdHigh() {
+        return traceIdHigh;
+    }
+
+    long getTraceIdLow() {
+        return traceIdLow;
+    }
+
+    long getSpanIdValue() {
+        return spanId;
+    }
+
+    /**
+     * 32 lowercase hex digits, as in traceparent and OTLP/JSON
+     */
+    public String getTraceId() {
+        StringBuilder out = new StringBuilder(32);
+        appendHex(out, traceIdHigh);
+        appendHex(out, traceIdLow);
+        return out.toString();
+    }
+
+    /**
+     * 16 lowercase hex digits
+     */
+    public String getSpanId() {
+        return hex(spanId);
+    }
+
+    /**
+     * W3C Trace Context header value: version 00, sampled
+     */
+    public String toTraceparent() {
+        StringBuilder out = new StringBuilder(55);
+        out.append("00-");
+        appendHex(out, traceIdHigh);
+        appendHex(out, traceIdLow);
+        out.append('-');
+        appendHex(out, spanId);
+        out.append("-01");
+        return out.toString();
+    }
+
+    static String hex(long value) {
+        StringBuilder out = new StringBuilder(16);
+        appendHex(out, value);
+        return out.toString();
+    }
+
+    private static void appendHex(StringBuilder out, long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            out.append(HEX[(int) (value >>> shift) & 0xf]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toTraceparent();
+    }
+}
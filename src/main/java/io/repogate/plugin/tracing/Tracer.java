@@ -0,0 +1,139 @@
+package io.repogate.plugin.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traces of validation flows (detect, /request, /check polls, verdict), exported in
+ * OpenTelemetry's OTLP format to a local collector or a file so a developer's "still
+ * pending" report can be matched with server-side traces: API calls carry a W3C
+ * {@code traceparent} header.
+ * <p>
+ * Off unless an export target is configured. Sampling is decided once per trace, when
+ * it starts; unsampled traces are the no-op {@link Span#NOOP} throughout and cost a
+ * random number and a thread-local read. Finished spans are exported in batches from
+ * one background thread.
+ * <p>
+ * The current span is per thread. Work handed to another thread keeps its trace by
+ * capturing {@link #current()} and restoring it with {@link #withContext}, or with
+ * {@link #wrap(Runnable)}.
+ */
+public final class Tracer {
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+    // Span times are taken from nanoTime and converted with one offset taken at startup
+    private static final long EPOCH_OFFSET_NANOS = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+
+    private static volatile SpanExporter exporter;
+    private static volatile double sampleRatio = 0.1;
+    private static String configuredTarget = "";
+
+    private Tracer() {
+    }
+
+    /**
+     * Closes what {@link #withContext} or {@link Span#makeCurrent()} opened
+     */
+    public interface Scope extends AutoCloseable {
+        Scope NOOP = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    /**
+     * @param target OTLP/HTTP collector URL (e.g. http://localhost:4318), a file path for
+     *               OTLP JSON lines, or empty to turn tracing off
+     * @param ratio  share of flows traced, 0 - 1
+     */
+    public static synchronized void configure(String target, double ratio) {
+        sampleRatio = Math.min(Math.max(ratio, 0.0), 1.0);
+        String normalized = target != null ? target.trim() : "";
+        if (normalized.equals(configuredTarget)) {
+            return;
+        }
+        configuredTarget = normalized;
+        exporter = normalized.isEmpty() ? null : SpanExporter.forTarget(normalized);
+    }
+
+    public static boolean isEnabled() {
+        return exporter != null;
+    }
+
+    static SpanExporter getExporter() {
+        return exporter;
+    }
+
+    /**
+     * Start a new trace, sampled at the configured ratio
+     */
+    public static Span startTrace(String name) {
+        if (exporter == null) {
+            return Span.NOOP;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() >= sampleRatio) {
+            return Span.NOOP;
+        }
+        TraceContext context = new TraceContext(nonZero(random), nonZero(random), nonZero(random));
+        return new Span(context, 0, name, Span.Kind.INTERNAL, System.nanoTime());
+    }
+
+    /**
+     * Start a child of the current span, or a no-op span if this thread is not in a sampled trace
+     */
+    public static Span startSpan(String name, Span.Kind kind) {
+        TraceContext parent = CURRENT.get();
+        if (parent == null || exporter == null) {
+            return Span.NOOP;
+        }
+        TraceContext context = new TraceContext(parent.getTraceIdHigh(), parent.getTraceIdLow(),
+                nonZero(ThreadLocalRandom.current()));
+        return new Span(context, parent.getSpanIdValue(), name, kind, System.nanoTime());
+    }
+
+    /**
+     * The current span's context on this thread, or null if it is not in a sampled trace
+     */
+    public static TraceContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Make {@code context} current on this thread until the scope is closed; null means no trace
+     */
+    public static Scope withContext(TraceContext context) {
+        TraceContext previous = CURRENT.get();
+        if (context == previous) {
+            return Scope.NOOP;
+        }
+        CURRENT.set(context);
+        return () -> CURRENT.set(previous);
+    }
+
+    /**
+     * {@code work} running in the current trace on whatever thread executes it
+     */
+    public static Runnable wrap(Runnable work) {
+        TraceContext context = CURRENT.get();
+        if (context == null) {
+            return work;
+        }
+        return () -> {
+            try (Scope ignored = withContext(context)) {
+                work.run();
+            }
+        };
+    }
+
+    static long toEpochNanos(long nanoTime) {
+        return nanoTime + EPOCH_OFFSET_NANOS;
+    }
+
+    private static long nonZero(ThreadLocalRandom random) {
+        long value;
+        do {
+            value = random.nextLong();
+        } while (value == 0);
+        return value;
+    }
+}
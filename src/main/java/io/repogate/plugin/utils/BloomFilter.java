@@ -0,0 +1,113 @@
+package io.repogate.plugin.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Compact, immutable-after-build Bloom filter over strings.
+ * "false" from {@link #mightContain(String)} is definite; "true" may be a false
+ * positive with roughly the probability the filter was sized for.
+ */
+public class BloomFilter {
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long[] bits, int hashCount) {
+        this.bits = bits;
+        this.bitCount = bits.length * 64;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Create an empty filter sized for the expected number of entries and false positive rate
+     */
+    public static BloomFilter create(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(expectedEntries, 1);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, Math.min((m + 63) / 64, Integer.MAX_VALUE / 64));
+        int k = Math.max(1, (int) Math.round((double) words * 64 / n * Math.log(2)));
+        return new BloomFilter(new long[words], Math.min(k, 16));
+    }
+
+    public void put(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int combined = h1 + i * h2;
+            int index = (combined & Integer.MAX_VALUE) % bitCount;
+            bits[index >>> 6] |= 1L << index;
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int combined = h1 + i * h2;
+            int index = (combined & Integer.MAX_VALUE) % bitCount;
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public int getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Serialize as base64 of [hashCount:int][words:long...], big-endian
+     */
+    public String toBase64() {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + bits.length * 8);
+        buffer.putInt(hashCount);
+        for (long word : bits) {
+            buffer.putLong(word);
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    /**
+     * Read a filter written by {@link #toBase64()} (or the server's equivalent)
+     */
+    public static BloomFilter fromBase64(String encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+        int hashCount = buffer.getInt();
+        long[] bits = new long[buffer.remaining() / 8];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = buffer.getLong();
+        }
+        if (bits.length == 0 || hashCount <= 0) {
+            throw new IllegalArgumentException("Invalid Bloom filter encoding");
+        }
+        return new BloomFilter(bits, hashCount);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with a MurmurHash3 mix
+     */
+    static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
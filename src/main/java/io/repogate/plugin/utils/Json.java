@@ -0,0 +1,28 @@
+package io.repogate.plugin.utils;
+
+import com.google.gson.Gson;
+import io.repogate.plugin.startup.StartupTrace;
+
+/**
+ * The plugin's single Gson instance, built on first use rather than by every
+ * parser, service and client. Gson is thread-safe and keeps its type adapter
+ * cache per instance, so sharing it also avoids rebuilding adapters.
+ */
+public final class Json {
+    private Json() {
+    }
+
+    public static Gson gson() {
+        return Holder.GSON;
+    }
+
+    private static final class Holder {
+        private static final Gson GSON = create();
+
+        private static Gson create() {
+            try (StartupTrace ignored = StartupTrace.begin("gson")) {
+                return new Gson();
+            }
+        }
+    }
+}
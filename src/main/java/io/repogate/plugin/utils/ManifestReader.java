@@ -0,0 +1,21 @@
+package io.repogate.plugin.utils;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import io.repogate.plugin.parser.ByteManifestSource;
+import io.repogate.plugin.parser.ManifestSource;
+
+import java.io.IOException;
+
+/**
+ * Opens manifests as {@link ManifestSource}s for the parsers
+ */
+public class ManifestReader {
+    /**
+     * Open the content of a manifest file.
+     * Always reads through the VFS into a heap buffer: the parsers see the same snapshot as
+     * the rest of the IDE, and no mapping is left to keep the file locked on Windows.
+     */
+    public static ManifestSource read(VirtualFile file) throws IOException {
+        return ByteManifestSource.wrap(file.contentsToByteArray());
+    }
+}
@@ -0,0 +1,281 @@
+package io.repogate.plugin.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled filter deciding which paths are skipped during dependency scans.
+ * Excluded roots live in a prefix trie over path segments; glob and .gitignore
+ * style rules are compiled once, with plain directory names (node_modules, target, ...)
+ * kept in a hash set so the common case is a lookup per path segment.
+ * Paths are matched as strings, so the filter can run before any file content is read.
+ */
+public class PathFilter {
+    private final TrieNode excludedRoots = new TrieNode();
+    private final String basePath;
+    private final Set<String> excludedSegments = new HashSet<>();
+    private final List<Rule> rules = new ArrayList<>();
+
+    /**
+     * @param basePath Project base path; glob rules are matched relative to it
+     */
+    public PathFilter(String basePath) {
+        this.basePath = basePath != null ? stripTrailingSlash(basePath) : null;
+    }
+
+    /**
+     * Exclude everything below an absolute directory
+     */
+    public void addExcludedRoot(String rootPath) {
+        TrieNode node = excludedRoots;
+        for (String segment : splitSegments(stripTrailingSlash(rootPath))) {
+            node = node.children.computeIfAbsent(segment, s -> new TrieNode());
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * Add a user glob pattern (for example "dist", "**&#47;generated/**" or "/vendor")
+     */
+    public void addPattern(String pattern) {
+        addRule(pattern, "");
+    }
+
+    /**
+     * Add the rules of a .gitignore file located in the given directory
+     */
+    public void addIgnoreRules(String ignoreFileDirectory, String content) {
+        String prefix = relativize(stripTrailingSlash(ignoreFileDirectory));
+        if (prefix == null) {
+            return;
+        }
+        for (String line : content.split("\r?\n")) {
+            addRule(line, prefix);
+        }
+    }
+
+    /**
+     * Check whether an absolute path is excluded from scanning
+     */
+    public boolean isExcluded(String path) {
+        if (isUnderExcludedRoot(path)) {
+            return true;
+        }
+
+        String relativePath = relativize(path);
+        if (relativePath == null || relativePath.isEmpty()) {
+            return false;
+        }
+
+        String[] segments = splitSegments(relativePath);
+        // Any directory above the file named like an excluded segment
+        for (int i = 0; i < segments.length - 1; i++) {
+            if (excludedSegments.contains(segments[i])) {
+                return true;
+            }
+        }
+
+        if (rules.isEmpty()) {
+            return false;
+        }
+
+        // Last matching rule wins, as in .gitignore; a rule on a directory covers its contents
+        boolean excluded = false;
+        StringBuilder prefix = new StringBuilder(relativePath.length());
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                prefix.append('/');
+            }
+            prefix.append(segments[i]);
+            boolean isDirectory = i < segments.length - 1;
+            for (Rule rule : rules) {
+                if (rule.directoryOnly && !isDirectory) {
+                    continue;
+                }
+                if (rule.matches(prefix, segments[i])) {
+                    excluded = !rule.negated;
+                }
+            }
+            if (excluded && isDirectory) {
+                // git does not re-include files below an excluded directory
+                return true;
+            }
+        }
+        return excluded;
+    }
+
+    private boolean isUnderExcludedRoot(String path) {
+        TrieNode node = excludedRoots;
+        if (node.children.isEmpty()) {
+            return false;
+        }
+        for (String segment : splitSegments(path)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addRule(String rawPattern, String prefix) {
+        String pattern = rawPattern.trim();
+        if (pattern.isEmpty() || pattern.startsWith("#")) {
+            return;
+        }
+
+        boolean negated = pattern.startsWith("!");
+        if (negated) {
+            pattern = pattern.substring(1);
+        }
+        boolean directoryOnly = pattern.endsWith("/");
+        pattern = stripTrailingSlash(pattern);
+        if (pattern.isEmpty()) {
+            return;
+        }
+
+        // A slash anywhere but the end anchors the pattern to the ignore file's directory
+        boolean anchored = pattern.contains("/");
+        if (pattern.startsWith("/")) {
+            pattern = pattern.substring(1);
+        }
+
+        if (!anchored && !negated && prefix.isEmpty() && isLiteral(pattern)) {
+            if (directoryOnly) {
+                excludedSegments.add(pattern);
+            } else {
+                // Plain names also exclude files, so keep them as rules as well
+                excludedSegments.add(pattern);
+                rules.add(new Rule(compileGlob(pattern), false, false, false));
+            }
+            return;
+        }
+
+        if (anchored) {
+            String full = prefix.isEmpty() ? pattern : prefix + "/" + pattern;
+            rules.add(new Rule(compileGlob(full), true, negated, directoryOnly));
+        } else if (prefix.isEmpty()) {
+            rules.add(new Rule(compileGlob(pattern), false, negated, directoryOnly));
+        } else {
+            // Unanchored rule from a nested .gitignore: any depth below that directory
+            rules.add(new Rule(compileGlob(prefix + "/**/" + pattern), true, negated, directoryOnly));
+        }
+    }
+
+    private String relativize(String path) {
+        if (basePath == null) {
+            return null;
+        }
+        if (path.equals(basePath)) {
+            return "";
+        }
+        if (path.startsWith(basePath) && path.length() > basePath.length() && path.charAt(basePath.length()) == '/') {
+            return path.substring(basePath.length() + 1);
+        }
+        return null;
+    }
+
+    private static boolean isLiteral(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Translate a glob into a regex: '*' and '?' stay within a segment, '**' spans segments
+     */
+    static Pattern compileGlob(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 16);
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                boolean doubleStar = i + 1 < glob.length() && glob.charAt(i + 1) == '*';
+                if (doubleStar) {
+                    boolean followedBySlash = i + 2 < glob.length() && glob.charAt(i + 2) == '/';
+                    if (followedBySlash) {
+                        regex.append("(?:.*/)?");
+                        i += 3;
+                    } else {
+                        regex.append(".*");
+                        i += 2;
+                    }
+                    continue;
+                }
+                regex.append("[^/]*");
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else if (c == '[') {
+                int end = glob.indexOf(']', i + 1);
+                if (end < 0) {
+                    regex.append("\\[");
+                } else {
+                    String set = glob.substring(i + 1, end);
+                    if (set.startsWith("!")) {
+                        set = "^" + set.substring(1);
+                    }
+                    regex.append('[').append(set.replace("\\", "\\\\")).append(']');
+                    i = end;
+                }
+            } else if (c == '\\' && i + 1 < glob.length()) {
+                regex.append(Pattern.quote(String.valueOf(glob.charAt(i + 1))));
+                i++;
+            } else if ("().+^$|{}".indexOf(c) >= 0) {
+                regex.append('\\').append(c);
+            } else {
+                regex.append(c);
+            }
+            i++;
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static String[] splitSegments(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        return start == path.length() ? new String[0] : path.substring(start).split("/");
+    }
+
+    private static String stripTrailingSlash(String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private static final class TrieNode {
+        private final Map<String, TrieNode> children = new HashMap<>();
+        private boolean terminal;
+    }
+
+    private static final class Rule {
+        private final Pattern pattern;
+        private final boolean anchored;
+        private final boolean negated;
+        private final boolean directoryOnly;
+
+        Rule(Pattern pattern, boolean anchored, boolean negated, boolean directoryOnly) {
+            this.pattern = pattern;
+            this.anchored = anchored;
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+        }
+
+        /**
+         * Anchored rules match the path from the project root, others match a single segment
+         */
+        boolean matches(CharSequence relativePrefix, String segment) {
+            return anchored
+                    ? pattern.matcher(relativePrefix).matches()
+                    : pattern.matcher(segment).matches();
+        }
+    }
+}
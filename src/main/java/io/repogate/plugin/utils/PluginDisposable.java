@@ -0,0 +1,41 @@
+package io.repogate.plugin.utils;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.util.Disposer;
+
+/**
+ * Parent for plugin-wide resources that aren't owned by a service, such as the
+ * background threads of static helpers. Disposed when the plugin is unloaded or the
+ * IDE shuts down, so nothing of the plugin's class loader outlives it.
+ */
+@Service
+public final class PluginDisposable implements Disposable {
+
+    public static PluginDisposable getInstance() {
+        return ApplicationManager.getApplication().getService(PluginDisposable.class);
+    }
+
+    /**
+     * Run {@code onDispose} when the plugin goes away
+     * @return false if there is no application or it is already shutting down; the
+     * caller must not start anything that needs cleaning up then
+     */
+    public static boolean register(Disposable onDispose) {
+        Application application = ApplicationManager.getApplication();
+        if (application == null || application.isDisposed()) {
+            return false;
+        }
+        PluginDisposable parent = getInstance();
+        if (parent == null) {
+            return false;
+        }
+        return Disposer.tryRegister(parent, onDispose);
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
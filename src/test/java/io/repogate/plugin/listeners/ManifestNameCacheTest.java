@@ -0,0 +1,64 @@
+package io.repogate.plugin.listeners;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Name sets are looked up by hash; a hit must still be confirmed against the stored name.
+ */
+public class ManifestNameCacheTest {
+    // Two distinct names with the same 64-bit FNV-1a hash
+    private static final String KNOWN = "ea3a47d056ec4306";
+    private static final String COLLIDING = "c434db39f759eb8c";
+
+    @Test
+    public void collidingNamesHaveTheSameHash() {
+        assertEquals(ManifestNameCache.hash(KNOWN), ManifestNameCache.hash(COLLIDING));
+    }
+
+    @Test
+    public void hashCollisionDoesNotMakeANewNameLookKnown() {
+        ManifestNameCache.Names names = ManifestNameCache.Names.of(Arrays.asList("lodash", KNOWN, "react"));
+
+        assertTrue(names.contains(KNOWN));
+        assertFalse(names.contains(COLLIDING));
+    }
+
+    @Test
+    public void collidingNamesAreBothKept() {
+        ManifestNameCache.Names names = ManifestNameCache.Names.of(Arrays.asList(COLLIDING, "lodash", KNOWN));
+
+        assertEquals(3, names.size());
+        assertTrue(names.contains(KNOWN));
+        assertTrue(names.contains(COLLIDING));
+        assertTrue(names.contains("lodash"));
+    }
+
+    @Test
+    public void duplicatesAreStoredOnce() {
+        ManifestNameCache.Names names = ManifestNameCache.Names.of(Arrays.asList("react", "lodash", "react"));
+
+        assertEquals(2, names.size());
+        assertTrue(names.contains("react"));
+        assertTrue(names.contains(new StringBuilder("lodash")));
+        assertFalse(names.contains("lodash-es"));
+    }
+
+    @Test
+    public void declaredOutsideIgnoresTheManifestItself() {
+        ManifestNameCache cache = new ManifestNameCache();
+        cache.put("/app/package.json", Collections.singletonList(KNOWN));
+        cache.put("/app/web/package.json", Collections.singletonList("react"));
+
+        assertTrue(cache.isDeclaredOutside("/app/web/package.json", KNOWN));
+        assertFalse(cache.isDeclaredOutside("/app/package.json", KNOWN));
+        assertFalse(cache.isDeclaredOutside("/app/web/package.json", COLLIDING));
+        assertEquals(0, cache.get("/app/pom.xml").size());
+    }
+}
@@ -0,0 +1,48 @@
+package io.repogate.plugin.parser;
+
+import io.repogate.plugin.model.DependencyInfo;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * A manifest that is half-typed must fail as a whole: returning what was read before
+ * the error would make the file listener treat everything after it as removed.
+ */
+public class DependencyParserFailureTest {
+
+    @Test
+    public void completeNpmManifestIsParsed() throws ManifestParseException {
+        List<DependencyInfo> dependencies = new NpmDependencyParser().parseDependencies(source(
+                "{\"dependencies\": {\"lodash\": \"4.17.21\", \"react\": \"18.2.0\"}}"));
+
+        assertEquals(2, dependencies.size());
+        assertEquals("lodash", dependencies.get(0).getPackageName());
+    }
+
+    @Test
+    public void halfTypedNpmManifestFails() {
+        String[] edits = {
+                "{\"dependencies\": {\"lodash\": \"4.17.21\", \"rea",
+                "{\"dependencies\": {\"lodash\": \"4.17.21\" \"react\": \"18.2.0\"}}",
+                "{\"dependencies\": {\"lodash\": \"4.17.21\", \"react\":",
+                "",
+        };
+        for (String edit : edits) {
+            try {
+                new NpmDependencyParser().parseDependencies(source(edit));
+                fail("Expected a parse failure for: " + edit);
+            } catch (ManifestParseException expected) {
+                // Callers keep the names of the last good parse
+            }
+        }
+    }
+
+    private static ManifestSource source(String content) {
+        return ByteManifestSource.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
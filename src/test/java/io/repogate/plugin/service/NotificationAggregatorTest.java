@@ -0,0 +1,85 @@
+package io.repogate.plugin.service;
+
+import com.intellij.notification.Notification;
+import com.intellij.notification.NotificationType;
+import com.intellij.notification.Notifications;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import io.repogate.plugin.metrics.Metrics;
+import io.repogate.plugin.metrics.MetricsSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A burst of dependency notifications must reach the EDT as one dispatch, however many
+ * events it carries, and delivering it must stay well within a frame.
+ */
+public class NotificationAggregatorTest extends BasePlatformTestCase {
+    private static final int BURST = 60;
+    // One summary balloon handed to the bus; far below a 16 ms frame even on a loaded CI agent
+    private static final long EDT_BUDGET_MICROS = 10_000;
+
+    private final List<Notification> shown = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Metrics.reset();
+        getProject().getMessageBus().connect(getTestRootDisposable()).subscribe(Notifications.TOPIC, new Notifications() {
+            @Override
+            public void notify(@NotNull Notification notification) {
+                shown.add(notification);
+            }
+        });
+    }
+
+    public void testBurstIsSummarizedInOneDispatch() {
+        NotificationAggregator aggregator = NotificationAggregator.getInstance(getProject());
+        // The light project and its services are shared between tests
+        long dispatchesBefore = aggregator.getDispatchCount();
+        long eventsBefore = aggregator.getEventCount();
+
+        for (int i = 0; i < BURST; i++) {
+            NotificationType type = i % 10 == 0 ? NotificationType.WARNING : NotificationType.INFORMATION;
+            aggregator.post(i % 10 == 0 ? "✗ RepoGate" : "✓ RepoGate", "package-" + i, type);
+        }
+        awaitDelivery();
+
+        assertEquals(BURST, aggregator.getEventCount() - eventsBefore);
+        assertEquals(1, aggregator.getDispatchCount() - dispatchesBefore);
+        assertEquals(1, shown.size());
+        assertEquals("RepoGate: " + BURST + " dependency updates", shown.get(0).getTitle());
+        assertEquals(NotificationType.WARNING, shown.get(0).getType());
+
+        MetricsSnapshot.HistogramSnapshot edt = edtTime();
+        assertEquals(1, edt.getCount());
+        assertTrue("EDT time " + edt.getMaxMicros() + " µs over budget", edt.getMaxMicros() < EDT_BUDGET_MICROS);
+    }
+
+    public void testSmallWindowIsShownAsIs() {
+        NotificationAggregator aggregator = NotificationAggregator.getInstance(getProject());
+        long dispatchesBefore = aggregator.getDispatchCount();
+
+        aggregator.post("✓ RepoGate", "lodash", NotificationType.INFORMATION);
+        aggregator.post("✓ RepoGate", "react", NotificationType.INFORMATION);
+        awaitDelivery();
+
+        assertEquals(1, aggregator.getDispatchCount() - dispatchesBefore);
+        assertEquals(2, shown.size());
+        assertEquals(1, edtTime().getCount());
+    }
+
+    /**
+     * Wait for the window to close, pumping the EDT the dispatched runnable is queued on
+     */
+    private void awaitDelivery() {
+        PlatformTestUtil.waitWithEventsDispatching("Notification window was not delivered",
+                () -> edtTime().getCount() > 0, 10);
+    }
+
+    private static MetricsSnapshot.HistogramSnapshot edtTime() {
+        return Metrics.snapshot().getHistograms().get("notifications.edt");
+    }
+}
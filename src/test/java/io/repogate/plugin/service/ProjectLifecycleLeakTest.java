@@ -0,0 +1,143 @@
+package io.repogate.plugin.service;
+
+import com.intellij.ide.impl.OpenProjectTask;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ex.ProjectManagerEx;
+import com.intellij.testFramework.HeavyPlatformTestCase;
+import com.intellij.testFramework.PlatformTestUtil;
+import io.repogate.plugin.auth.AuthManager;
+import io.repogate.plugin.loadtest.StubConfig;
+import io.repogate.plugin.loadtest.StubRepoGateServer;
+import io.repogate.plugin.metrics.Metrics;
+import io.repogate.plugin.model.DependencyInfo;
+import io.repogate.plugin.settings.RepoGateSettings;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opening and closing many projects must not leave anything of them behind: no
+ * plugin threads, no poll tasks or queued validations, and no reachable Project.
+ * Signed in against the stub server, which keeps every package pending, so each
+ * project really has a poll running when it closes.
+ */
+public class ProjectLifecycleLeakTest extends HeavyPlatformTestCase {
+    private static final int PROJECTS = 50;
+    private static final long GC_TIMEOUT_MS = 30_000;
+    private static final int POLL_START_TIMEOUT_SECONDS = 10;
+
+    private StubRepoGateServer server;
+    private String previousApiUrl;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        server = new StubRepoGateServer(new StubConfig().latency(0, 0).defaultScript("pending")).start();
+        previousApiUrl = RepoGateSettings.getInstance().getApiUrl();
+        RepoGateSettings.getInstance().setApiUrl(server.getBaseUrl());
+        AuthManager.getInstance().signInWithAPIToken("leak-test-token");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            AuthManager.getInstance().signOut();
+            RepoGateSettings.getInstance().setApiUrl(previousApiUrl);
+            server.close();
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testOpeningAndClosingProjectsLeavesNothingBehind() throws Exception {
+        // The first project starts the application-level services and threads; those are the baseline
+        openUseAndClose();
+        int threadsBefore = repoGateThreadCount();
+        long pollsBefore = activePolls();
+        int queuedBefore = ValidationDispatcher.getInstance().getQueuedCount();
+
+        List<WeakReference<Project>> closed = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            closed.add(openUseAndClose());
+        }
+
+        assertEquals("RepoGate threads", threadsBefore, repoGateThreadCount());
+        assertEquals("Active poll tasks", pollsBefore, activePolls());
+        assertEquals("Queued validations", queuedBefore, ValidationDispatcher.getInstance().getQueuedCount());
+        assertEquals("Closed projects still reachable", 0, awaitCollected(closed));
+        // The warm-up project plus every one of the 50
+        assertTrue("Not every project requested validation",
+                server.getCallCounts().getOrDefault("/request", 0L) >= PROJECTS + 1);
+    }
+
+    /**
+     * Open a project, start the per-project services the plugin creates on a manifest
+     * change, wait until the dependency is being polled, then close it
+     * @return a weak reference to the closed project
+     */
+    private WeakReference<Project> openUseAndClose() throws Exception {
+        Path directory = createTempDirectory().toPath();
+        Files.createDirectories(directory.resolve(".idea"));
+        Project project = ProjectManagerEx.getInstanceEx().openProject(directory, OpenProjectTask.build());
+        assertNotNull(project);
+        try {
+            // A new name per project, so the answer comes from /request and not the status cache
+            DependencyInfo dependency = new DependencyInfo("leak-" + directory.getFileName(), "npm", "1.0.0",
+                    directory.resolve("package.json").toString());
+            DependencyValidator validator = DependencyValidator.getInstance(project);
+            long pollsBefore = activePolls();
+            validator.validateDependency(dependency);
+            ScanPathFilterService.getInstance(project);
+            NotificationAggregator.getInstance(project).post("✓ RepoGate", dependency.getPackageName(), NotificationType.INFORMATION);
+
+            // /request answers "pending", which starts the poll this project must take down on close
+            PlatformTestUtil.waitWithEventsDispatching("No poll started for " + project.getName(),
+                    () -> validator.getNextPollTimes().size() == 1, POLL_START_TIMEOUT_SECONDS);
+            assertEquals("Active poll tasks while open", pollsBefore + 1, activePolls());
+        } finally {
+            PlatformTestUtil.forceCloseProjectWithoutSaving(project);
+        }
+        return new WeakReference<>(project);
+    }
+
+    /**
+     * @return how many of the projects are still reachable once the timeout is up
+     */
+    private static int awaitCollected(List<WeakReference<Project>> projects) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + GC_TIMEOUT_MS;
+        int retained;
+        do {
+            // Disposal may still have EDT work queued that references the project
+            PlatformTestUtil.dispatchAllInvocationEventsInIdeEventQueue();
+            System.gc();
+            retained = 0;
+            for (WeakReference<Project> project : projects) {
+                if (project.get() != null) {
+                    retained++;
+                }
+            }
+            if (retained > 0) {
+                Thread.sleep(100);
+            }
+        } while (retained > 0 && System.currentTimeMillis() < deadline);
+        return retained;
+    }
+
+    private static int repoGateThreadCount() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("RepoGate")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long activePolls() {
+        return Metrics.snapshot().getCounters().getOrDefault("validator.pollTasks.active", 0L);
+    }
+}
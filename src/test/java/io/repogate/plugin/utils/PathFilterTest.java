@@ -0,0 +1,146 @@
+package io.repogate.plugin.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Scan exclusion rules, matched the way git reads a .gitignore.
+ */
+public class PathFilterTest {
+    private static final String BASE = "/work/app";
+
+    @Test
+    public void excludedRootCoversEverythingBelowIt() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addExcludedRoot(BASE + "/build/");
+
+        assertTrue(filter.isExcluded(BASE + "/build/libs/package.json"));
+        assertFalse(filter.isExcluded(BASE + "/buildSrc/package.json"));
+    }
+
+    @Test
+    public void leadingSlashAnchorsToTheProjectRoot() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addPattern("/vendor");
+
+        assertTrue(filter.isExcluded(BASE + "/vendor/lib/package.json"));
+        assertFalse(filter.isExcluded(BASE + "/web/vendor/package.json"));
+    }
+
+    @Test
+    public void middleSlashAnchorsToTheProjectRoot() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addPattern("web/dist");
+
+        assertTrue(filter.isExcluded(BASE + "/web/dist/package.json"));
+        assertFalse(filter.isExcluded(BASE + "/other/web/dist/package.json"));
+    }
+
+    @Test
+    public void doubleStarSpansDirectories() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addPattern("**/generated/**");
+
+        assertTrue(filter.isExcluded(BASE + "/generated/package.json"));
+        assertTrue(filter.isExcluded(BASE + "/a/b/generated/c/pom.xml"));
+        assertFalse(filter.isExcluded(BASE + "/a/generated-sources/pom.xml"));
+    }
+
+    @Test
+    public void singleStarStaysWithinASegment() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addPattern("/packages/*/fixtures");
+
+        assertTrue(filter.isExcluded(BASE + "/packages/core/fixtures/package.json"));
+        assertFalse(filter.isExcluded(BASE + "/packages/core/nested/fixtures/package.json"));
+    }
+
+    @Test
+    public void directoryOnlyRuleSkipsFiles() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addPattern("/out*/");
+
+        assertTrue(filter.isExcluded(BASE + "/output/package.json"));
+        assertFalse(filter.isExcluded(BASE + "/outline.gradle"));
+    }
+
+    @Test
+    public void lastMatchingRuleWins() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addIgnoreRules(BASE, "*.gradle\n!settings.gradle\n");
+
+        assertTrue(filter.isExcluded(BASE + "/app/build.gradle"));
+        assertFalse(filter.isExcluded(BASE + "/settings.gradle"));
+
+        filter.addPattern("settings.gradle");
+        assertTrue(filter.isExcluded(BASE + "/settings.gradle"));
+    }
+
+    @Test
+    public void negationCannotReincludeBelowAnExcludedDirectory() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addIgnoreRules(BASE, "/samples/\n!/samples/keep/pom.xml\n");
+
+        assertTrue(filter.isExcluded(BASE + "/samples/keep/pom.xml"));
+    }
+
+    @Test
+    public void commentsAndBlankLinesAreIgnored() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addIgnoreRules(BASE, "# package.json\n\n   \n");
+
+        assertFalse(filter.isExcluded(BASE + "/package.json"));
+    }
+
+    @Test
+    public void nestedIgnoreFileAppliesBelowItsDirectoryOnly() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addIgnoreRules(BASE + "/web", "cache\n/local\n");
+
+        assertTrue(filter.isExcluded(BASE + "/web/cache/package.json"));
+        assertTrue(filter.isExcluded(BASE + "/web/src/cache/package.json"));
+        assertTrue(filter.isExcluded(BASE + "/web/local/package.json"));
+        assertFalse(filter.isExcluded(BASE + "/web/src/local/package.json"));
+        assertFalse(filter.isExcluded(BASE + "/cache/package.json"));
+    }
+
+    @Test
+    public void ignoreFileOutsideTheProjectIsSkipped() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addIgnoreRules("/elsewhere", "*\n");
+
+        assertFalse(filter.isExcluded(BASE + "/package.json"));
+    }
+
+    @Test
+    public void literalNameExcludesDirectoriesAtAnyDepth() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addPattern("node_modules/");
+
+        assertTrue(filter.isExcluded(BASE + "/node_modules/lodash/package.json"));
+        assertTrue(filter.isExcluded(BASE + "/web/node_modules/react/package.json"));
+        // Directory-only: a file of that name is still scanned
+        assertFalse(filter.isExcluded(BASE + "/web/node_modules"));
+    }
+
+    @Test
+    public void literalNameWithoutSlashAlsoExcludesFiles() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addPattern("pom.xml");
+
+        assertTrue(filter.isExcluded(BASE + "/module/pom.xml"));
+        assertTrue(filter.isExcluded(BASE + "/pom.xml/nested/package.json"));
+        assertFalse(filter.isExcluded(BASE + "/module/pom.xml.bak"));
+    }
+
+    @Test
+    public void pathsOutsideTheProjectAreNotExcludedByRules() {
+        PathFilter filter = new PathFilter(BASE);
+        filter.addPattern("*");
+
+        assertFalse(filter.isExcluded("/work/other/package.json"));
+        assertFalse(filter.isExcluded(BASE));
+    }
+}